@@ -0,0 +1,87 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.MySpringProjectApplication;
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.services.BookService;
+import com.bruno.project.services.impl.AuthorResolver;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorResolutionBenchmark {
+
+    @Param({"1", "10", "50"})
+    private int authors;
+
+    private ConfigurableApplicationContext context;
+
+    private BookService bookService;
+
+    private AuthorRepository authorRepository;
+
+    private AuthorResolver authorResolver;
+
+    private List<AuthorDTO> authorDTOs;
+
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(MySpringProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN");
+        bookService = context.getBean(BookService.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+        authorResolver = context.getBean(AuthorResolver.class);
+        List<Author> saved = new ArrayList<>();
+        for (int i = 0; i < authors; i++) {
+            Author author = CatalogFixtures.author(i);
+            author.setId(null);
+            saved.add(authorRepository.save(author));
+        }
+        authorDTOs = saved.stream().map(AuthorDTO::toDTO).collect(Collectors.toList());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BookDTO saveBook() {
+        BookDTO bookDTO = BookDTO.toDTO(CatalogFixtures.book(0, 0));
+        bookDTO.setIsbn("978-" + (2000000000L + sequence++));
+        bookDTO.setAuthors(new ArrayList<>(authorDTOs));
+        return bookService.save(bookDTO);
+    }
+
+    @Benchmark
+    public List<Author> resolveAuthors() {
+        return authorResolver.resolve(authorDTOs);
+    }
+
+    @Benchmark
+    public List<Author> resolveAuthorsOneByOne() {
+        List<Author> resolved = new ArrayList<>(authorDTOs.size());
+        for (AuthorDTO authorDTO : authorDTOs) {
+            resolved.add(authorRepository.findById(authorDTO.getId()).orElseThrow());
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,74 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class CatalogFixtures {
+
+    private static final String BIOGRAPHY = "Jo Nesbø (Norwegian: born 29 March 1960) is a Norwegian writer, " +
+            "musician, economist, and former soccer player and reporter. More than 3 million copies of his novels " +
+            "had been sold in Norway as of March 2014; his work has been translated into over 50 languages.";
+
+    private CatalogFixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+        objectMapper.registerModules(new JavaTimeModule());
+        return objectMapper;
+    }
+
+    public static Author author(long id) {
+        return Author.builder()
+                .id(id)
+                .name("Author " + id)
+                .birthDate(LocalDate.of(1960, 3, 29).plusDays(id))
+                .email("author" + id + "@books.com")
+                .phone("+55 11 9" + (10000000 + id))
+                .biography(BIOGRAPHY)
+                .urlPicture("51265117593_c76eb4ccb8_n.jpg")
+                .build();
+    }
+
+    public static Book book(long id, int authors) {
+        Book book = Book.builder()
+                .id(id)
+                .isbn("978-" + (1000000000L + id))
+                .title("The Bat " + id)
+                .printLength(432)
+                .language("English")
+                .publicationYear("1997")
+                .publisher("Harvill Secker")
+                .urlCover("51264896706_e66beed079_n.jpg")
+                .synopsis("Detective Harry Hole is sent to Sydney to investigate the murder of a young woman.")
+                .bookGenre(BookGenre.toEnum((int) (id % BookGenre.values().length)))
+                .build();
+        for (int i = 0; i < authors; i++) {
+            book.getAuthors().add(author(id * 10 + i));
+        }
+        return book;
+    }
+
+    public static List<Book> books(int size, int authors) {
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            books.add(book(i, authors));
+        }
+        return books;
+    }
+
+    public static List<BookDTO> bookDTOs(int size, int authors) {
+        return books(size, authors).stream().map(BookDTO::toDTO).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.services.impl.BookServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1", "3", "5"})
+    private int authors;
+
+    private Book book;
+
+    private BookDTO bookDTO;
+
+    private Author author;
+
+    private int genreCode;
+
+    @Setup
+    public void setUp() {
+        book = CatalogFixtures.book(1L, authors);
+        bookDTO = BookDTO.toDTO(book);
+        author = CatalogFixtures.author(1L);
+    }
+
+    @Benchmark
+    public BookDTO bookToDTO() {
+        return BookDTO.toDTO(book);
+    }
+
+    @Benchmark
+    public AuthorDTO authorToDTO() {
+        return AuthorDTO.toDTO(author);
+    }
+
+    @Benchmark
+    public Book bookFromDTO() {
+        return BookServiceImpl.fromDTO(bookDTO);
+    }
+
+    @Benchmark
+    public BookGenre bookGenreToEnum() {
+        genreCode = (genreCode + 1) % BookGenre.values().length;
+        return BookGenre.toEnum(genreCode);
+    }
+}
@@ -0,0 +1,70 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.CatalogJson;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.entities.Book;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    @Param({"1", "5"})
+    private int authors;
+
+    private List<Book> books;
+
+    private Page<BookDTO> page;
+
+    private ObjectWriter writer;
+
+    private ObjectWriter envelopeWriter;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = CatalogFixtures.objectMapper();
+        writer = objectMapper.writerFor(Page.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        envelopeWriter = objectMapper.writerFor(PageEnvelope.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        books = CatalogFixtures.books(pageSize, authors);
+        page = new PageImpl<>(CatalogFixtures.bookDTOs(pageSize, authors), PageRequest.of(0, pageSize), pageSize * 10L);
+    }
+
+    @Benchmark
+    public void serializePage() throws IOException {
+        writer.writeValue(sink, page);
+    }
+
+    @Benchmark
+    public void mapAndSerializePage() throws IOException {
+        Page<BookDTO> mapped = new PageImpl<>(books, PageRequest.of(0, pageSize), pageSize * 10L).map(BookDTO::toDTO);
+        writer.writeValue(sink, mapped);
+    }
+
+    @Benchmark
+    public void streamEnvelope() throws IOException {
+        PageEnvelope<BookDTO> envelope = PageEnvelope.of(books, PageRequest.of(0, pageSize), pageSize * 10L,
+                BookDTO::toDTO, CatalogJson::writeBook);
+        envelopeWriter.writeValue(sink, envelope);
+    }
+}
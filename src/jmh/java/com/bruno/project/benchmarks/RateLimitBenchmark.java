@@ -0,0 +1,86 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.config.ratelimit.TokenBuckets;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(64)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final int MAX_CLIENTS = 100_000;
+
+    @Param({"1", "64", "1000000"})
+    private int clients;
+
+    @Param({"1", "100000"})
+    private long intervalNanos;
+
+    private TokenBuckets tokenBuckets;
+
+    private final Map<String, long[]> lockedArrivals = new HashMap<>();
+
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        private String[] keys;
+
+        private int next;
+
+        @Setup
+        public void setUp(RateLimitBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            keys = new String[1024];
+            for (int i = 0; i < keys.length; i++) {
+                int client = benchmark.clients == 1 ? 0
+                        : benchmark.clients <= 64 ? thread % benchmark.clients
+                        : (int) ((thread * 1_000_003L + i * 7919L) % benchmark.clients);
+                keys[i] = "ip:10." + (client >>> 16) + '.' + (client >>> 8 & 255) + '.' + (client & 255);
+            }
+        }
+
+        String next() {
+            return keys[next++ & (keys.length - 1)];
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        tokenBuckets = new TokenBuckets(MAX_CLIENTS, Duration.ofSeconds(1));
+    }
+
+    @Benchmark
+    public long tokenBuckets(Client client) {
+        return tokenBuckets.tryAcquire("catalog", client.next(), 60, intervalNanos);
+    }
+
+    @Benchmark
+    public long synchronizedMap(Client client) {
+        String key = "catalog " + client.next();
+        long now = System.nanoTime();
+        synchronized (lockedArrivals) {
+            if (!lockedArrivals.containsKey(key) && lockedArrivals.size() >= MAX_CLIENTS) {
+                lockedArrivals.values().removeIf(arrival -> arrival[0] - now <= 0);
+                if (lockedArrivals.size() >= MAX_CLIENTS) key = "catalog *";
+            }
+            long[] arrival = lockedArrivals.computeIfAbsent(key, ignored -> new long[]{now});
+            long start = Math.max(arrival[0], now);
+            long wait = start - now - 59 * intervalNanos;
+            if (wait > 0) return wait;
+            arrival[0] = start + intervalNanos;
+            return 0;
+        }
+    }
+}
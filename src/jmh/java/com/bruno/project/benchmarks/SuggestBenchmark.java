@@ -0,0 +1,75 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.services.index.PrefixIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SuggestBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "sor", "tha", "vel", "dru", "gan", "pe",
+            "ri", "zu", "bel", "cor", "fa", "hol", "jin", "qua", "wes", "yor"};
+
+    @Param({"1000000", "5000000"})
+    private int entries;
+
+    private PrefixIndex index;
+
+    private String[] prefixes;
+
+    private long key;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<PrefixIndex.Entry> list = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            list.add(PrefixIndex.entry(2L * i, text(random), random.nextInt(1000)));
+        }
+        index = PrefixIndex.of(list);
+        key = 2L * entries;
+        prefixes = new String[1024];
+        for (int i = 0; i < prefixes.length; i++) {
+            String text = text(random);
+            prefixes[i] = text.substring(0, 1 + random.nextInt(Math.min(6, text.length())));
+        }
+        log.info("{} suggestions: {} bytes", entries, index.sizeInBytes());
+    }
+
+    @Benchmark
+    public List<PrefixIndex.Entry> suggest() {
+        return index.top(prefixes[next++ & (prefixes.length - 1)], 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void put() {
+        index.put(key++, prefixes[next++ & (prefixes.length - 1)] + " edition", 1);
+        if (index.needsMerge()) index = index.merged();
+    }
+
+    private static String text(Random random) {
+        StringBuilder text = new StringBuilder();
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) text.append(' ');
+            int syllables = 1 + random.nextInt(3);
+            for (int j = 0; j < syllables; j++) text.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            if (i == 0) text.setCharAt(0, Character.toUpperCase(text.charAt(0)));
+        }
+        return text.toString();
+    }
+}
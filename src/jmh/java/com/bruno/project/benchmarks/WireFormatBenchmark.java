@@ -0,0 +1,94 @@
+package com.bruno.project.benchmarks;
+
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.services.codec.BinaryCodecs;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private String format;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private PageEnvelope<BookDTO> page;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private byte[] payload;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+
+    @Setup
+    public void setUp() throws IOException {
+        Type pageType = ResolvableType.forClassWithGenerics(PageEnvelope.class, BookDTO.class).getType();
+        page = PageEnvelope.of(CatalogFixtures.bookDTOs(pageSize, 2), PageRequest.of(0, pageSize), pageSize * 10L);
+        if (format.equals("JSON")) {
+            ObjectMapper objectMapper = CatalogFixtures.objectMapper();
+            writer = objectMapper.writerFor(objectMapper.constructType(pageType));
+            reader = objectMapper.readerFor(PageBody.class);
+        } else {
+            BinaryFormat binaryFormat = BinaryFormat.valueOf(format);
+            BinaryCodecs codecs = new BinaryCodecs(Jackson2ObjectMapperBuilder.json()
+                    .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+            writer = codecs.writer(binaryFormat, pageType);
+            reader = codecs.mapper(binaryFormat).readerFor(PageBody.class);
+            if (binaryFormat == BinaryFormat.PROTOBUF) reader = reader.with(codecs.schema(pageType));
+        }
+        writer = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        payload = writer.writeValueAsBytes(page);
+        log.info("{} page of {} books: {} bytes", format, pageSize, payload.length);
+    }
+
+    @Benchmark
+    public void encodePage() throws IOException {
+        writer.writeValue(sink, page);
+    }
+
+    @Benchmark
+    public PageBody decodePage() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    @Getter
+    @Setter
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class PageBody {
+
+        private List<BookDTO> content;
+        private int number;
+        private int size;
+        private long totalElements;
+        private int totalPages;
+    }
+}
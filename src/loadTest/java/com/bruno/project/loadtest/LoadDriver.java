@@ -0,0 +1,163 @@
+package com.bruno.project.loadtest;
+
+import com.bruno.project.services.seed.SeedResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+@Slf4j
+@RequiredArgsConstructor
+public class LoadDriver {
+
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestProperties properties;
+
+    private final URI baseUri;
+
+    private final String database;
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+    public LoadReport run(SeedResult seeding) throws InterruptedException {
+        for (Operation operation : Operation.values()) stats.put(operation, new Stats());
+        Workload workload = new Workload(baseUri, properties, seeding);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime()
+                .availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getTimeout())
+                .build();
+        Semaphore inFlight = new Semaphore(properties.getMaxInFlight());
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long measureFrom = start + properties.getWarmup().toNanos();
+        long end = measureFrom + properties.getDuration().toNanos();
+        log.info("Driving {} requests per second for {} after a {} warm-up", properties.getRate(),
+                properties.getDuration(), properties.getWarmup());
+        try {
+            for (long i = 0; ; i++) {
+                long intended = start + (long) (i * 1e9 / properties.getRate());
+                if (intended >= end) break;
+                long delay = intended - System.nanoTime();
+                if (delay > 0) LockSupport.parkNanos(delay);
+                Operation operation = workload.next();
+                boolean measured = intended >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) stats.get(operation).dropped.increment();
+                    continue;
+                }
+                HttpRequest request = workload.request(operation);
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    inFlight.release();
+                    if (response != null) workload.completed(operation, response);
+                    if (measured) stats.get(operation).record(latency, response == null ? 0 : response.statusCode());
+                    if (error != null) log.debug("{} failed", request.uri(), error);
+                });
+            }
+            if (!inFlight.tryAcquire(properties.getMaxInFlight(), properties.getTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS)) {
+                log.warn("Requests still in flight after {}", properties.getTimeout());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report(startedAt, seeding);
+    }
+
+    private LoadReport report(Instant startedAt, SeedResult seeding) {
+        double seconds = properties.getDuration().toNanos() / 1e9;
+        Stats total = new Stats();
+        Map<String, LoadReport.EndpointReport> endpoints = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            total.add(operationStats);
+            if (operationStats.histogram.getTotalCount() + operationStats.dropped.sum() == 0) return;
+            endpoints.put(operation.name(), operationStats.report(operation.getMethod(), operation.getPath(),
+                    seconds));
+        });
+        return LoadReport.builder()
+                .startedAt(startedAt)
+                .database(database)
+                .seed(properties.getSeed())
+                .targetRate(properties.getRate())
+                .warmupSeconds(properties.getWarmup().toNanos() / 1e9)
+                .durationSeconds(seconds)
+                .seeding(seeding)
+                .total(total.report(null, null, seconds))
+                .endpoints(endpoints)
+                .build();
+    }
+
+    private static class Stats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long nanos, int status) {
+            histogram.recordValue(Math.min(HIGHEST_LATENCY, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            if (status == 0 || status >= 400) errors.increment();
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        void add(Stats other) {
+            histogram.add(other.histogram);
+            errors.add(other.errors.sum());
+            dropped.add(other.dropped.sum());
+            other.statuses.forEach((status, count) -> statuses.computeIfAbsent(status, key -> new LongAdder())
+                    .add(count.sum()));
+        }
+
+        LoadReport.EndpointReport report(String method, String path, double seconds) {
+            Map<String, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status == 0 ? "failed" : String.valueOf(status),
+                    count.sum()));
+            return LoadReport.EndpointReport.builder()
+                    .method(method)
+                    .path(path)
+                    .requests(histogram.getTotalCount())
+                    .errors(errors.sum())
+                    .dropped(dropped.sum())
+                    .throughput(round(histogram.getTotalCount() / seconds))
+                    .latencyMillis(LoadReport.Latency.builder()
+                            .mean(millis(histogram.getMean()))
+                            .p50(millis(histogram.getValueAtPercentile(50)))
+                            .p95(millis(histogram.getValueAtPercentile(95)))
+                            .p99(millis(histogram.getValueAtPercentile(99)))
+                            .p999(millis(histogram.getValueAtPercentile(99.9)))
+                            .max(millis(histogram.getMaxValue()))
+                            .build())
+                    .statuses(counts)
+                    .build();
+        }
+
+        private static double millis(double micros) {
+            return round(micros / 1000);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.bruno.project.loadtest;
+
+import com.bruno.project.services.seed.SeedResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Value
+@Builder
+public class LoadReport {
+
+    Instant startedAt;
+    String database;
+    long seed;
+    double targetRate;
+    double warmupSeconds;
+    double durationSeconds;
+    SeedResult seeding;
+    EndpointReport total;
+    Map<String, EndpointReport> endpoints;
+
+    @Value
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class EndpointReport {
+
+        String method;
+        String path;
+        long requests;
+        long errors;
+        long dropped;
+        double throughput;
+        Latency latencyMillis;
+        Map<String, Long> statuses;
+    }
+
+    @Value
+    @Builder
+    public static class Latency {
+
+        double mean;
+        double p50;
+        double p95;
+        double p99;
+        double p999;
+        double max;
+    }
+}
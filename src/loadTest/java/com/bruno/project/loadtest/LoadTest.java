@@ -0,0 +1,50 @@
+package com.bruno.project.loadtest;
+
+import com.bruno.project.MySpringProjectApplication;
+import com.bruno.project.services.seed.CatalogSeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.URI;
+import java.util.Map;
+
+@Slf4j
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "server.port", "0",
+            "app.seed.enabled", "true",
+            "spring.jpa.show-sql", "false",
+            "app.rate-limit.enabled", "false",
+            "logging.level.org.hibernate.SQL", "WARN");
+
+    public static void main(String[] args) throws Exception {
+        DEFAULTS.forEach(System.getProperties()::putIfAbsent);
+        LoadReport report;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MySpringProjectApplication.class,
+                LoadTestConfig.class).run(args)) {
+            LoadTestProperties properties = context.getBean(LoadTestProperties.class);
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            String database = context.getEnvironment().getProperty("spring.datasource.url");
+            report = new LoadDriver(properties, baseUri, database).run(context.getBean(CatalogSeeder.class)
+                    .getResult());
+            File file = new File(properties.getReport());
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            context.getBean(ObjectMapper.class).copy()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .writeValue(file, report);
+            log.info("Load test report written to {}", file.getAbsolutePath());
+        }
+        report.getEndpoints().forEach((name, endpoint) -> System.out.printf("%-22s %8d req %6d err %9.1f/s "
+                        + "p50 %8.2f p95 %8.2f p99 %8.2f p999 %8.2f ms%n", name, endpoint.getRequests(),
+                endpoint.getErrors(), endpoint.getThroughput(), endpoint.getLatencyMillis().getP50(),
+                endpoint.getLatencyMillis().getP95(), endpoint.getLatencyMillis().getP99(),
+                endpoint.getLatencyMillis().getP999()));
+        System.exit(0);
+    }
+}
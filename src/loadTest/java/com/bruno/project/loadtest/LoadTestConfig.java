@@ -0,0 +1,9 @@
+package com.bruno.project.loadtest;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestConfig {
+}
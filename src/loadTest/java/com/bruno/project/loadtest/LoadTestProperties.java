@@ -0,0 +1,42 @@
+package com.bruno.project.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("loadtest")
+public class LoadTestProperties {
+
+    private long seed = 42;
+
+    private double rate = 200;
+
+    private Duration warmup = Duration.ofSeconds(15);
+
+    private Duration duration = Duration.ofSeconds(60);
+
+    private int maxInFlight = 256;
+
+    private Duration timeout = Duration.ofSeconds(30);
+
+    private String report = "build/reports/load-test/results.json";
+
+    private Map<Operation, Integer> mix = new LinkedHashMap<>(Map.ofEntries(
+            Map.entry(Operation.LIST_BOOKS, 22),
+            Map.entry(Operation.GET_BOOK, 20),
+            Map.entry(Operation.FIND_BOOKS_BY_TITLE, 6),
+            Map.entry(Operation.FIND_BOOKS_BY_AUTHOR, 4),
+            Map.entry(Operation.SEARCH_BOOKS, 10),
+            Map.entry(Operation.LIST_AUTHORS, 10),
+            Map.entry(Operation.GET_AUTHOR, 8),
+            Map.entry(Operation.FIND_AUTHORS_BY_NAME, 6),
+            Map.entry(Operation.CREATE_BOOK, 5),
+            Map.entry(Operation.PATCH_BOOK, 2),
+            Map.entry(Operation.DELETE_BOOK, 4),
+            Map.entry(Operation.CREATE_AUTHOR, 2),
+            Map.entry(Operation.DELETE_AUTHOR, 1)));
+}
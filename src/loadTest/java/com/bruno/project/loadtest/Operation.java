@@ -0,0 +1,27 @@
+package com.bruno.project.loadtest;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum Operation {
+
+    LIST_BOOKS("GET", "/api/v1/books"),
+    GET_BOOK("GET", "/api/v1/books/{id}"),
+    FIND_BOOKS_BY_TITLE("GET", "/api/v1/books/title"),
+    FIND_BOOKS_BY_AUTHOR("GET", "/api/v1/books/author"),
+    SEARCH_BOOKS("GET", "/api/v1/books/search"),
+    LIST_AUTHORS("GET", "/api/v1/authors"),
+    GET_AUTHOR("GET", "/api/v1/authors/{id}"),
+    FIND_AUTHORS_BY_NAME("GET", "/api/v1/authors/name"),
+    CREATE_BOOK("POST", "/api/v1/books"),
+    PATCH_BOOK("PATCH", "/api/v1/books/{id}"),
+    DELETE_BOOK("DELETE", "/api/v1/books/{id}"),
+    CREATE_AUTHOR("POST", "/api/v1/authors"),
+    DELETE_AUTHOR("DELETE", "/api/v1/authors/{id}");
+
+    private final String method;
+    private final String path;
+}
@@ -0,0 +1,158 @@
+package com.bruno.project.loadtest;
+
+import com.bruno.project.services.seed.CatalogVocabulary;
+import com.bruno.project.services.seed.Distribution;
+import com.bruno.project.services.seed.SeedResult;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Workload {
+
+    private static final String JSON = "application/json";
+
+    private final URI baseUri;
+
+    private final LoadTestProperties properties;
+
+    private final SeedResult catalog;
+
+    private final Random random;
+
+    private final Operation[] operations;
+
+    private final Distribution mix;
+
+    private final Queue<Long> createdBooks = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Long> createdAuthors = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong isbns = new AtomicLong();
+
+    public Workload(URI baseUri, LoadTestProperties properties, SeedResult catalog) {
+        this.baseUri = baseUri;
+        this.properties = properties;
+        this.catalog = catalog;
+        this.random = new Random(properties.getSeed());
+        this.operations = properties.getMix().keySet().toArray(new Operation[0]);
+        this.mix = Distribution.of(properties.getMix().values().stream().mapToDouble(Integer::doubleValue)
+                .toArray());
+    }
+
+    public Operation next() {
+        Operation operation = operations[mix.sample(random)];
+        if (operation == Operation.DELETE_BOOK && createdBooks.isEmpty()) return Operation.CREATE_BOOK;
+        if (operation == Operation.DELETE_AUTHOR && createdAuthors.isEmpty()) return Operation.CREATE_AUTHOR;
+        return operation;
+    }
+
+    public HttpRequest request(Operation operation) {
+        switch (operation) {
+            case LIST_BOOKS:
+                return get("/api/v1/books?size=20&page=" + page());
+            case GET_BOOK:
+                return get("/api/v1/books/" + book());
+            case FIND_BOOKS_BY_TITLE:
+                return get("/api/v1/books/title?size=20&text=" + encode(pick(CatalogVocabulary.NOUNS)));
+            case FIND_BOOKS_BY_AUTHOR:
+                return get("/api/v1/books/author?size=20&text=" + encode(pick(CatalogVocabulary.LAST_NAMES)));
+            case SEARCH_BOOKS:
+                return get("/api/v1/books/search?size=20&bookGenre="
+                        + CatalogVocabulary.GENRES[CatalogVocabulary.GENRE.sample(random)].name() + "&language="
+                        + CatalogVocabulary.LANGUAGES[CatalogVocabulary.LANGUAGE.sample(random)]);
+            case LIST_AUTHORS:
+                return get("/api/v1/authors?size=20&page=" + page());
+            case GET_AUTHOR:
+                return get("/api/v1/authors/" + author());
+            case FIND_AUTHORS_BY_NAME:
+                return get("/api/v1/authors/name?size=20&text=" + encode(pick(CatalogVocabulary.LAST_NAMES)));
+            case CREATE_BOOK:
+                return send("POST", "/api/v1/books", JSON, newBook());
+            case PATCH_BOOK:
+                return send("PATCH", "/api/v1/books/" + book(), "application/merge-patch+json",
+                        "{\"printLength\":" + (80 + random.nextInt(900)) + "}");
+            case DELETE_BOOK:
+                return delete("/api/v1/books/" + createdBooks.poll());
+            case CREATE_AUTHOR:
+                return send("POST", "/api/v1/authors", JSON, newAuthor());
+            case DELETE_AUTHOR:
+                return delete("/api/v1/authors/" + createdAuthors.poll());
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    public void completed(Operation operation, HttpResponse<?> response) {
+        if (response.statusCode() != 201) return;
+        response.headers().firstValue("Location").ifPresent(location -> {
+            Long id = Long.valueOf(location.substring(location.lastIndexOf('/') + 1));
+            if (operation == Operation.CREATE_BOOK) createdBooks.add(id);
+            if (operation == Operation.CREATE_AUTHOR) createdAuthors.add(id);
+        });
+    }
+
+    private String newBook() {
+        String title = CatalogVocabulary.title(random);
+        String language = CatalogVocabulary.LANGUAGES[CatalogVocabulary.LANGUAGE.sample(random)];
+        return "{\"isbn\":\"" + CatalogVocabulary.isbn("979", isbns.incrementAndGet()) + "\",\"title\":\"" + title
+                + "\",\"printLength\":" + (80 + random.nextInt(900)) + ",\"language\":\"" + language
+                + "\",\"publicationYear\":\"2021\",\"publisher\":\""
+                + CatalogVocabulary.PUBLISHERS[CatalogVocabulary.PUBLISHER.sample(random)] + "\",\"synopsis\":\""
+                + CatalogVocabulary.synopsis(title, language, random) + "\",\"bookGenre\":\""
+                + CatalogVocabulary.GENRES[CatalogVocabulary.GENRE.sample(random)].name()
+                + "\",\"authors\":[{\"id\":" + author() + "}]}";
+    }
+
+    private String newAuthor() {
+        long number = catalog.getFirstAuthorId() + catalog.getAuthors() + isbns.incrementAndGet();
+        String name = CatalogVocabulary.name(number);
+        return "{\"name\":\"" + name + "\",\"birthDate\":\"1970-05-17\",\"email\":\"load" + number
+                + "@books.com\",\"biography\":\"" + CatalogVocabulary.biography(name, "English") + "\"}";
+    }
+
+    private int page() {
+        return (int) Math.min(1_000, -Math.log(1 - random.nextDouble()) * 5);
+    }
+
+    private long book() {
+        return catalog.getFirstBookId() + random.nextInt((int) catalog.getBooks());
+    }
+
+    private long author() {
+        return catalog.getFirstAuthorId() + random.nextInt((int) catalog.getAuthors());
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest delete(String path) {
+        return builder(path).DELETE().build();
+    }
+
+    private HttpRequest send(String method, String path, String contentType, String body) {
+        return builder(path).header("Content-Type", contentType)
+                .method(method, HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(properties.getTimeout())
+                .header("Accept", JSON);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package com.bruno.project.config;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import javax.servlet.http.HttpServletRequest;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ClientAddress {
+
+    public static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    public static String of(HttpServletRequest request) {
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            return forwardedFor.substring(forwardedFor.lastIndexOf(',') + 1).trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,10 @@
+package com.bruno.project.config;
+
+import com.bruno.project.services.export.BookExportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BookExportProperties.class)
+public class ExportConfig {
+}
@@ -0,0 +1,25 @@
+package com.bruno.project.config;
+
+import com.bruno.project.services.index.FullTextIndexProperties;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+@EnableConfigurationProperties(FullTextIndexProperties.class)
+public class FullTextIndexConfig {
+
+    @Bean(destroyMethod = "close")
+    public Directory fullTextDirectory(FullTextIndexProperties properties) throws IOException {
+        if (properties.getDirectory() == null || properties.getDirectory().isBlank()) {
+            return new ByteBuffersDirectory();
+        }
+        return FSDirectory.open(Paths.get(properties.getDirectory()));
+    }
+}
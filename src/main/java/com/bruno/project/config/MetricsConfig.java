@@ -0,0 +1,23 @@
+package com.bruno.project.config;
+
+import com.bruno.project.services.metrics.ServiceMetricsAspect;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return invocation -> {
+            Throwable error = invocation.getResult() == null ? null : invocation.getResult().getError();
+            return Tags.of(
+                    "repository", invocation.getRepositoryInterface().getSimpleName(),
+                    "method", invocation.getMethod().getName(),
+                    "outcome", ServiceMetricsAspect.outcome(error),
+                    "exception", error == null ? "none" : error.getClass().getSimpleName());
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.bruno.project.config;
+
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.services.codec.BinaryCodecs;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+public class ProtobufSchemaHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final BinaryCodecs codecs;
+
+    public ProtobufSchemaHttpMessageConverter(BinaryCodecs codecs) {
+        super(MediaType.parseMediaType(BinaryFormat.PROTOBUF.getMediaType()));
+        this.codecs = codecs;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return codecs.schema(clazz) != null || PageEnvelope.class.isAssignableFrom(clazz)
+                || CursorPage.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return codecs.schema(GenericTypeResolver.resolveType(type, contextClass)) != null && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return codecs.schema(type != null ? type : clazz) != null && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        Type resolved = GenericTypeResolver.resolveType(type, contextClass);
+        try {
+            return codecs.reader(BinaryFormat.PROTOBUF, resolved).readValue(inputMessage.getBody());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Invalid Protobuf message: " + e.getOriginalMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            codecs.writer(BinaryFormat.PROTOBUF, type != null ? type : object.getClass())
+                    .writeValue(outputMessage.getBody(), object);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write Protobuf: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bruno.project.config;
+
+import com.bruno.project.services.metrics.QueryBudgetAspect;
+import com.bruno.project.services.metrics.QueryBudgetProperties;
+import com.bruno.project.services.metrics.QueryCountFilter;
+import com.bruno.project.services.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class QueryBudgetConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public QueryBudgetAspect queryBudgetAspect(MeterRegistry registry, QueryBudgetProperties properties) {
+        return new QueryBudgetAspect(registry, properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry registry,
+                                                                    QueryBudgetProperties properties) {
+        return new FilterRegistrationBean<>(new QueryCountFilter(registry, properties));
+    }
+}
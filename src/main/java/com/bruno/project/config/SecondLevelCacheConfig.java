@@ -0,0 +1,74 @@
+package com.bruno.project.config;
+
+import com.bruno.project.config.cache.CacheEvictionMetrics;
+import com.bruno.project.config.cache.SecondLevelCacheProperties;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheEventListenerConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.event.EventType;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SecondLevelCacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    public static final List<String> REGIONS = List.of(Author.CACHE_REGION, Author.EMAIL_CACHE_REGION,
+            Book.CACHE_REGION, Book.ISBN_CACHE_REGION, Book.AUTHORS_CACHE_REGION);
+
+    @Bean
+    public CacheEvictionMetrics cacheEvictionMetrics() {
+        return new CacheEvictionMetrics(REGIONS);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties,
+                                                CacheEvictionMetrics cacheEvictionMetrics) {
+        CacheManager cacheManager = new EhcacheCachingProvider().getCacheManager();
+        for (String name : REGIONS) {
+            SecondLevelCacheProperties.Region region = properties.region(name);
+            CacheConfigurationBuilder<Object, Object> configuration = CacheConfigurationBuilder
+                    .newCacheConfigurationBuilder(Object.class, Object.class,
+                            ResourcePoolsBuilder.heap(region.getMaxEntries()))
+                    .withService(CacheEventListenerConfigurationBuilder
+                            .newEventListenerConfiguration(cacheEvictionMetrics.listener(name),
+                                    EventType.EVICTED, EventType.EXPIRED)
+                            .unordered()
+                            .asynchronous());
+            if (region.getTimeToLive() != null) {
+                configuration = configuration.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(
+                        region.getTimeToLive()));
+            } else if (region.getTimeToIdle() != null) {
+                configuration = configuration.withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(
+                        region.getTimeToIdle()));
+            }
+            cacheManager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(configuration));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY,
+                    MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+}
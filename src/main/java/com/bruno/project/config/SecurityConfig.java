@@ -24,9 +24,13 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     private static final String[] PUBLIC_MATCHERS_GET = {
             "/api/v1/authors/**",
             "/api/v1/books/**",
+            "/api/v1/suggest/**",
+            "/api/v1/search/**",
             "/actuator/health"
     };
 
+    private static final String METRICS_ROLE = "METRICS";
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         if(Arrays.asList(environment.getActiveProfiles()).contains("test")){
@@ -37,17 +41,21 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             http.authorizeRequests().anyRequest().permitAll();
         } else {
             http.authorizeRequests()
+                    .antMatchers(HttpMethod.GET, "/actuator/prometheus")
+                    .hasRole(METRICS_ROLE)
                     .antMatchers(HttpMethod.GET, PUBLIC_MATCHERS_GET)
                     .permitAll()
                     .anyRequest()
-                    .authenticated();
+                    .access("isAuthenticated() and !hasRole('" + METRICS_ROLE + "')")
+                    .and()
+                    .httpBasic();
         }
     }
 
     @Bean
     CorsConfigurationSource corsConfigurationSource(){
         CorsConfiguration corsConfiguration = new CorsConfiguration().applyPermitDefaultValues();
-        corsConfiguration.setAllowedMethods(Arrays.asList("POST", "PUT", "GET", "DELETE", "OPTIONS"));
+        corsConfiguration.setAllowedMethods(Arrays.asList("POST", "PUT", "PATCH", "GET", "DELETE", "OPTIONS"));
         final UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfiguration);
         return source;
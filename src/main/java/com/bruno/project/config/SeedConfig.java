@@ -0,0 +1,22 @@
+package com.bruno.project.config;
+
+import com.bruno.project.services.seed.CatalogSeeder;
+import com.bruno.project.services.seed.SeedProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.seed", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(SeedProperties.class)
+public class SeedConfig {
+
+    @Bean
+    public CatalogSeeder catalogSeeder(DataSource dataSource, SeedProperties properties, ApplicationContext context) {
+        return new CatalogSeeder(dataSource, properties, context);
+    }
+}
@@ -0,0 +1,51 @@
+package com.bruno.project.config.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.ehcache.event.CacheEventListener;
+import org.ehcache.event.EventType;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class CacheEvictionMetrics implements MeterBinder {
+
+    public static final String METRIC_NAME = "catalog.cache.evictions";
+
+    private final Map<String, Map<EventType, LongAdder>> counts = new LinkedHashMap<>();
+
+    public CacheEvictionMetrics(Collection<String> regions) {
+        for (String region : regions) {
+            Map<EventType, LongAdder> regionCounts = new EnumMap<>(EventType.class);
+            regionCounts.put(EventType.EVICTED, new LongAdder());
+            regionCounts.put(EventType.EXPIRED, new LongAdder());
+            counts.put(region, regionCounts);
+        }
+    }
+
+    public CacheEventListener<Object, Object> listener(String region) {
+        Map<EventType, LongAdder> regionCounts = counts.get(region);
+        return event -> {
+            LongAdder count = regionCounts.get(event.getType());
+            if (count != null) count.increment();
+        };
+    }
+
+    public long count(String region, EventType type) {
+        return counts.get(region).get(type).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counts.forEach((region, regionCounts) -> regionCounts.forEach((type, count) ->
+                FunctionCounter.builder(METRIC_NAME, count, LongAdder::doubleValue)
+                        .description("Second-level cache entries dropped to stay within the region size or expiry")
+                        .tag("region", region)
+                        .tag("cause", type.name())
+                        .register(registry)));
+    }
+}
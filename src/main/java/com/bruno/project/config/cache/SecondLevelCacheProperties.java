@@ -0,0 +1,34 @@
+package com.bruno.project.config.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class SecondLevelCacheProperties {
+
+    private boolean enabled;
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    public Region region(String name) {
+        return regions.getOrDefault(name, new Region());
+    }
+
+    @Getter
+    @Setter
+    public static class Region {
+
+        private long maxEntries = 10_000;
+
+        private Duration timeToLive;
+
+        private Duration timeToIdle;
+    }
+}
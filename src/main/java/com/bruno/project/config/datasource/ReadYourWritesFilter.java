@@ -0,0 +1,72 @@
+package com.bruno.project.config.datasource;
+
+import com.bruno.project.config.ClientAddress;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private static final int MAX_TRACKED_CLIENTS = 10_000;
+
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final long windowNanos;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String client = clientKey(request);
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write || wroteRecently(client)) {
+            ReplicaRoutingContext.requirePrimary();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.clear();
+            if (write && response.getStatus() < 400) {
+                recordWrite(client);
+            }
+        }
+    }
+
+    boolean wroteRecently(String client) {
+        Long lastWrite = lastWrites.get(client);
+        if (lastWrite == null) return false;
+        if (System.nanoTime() - lastWrite < windowNanos) return true;
+        lastWrites.remove(client, lastWrite);
+        return false;
+    }
+
+    private void recordWrite(String client) {
+        long now = System.nanoTime();
+        if (lastWrites.size() >= MAX_TRACKED_CLIENTS) {
+            lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+        }
+        if (lastWrites.size() < MAX_TRACKED_CLIENTS || lastWrites.containsKey(client)) {
+            lastWrites.put(client, now);
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) return "user:" + principal.getName();
+        return "ip:" + ClientAddress.of(request);
+    }
+}
@@ -0,0 +1,149 @@
+package com.bruno.project.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final Replica[] replicas;
+
+    private final ReplicaRoutingProperties properties;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private ScheduledExecutorService monitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                    ReplicaRoutingProperties properties) {
+        this.properties = properties;
+        this.replicas = new Replica[replicas.size()];
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas[i] = new Replica("replica-" + i, replicas.get(i));
+            targets.put(this.replicas[i].key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long interval = properties.getLagCheckInterval().toMillis();
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || ReplicaRoutingContext.isPrimaryRequired()) {
+            return PRIMARY;
+        }
+        Replica replica = properties.getSelection() == ReplicaRoutingProperties.Selection.LEAST_CONNECTIONS
+                ? leastConnections()
+                : roundRobin();
+        return replica == null ? PRIMARY : replica.key;
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            replica.healthy = isCurrent(replica);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+    }
+
+    private Replica roundRobin() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.length == 0 ? 1 : replicas.length);
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(start + i) % replicas.length];
+            if (replica.healthy) return replica;
+        }
+        return null;
+    }
+
+    private Replica leastConnections() {
+        Replica least = null;
+        int leastActive = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (!replica.healthy) continue;
+            HikariPoolMXBean pool = replica.dataSource.getHikariPoolMXBean();
+            int active = pool == null ? 0 : pool.getActiveConnections();
+            if (active < leastActive) {
+                least = replica;
+                leastActive = active;
+            }
+        }
+        return least;
+    }
+
+    private boolean isCurrent(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (properties.getLagQuery() == null || properties.getLagQuery().isBlank()) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(properties.getLagQuery())) {
+                double lag = resultSet.next() ? resultSet.getDouble(1) : Double.MAX_VALUE;
+                boolean current = lag <= properties.getMaxLag().toMillis();
+                if (!current && replica.healthy) {
+                    log.warn("Replica {} is {} ms behind the primary, routing its reads to the primary", replica.key, lag);
+                }
+                return current;
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (replica.healthy) {
+                log.warn("Replica {} is unavailable, routing its reads to the primary: {}", replica.key, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private static class Replica {
+
+        private final String key;
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy;
+
+        Replica(String key, HikariDataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.bruno.project.config.ratelimit;
+
+import com.bruno.project.config.ClientAddress;
+import com.bruno.project.exceptions.StandardError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final class Rule {
+
+        private final String name;
+        private final List<String> patterns;
+        private final Set<String> methods;
+        private final int capacity;
+        private final long intervalNanos;
+
+        private Rule(RateLimitProperties.Rule rule) {
+            if (rule.getName() == null || rule.getCapacity() < 1 || !(rule.getRefillPerSecond() > 0)) {
+                throw new IllegalArgumentException("The rate limit rule '" + rule.getName()
+                        + "' needs a name, a capacity of at least 1 and a positive refill rate");
+            }
+            this.name = rule.getName();
+            this.patterns = List.copyOf(rule.getPatterns());
+            this.methods = rule.getMethods().stream().map(String::toUpperCase).collect(Collectors.toSet());
+            this.capacity = rule.getCapacity();
+            this.intervalNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond()));
+        }
+    }
+
+    private final List<Rule> rules;
+
+    private final TokenBuckets tokenBuckets;
+
+    private final ObjectMapper objectMapper;
+
+    private final String apiKeyHeader;
+
+    private final Set<String> apiKeys;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final UrlPathHelper pathHelper = new UrlPathHelper();
+
+    public RateLimitFilter(RateLimitProperties properties, TokenBuckets tokenBuckets, ObjectMapper objectMapper) {
+        this.rules = properties.getRules().stream().map(Rule::new).collect(Collectors.toList());
+        this.tokenBuckets = tokenBuckets;
+        this.objectMapper = objectMapper;
+        this.apiKeyHeader = properties.getApiKeyHeader();
+        this.apiKeys = Set.copyOf(properties.getApiKeys());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule != null) {
+            long wait = tokenBuckets.tryAcquire(rule.name, clientKey(request), rule.capacity, rule.intervalNanos);
+            if (wait > 0) {
+                reject(request, response, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = pathHelper.getPathWithinApplication(request);
+        for (Rule rule : rules) {
+            if (!rule.methods.isEmpty() && !rule.methods.contains(request.getMethod())) continue;
+            for (String pattern : rule.patterns) {
+                if (pathMatcher.match(pattern, path)) return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        if (apiKey != null && apiKeys.contains(apiKey)) return "key:" + apiKey;
+        return "ip:" + ClientAddress.of(request);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos)
+            throws IOException {
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        int status = HttpStatus.TOO_MANY_REQUESTS.value();
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message("Too many requests! Try again in a few seconds.")
+                .error("Too Many Requests")
+                .path(request.getRequestURI())
+                .build());
+    }
+}
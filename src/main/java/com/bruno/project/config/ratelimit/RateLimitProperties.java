@@ -0,0 +1,44 @@
+package com.bruno.project.config.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled;
+
+    private int maxClients = 100_000;
+
+    private Duration evictionInterval = Duration.ofSeconds(1);
+
+    private String apiKeyHeader = "X-API-Key";
+
+    private Set<String> apiKeys = new HashSet<>();
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Rule {
+
+        private String name;
+
+        private List<String> patterns = new ArrayList<>();
+
+        private Set<String> methods = new HashSet<>();
+
+        private int capacity = 60;
+
+        private double refillPerSecond = 20;
+    }
+}
@@ -0,0 +1,101 @@
+package com.bruno.project.config.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+public class TokenBuckets implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "catalog.rate.limit";
+
+    static final String OVERFLOW_CLIENT = "*";
+
+    private final Map<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    private final int maxClients;
+
+    private final long evictionIntervalNanos;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong lastEviction;
+
+    private final LongAdder allowed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder overflowed = new LongAdder();
+
+    public TokenBuckets(int maxClients, Duration evictionInterval) {
+        this(maxClients, evictionInterval, System::nanoTime);
+    }
+
+    TokenBuckets(int maxClients, Duration evictionInterval, LongSupplier clock) {
+        if (maxClients < 1) throw new IllegalArgumentException("The rate limiter must track at least one client");
+        this.maxClients = maxClients;
+        this.evictionIntervalNanos = evictionInterval.toNanos();
+        this.clock = clock;
+        this.lastEviction = new AtomicLong(clock.getAsLong() - evictionIntervalNanos);
+    }
+
+    public long tryAcquire(String bucket, String client, int capacity, long intervalNanos) {
+        long now = clock.getAsLong();
+        AtomicLong arrival = arrival(bucket + ' ' + client, bucket, now);
+        long tolerance = (capacity - 1) * intervalNanos;
+        while (true) {
+            long current = arrival.get();
+            long start = current - now > 0 ? current : now;
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (arrival.compareAndSet(current, start + intervalNanos)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".allowed", allowed, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejected", rejected, LongAdder::sum)
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".overflowed", overflowed, LongAdder::sum)
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".clients", this, TokenBuckets::size)
+                .register(registry);
+    }
+
+    private AtomicLong arrival(String key, String bucket, long now) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival != null) return arrival;
+        if (arrivals.size() >= maxClients) evictFull(now);
+        if (arrivals.size() >= maxClients) {
+            overflowed.increment();
+            return arrivals.computeIfAbsent(bucket + ' ' + OVERFLOW_CLIENT, ignored -> new AtomicLong(now));
+        }
+        return arrivals.computeIfAbsent(key, ignored -> new AtomicLong(now));
+    }
+
+    private void evictFull(long now) {
+        long last = lastEviction.get();
+        if (now - last < evictionIntervalNanos || !lastEviction.compareAndSet(last, now)) return;
+        arrivals.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0
+                && !entry.getKey().endsWith(' ' + OVERFLOW_CLIENT));
+    }
+}
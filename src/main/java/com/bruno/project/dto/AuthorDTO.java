@@ -1,6 +1,7 @@
 package com.bruno.project.dto;
 
 import com.bruno.project.entities.Author;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import javax.validation.constraints.Email;
@@ -19,6 +20,10 @@ public class AuthorDTO implements Serializable {
 
     private Long id;
 
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Long version;
+
     @EqualsAndHashCode.Exclude
     @NotEmpty(message = "We need you to enter the author's name!")
     private String name;
@@ -44,6 +49,7 @@ public class AuthorDTO implements Serializable {
     public static AuthorDTO toDTO(Author author){
         return AuthorDTO.builder()
             .id(author.getId())
+            .version(author.getVersion())
             .name(author.getName())
             .birthDate(author.getBirthDate())
             .email(author.getEmail())
@@ -2,6 +2,7 @@ package com.bruno.project.dto;
 
 import com.bruno.project.entities.Book;
 import com.bruno.project.enums.BookGenre;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 import org.hibernate.validator.constraints.ISBN;
 
@@ -22,6 +23,10 @@ public class BookDTO implements Serializable {
 
     private Long id;
 
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Long version;
+
     @EqualsAndHashCode.Exclude
     @ISBN(message = "What you entered doesn't look like an ISBN!", type = ISBN.Type.ANY)
     @NotEmpty(message = "ISBN is required!")
@@ -62,6 +67,7 @@ public class BookDTO implements Serializable {
     public static BookDTO toDTO(Book book){
         return BookDTO.builder()
         .id(book.getId())
+        .version(book.getVersion())
         .isbn(book.getIsbn())
         .title(book.getTitle())
         .printLength(book.getPrintLength())
@@ -0,0 +1,32 @@
+package com.bruno.project.dto;
+
+import com.bruno.project.enums.BookGenre;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Builder
+public class BookFacetQuery implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Builder.Default
+    private List<BookGenre> bookGenre = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> language = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> publisher = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> publicationYear = new ArrayList<>();
+}
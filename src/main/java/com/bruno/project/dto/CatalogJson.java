@@ -0,0 +1,88 @@
+package com.bruno.project.dto;
+
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+public final class CatalogJson {
+
+    static final SerializedString CONTENT = new SerializedString("content");
+
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString ISBN = new SerializedString("isbn");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString PRINT_LENGTH = new SerializedString("printLength");
+    private static final SerializedString LANGUAGE = new SerializedString("language");
+    private static final SerializedString PUBLICATION_YEAR = new SerializedString("publicationYear");
+    private static final SerializedString PUBLISHER = new SerializedString("publisher");
+    private static final SerializedString URL_COVER = new SerializedString("urlCover");
+    private static final SerializedString SYNOPSIS = new SerializedString("synopsis");
+    private static final SerializedString BOOK_GENRE = new SerializedString("bookGenre");
+    private static final SerializedString AUTHORS = new SerializedString("authors");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final SerializedString BIRTH_DATE = new SerializedString("birthDate");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString PHONE = new SerializedString("phone");
+    private static final SerializedString BIOGRAPHY = new SerializedString("biography");
+    private static final SerializedString URL_PICTURE = new SerializedString("urlPicture");
+
+    private CatalogJson() {
+    }
+
+    public static void writeBook(JsonGenerator generator, Book book, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(book);
+        writeNumber(generator, ID, book.getId());
+        writeString(generator, ISBN, book.getIsbn());
+        writeString(generator, TITLE, book.getTitle());
+        generator.writeFieldName(PRINT_LENGTH);
+        if (book.getPrintLength() == null) generator.writeNull();
+        else generator.writeNumber(book.getPrintLength());
+        writeString(generator, LANGUAGE, book.getLanguage());
+        writeString(generator, PUBLICATION_YEAR, book.getPublicationYear());
+        writeString(generator, PUBLISHER, book.getPublisher());
+        writeString(generator, URL_COVER, book.getUrlCover());
+        generator.writeFieldName(SYNOPSIS);
+        generator.writeNull();
+        generator.writeFieldName(BOOK_GENRE);
+        provider.defaultSerializeValue(book.getBookGenre(), generator);
+        generator.writeFieldName(AUTHORS);
+        List<Author> authors = book.getAuthors();
+        generator.writeStartArray(authors, authors.size());
+        for (int i = 0; i < authors.size(); i++) {
+            writeAuthor(generator, authors.get(i), provider);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    public static void writeAuthor(JsonGenerator generator, Author author, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(author);
+        writeNumber(generator, ID, author.getId());
+        writeString(generator, NAME, author.getName());
+        generator.writeFieldName(BIRTH_DATE);
+        provider.defaultSerializeValue(author.getBirthDate(), generator);
+        writeString(generator, EMAIL, author.getEmail());
+        writeString(generator, PHONE, author.getPhone());
+        writeString(generator, BIOGRAPHY, author.getBiography());
+        writeString(generator, URL_PICTURE, author.getUrlPicture());
+        generator.writeEndObject();
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializedString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) generator.writeNull();
+        else generator.writeNumber(value);
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value)
+            throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+}
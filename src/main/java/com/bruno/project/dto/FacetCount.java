@@ -0,0 +1,20 @@
+package com.bruno.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class FacetCount implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String value;
+    private long count;
+}
@@ -0,0 +1,51 @@
+package com.bruno.project.dto;
+
+import lombok.EqualsAndHashCode;
+
+import java.util.*;
+
+@EqualsAndHashCode
+public final class Fieldset {
+
+    public static final Fieldset ALL = new Fieldset(Collections.emptyMap());
+
+    private final Map<String, Set<String>> fields;
+
+    private Fieldset(Map<String, Set<String>> fields) {
+        this.fields = fields;
+    }
+
+    public static Fieldset parse(String fields) {
+        if (fields == null || fields.isBlank()) return ALL;
+        Map<String, Set<String>> parsed = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (trimmed.isEmpty()) continue;
+            int dot = trimmed.indexOf('.');
+            String name = dot < 0 ? trimmed : trimmed.substring(0, dot);
+            Set<String> nested = parsed.computeIfAbsent(name, key -> new LinkedHashSet<>());
+            if (dot >= 0) nested.add(trimmed.substring(dot + 1));
+        }
+        return parsed.isEmpty() ? ALL : new Fieldset(parsed);
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    public boolean contains(String field) {
+        return isAll() || fields.containsKey(field);
+    }
+
+    public Set<String> names() {
+        return fields.keySet();
+    }
+
+    public Fieldset nested(String field) {
+        Set<String> nested = fields.get(field);
+        if (nested == null || nested.isEmpty()) return ALL;
+        Map<String, Set<String>> names = new LinkedHashMap<>();
+        nested.forEach(name -> names.put(name, Collections.emptySet()));
+        return new Fieldset(names);
+    }
+}
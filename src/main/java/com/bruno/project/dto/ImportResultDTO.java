@@ -0,0 +1,35 @@
+package com.bruno.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    private long line;
+    private Status status;
+    private Long id;
+    private String message;
+
+    public static ImportResultDTO created(long line, Long id) {
+        return new ImportResultDTO(line, Status.CREATED, id, null);
+    }
+
+    public static ImportResultDTO rejected(long line, String message) {
+        return new ImportResultDTO(line, Status.REJECTED, null, message);
+    }
+}
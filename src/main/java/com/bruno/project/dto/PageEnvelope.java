@@ -0,0 +1,132 @@
+package com.bruno.project.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@JsonSerialize(using = PageEnvelopeSerializer.class)
+public final class PageEnvelope<T> {
+
+    @FunctionalInterface
+    public interface RowWriter<S> {
+
+        void write(JsonGenerator generator, S row, SerializerProvider provider) throws IOException;
+    }
+
+    private final List<?> rows;
+
+    private final Function<Object, T> mapper;
+
+    private final RowWriter<Object> rowWriter;
+
+    private final int number;
+
+    private final int size;
+
+    private final long totalElements;
+
+    private final Map<String, List<FacetCount>> facets;
+
+    private volatile List<T> content;
+
+    @SuppressWarnings("unchecked")
+    private <S> PageEnvelope(List<S> rows, Pageable pageable, long total, Function<S, T> mapper,
+                             RowWriter<S> rowWriter) {
+        this.rows = rows;
+        this.mapper = (Function<Object, T>) mapper;
+        this.rowWriter = (RowWriter<Object>) rowWriter;
+        this.number = pageable.isPaged() ? pageable.getPageNumber() : 0;
+        this.size = pageable.isPaged() ? pageable.getPageSize() : rows.size();
+        this.totalElements = pageable.isPaged() && !rows.isEmpty() && pageable.getOffset() + size > total
+                ? pageable.getOffset() + rows.size()
+                : total;
+        this.facets = null;
+    }
+
+    private PageEnvelope(PageEnvelope<T> page, Map<String, List<FacetCount>> facets) {
+        this.rows = page.rows;
+        this.mapper = page.mapper;
+        this.rowWriter = page.rowWriter;
+        this.number = page.number;
+        this.size = page.size;
+        this.totalElements = page.totalElements;
+        this.facets = facets;
+    }
+
+    public static <T> PageEnvelope<T> of(List<T> content, Pageable pageable, long total) {
+        return new PageEnvelope<>(content, pageable, total, Function.identity(), null);
+    }
+
+    public static <T> PageEnvelope<T> of(Page<T> page) {
+        return of(page.getContent(), page.getPageable(), page.getTotalElements());
+    }
+
+    public static <S, T> PageEnvelope<T> of(List<S> rows, Pageable pageable, long total, Function<S, T> mapper,
+                                            RowWriter<S> rowWriter) {
+        return new PageEnvelope<>(rows, pageable, total, mapper, rowWriter);
+    }
+
+    public PageEnvelope<T> withFacets(Map<String, List<FacetCount>> facets) {
+        return new PageEnvelope<>(this, facets);
+    }
+
+    public List<T> getContent() {
+        if (content == null) {
+            List<T> mapped = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                mapped.add(mapper.apply(row));
+            }
+            content = Collections.unmodifiableList(mapped);
+        }
+        return content;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public int getTotalPages() {
+        return size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+
+    public int getNumberOfElements() {
+        return rows.size();
+    }
+
+    public boolean isFirst() {
+        return number == 0;
+    }
+
+    public boolean isLast() {
+        return number + 1 >= getTotalPages();
+    }
+
+    public Map<String, List<FacetCount>> getFacets() {
+        return facets;
+    }
+
+    List<?> getRows() {
+        return rows;
+    }
+
+    RowWriter<Object> getRowWriter() {
+        return rowWriter;
+    }
+}
@@ -0,0 +1,60 @@
+package com.bruno.project.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+class PageEnvelopeSerializer extends StdSerializer<PageEnvelope<?>> {
+
+    private static final long serialVersionUID = 1L;
+
+    @SuppressWarnings("unchecked")
+    PageEnvelopeSerializer() {
+        super((Class<PageEnvelope<?>>) (Class<?>) PageEnvelope.class);
+    }
+
+    @Override
+    public void serialize(PageEnvelope<?> page, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        PropertyNamingStrategy naming = provider.getConfig().getPropertyNamingStrategy();
+        generator.writeStartObject(page);
+        if (naming == null && streams(page, generator, provider.getConfig())) {
+            generator.writeFieldName(CatalogJson.CONTENT);
+            generator.writeStartArray(page.getRows(), page.getRows().size());
+            for (Object row : page.getRows()) {
+                page.getRowWriter().write(generator, row, provider);
+            }
+            generator.writeEndArray();
+        } else {
+            provider.defaultSerializeField(name(naming, "content"), page.getContent(), generator);
+        }
+        generator.writeNumberField(name(naming, "number"), page.getNumber());
+        generator.writeNumberField(name(naming, "size"), page.getSize());
+        generator.writeNumberField(name(naming, "totalElements"), page.getTotalElements());
+        generator.writeNumberField(name(naming, "totalPages"), page.getTotalPages());
+        generator.writeNumberField(name(naming, "numberOfElements"), page.getNumberOfElements());
+        generator.writeBooleanField(name(naming, "first"), page.isFirst());
+        generator.writeBooleanField(name(naming, "last"), page.isLast());
+        if (page.getFacets() != null) provider.defaultSerializeField(name(naming, "facets"), page.getFacets(), generator);
+        generator.writeEndObject();
+    }
+
+    private static boolean streams(PageEnvelope<?> page, JsonGenerator generator, SerializationConfig config) {
+        JsonInclude.Include inclusion = config.getDefaultPropertyInclusion().getValueInclusion();
+        return page.getRowWriter() != null && generator.getSchema() == null
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS);
+    }
+
+    private static String name(PropertyNamingStrategy naming, String name) {
+        if (naming instanceof PropertyNamingStrategies.NamingBase) {
+            return ((PropertyNamingStrategies.NamingBase) naming).translate(name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,28 @@
+package com.bruno.project.dto;
+
+import com.bruno.project.enums.CatalogType;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SearchHitDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private CatalogType type;
+    private Long id;
+    private String text;
+    private float score;
+    private Map<String, List<String>> highlights;
+}
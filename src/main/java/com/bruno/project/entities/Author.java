@@ -1,27 +1,43 @@
 package com.bruno.project.entities;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "tb_author")
+@Table(name = "tb_author", indexes = @Index(name = "idx_author_name_id", columnList = "name, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Author.CACHE_REGION)
+@NaturalIdCache(region = Author.EMAIL_CACHE_REGION)
 public class Author implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String CACHE_REGION = "authors";
+
+    public static final String EMAIL_CACHE_REGION = "author-emails";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_sequence")
+    @SequenceGenerator(name = "author_sequence", sequenceName = "tb_author_seq", allocationSize = 50)
     private Long id;
 
+    @EqualsAndHashCode.Exclude
+    @Version
+    private Long version;
+
     @EqualsAndHashCode.Exclude
     @Column(nullable = false)
     private String name;
@@ -30,6 +46,7 @@ public class Author implements Serializable {
     private LocalDate birthDate;
 
     @EqualsAndHashCode.Exclude
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String email;
 
@@ -48,4 +65,8 @@ public class Author implements Serializable {
     @EqualsAndHashCode.Exclude
     @ManyToMany(mappedBy = "authors", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     List<Book> books = new ArrayList<>();
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
 }
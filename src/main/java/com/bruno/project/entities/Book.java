@@ -2,6 +2,10 @@ package com.bruno.project.entities;
 
 import com.bruno.project.enums.BookGenre;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 import java.io.Serializable;
@@ -9,20 +13,34 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tb_book")
+@Table(name = "tb_book", indexes = @Index(name = "idx_book_title_id", columnList = "title, id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@NaturalIdCache(region = Book.ISBN_CACHE_REGION)
 public class Book implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String CACHE_REGION = "books";
+
+    public static final String ISBN_CACHE_REGION = "book-isbns";
+
+    public static final String AUTHORS_CACHE_REGION = "book-authors";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_sequence")
+    @SequenceGenerator(name = "book_sequence", sequenceName = "tb_book_seq", allocationSize = 50)
     private Long id;
 
     @EqualsAndHashCode.Exclude
+    @Version
+    private Long version;
+
+    @EqualsAndHashCode.Exclude
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String isbn;
 
@@ -57,6 +75,7 @@ public class Book implements Serializable {
     private BookGenre bookGenre;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.AUTHORS_CACHE_REGION)
     @JoinTable(name = "tb_book_author",
             joinColumns = @JoinColumn(name = "book_id"),
             inverseJoinColumns = @JoinColumn(name = "author_id")
@@ -0,0 +1,51 @@
+package com.bruno.project.entities;
+
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.enums.ChangeType;
+import lombok.*;
+
+import javax.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+@Table(name = "tb_outbox_event", indexes = @Index(name = "idx_outbox_event_published_at_id",
+        columnList = "publishedAt, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_sequence")
+    @SequenceGenerator(name = "outbox_event_sequence", sequenceName = "tb_outbox_event_seq", allocationSize = 1)
+    private Long id;
+
+    @EqualsAndHashCode.Exclude
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CatalogType aggregateType;
+
+    @EqualsAndHashCode.Exclude
+    @Column(nullable = false)
+    private Long aggregateId;
+
+    @EqualsAndHashCode.Exclude
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType changeType;
+
+    @EqualsAndHashCode.Exclude
+    @Lob
+    private String payload;
+
+    @EqualsAndHashCode.Exclude
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @EqualsAndHashCode.Exclude
+    private Instant publishedAt;
+}
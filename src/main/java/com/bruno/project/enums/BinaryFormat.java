@@ -0,0 +1,29 @@
+package com.bruno.project.enums;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public enum BinaryFormat {
+
+    CBOR("application/cbor"),
+    SMILE("application/x-jackson-smile"),
+    PROTOBUF("application/x-protobuf");
+
+    private String mediaType;
+
+    public static BinaryFormat toEnum(MediaType mediaType) {
+        if (mediaType == null) {
+            return null;
+        }
+        for (BinaryFormat format : BinaryFormat.values()) {
+            if (MediaType.parseMediaType(format.getMediaType()).isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.bruno.project.enums;
+
+public enum CatalogType {
+
+    BOOK,
+    AUTHOR
+}
@@ -0,0 +1,8 @@
+package com.bruno.project.enums;
+
+public enum ChangeType {
+
+    SAVED,
+    PATCHED,
+    DELETED
+}
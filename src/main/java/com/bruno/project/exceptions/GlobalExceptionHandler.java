@@ -1,14 +1,18 @@
 package com.bruno.project.exceptions;
 
 import com.bruno.project.services.exceptions.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.time.Instant;
 
 @ControllerAdvice
@@ -44,6 +48,126 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> invalidCursor(
+            HttpServletRequest request, InvalidCursorException exception
+    ) {
+        int status = HttpStatus.BAD_REQUEST.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Bad Request")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
+    @ExceptionHandler(InvalidSortException.class)
+    public ResponseEntity<StandardError> invalidSort(
+            HttpServletRequest request, InvalidSortException exception
+    ) {
+        int status = HttpStatus.BAD_REQUEST.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Bad Request")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
+    @ExceptionHandler(InvalidFieldsetException.class)
+    public ResponseEntity<StandardError> invalidFieldset(
+            HttpServletRequest request, InvalidFieldsetException exception
+    ) {
+        int status = HttpStatus.BAD_REQUEST.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Bad Request")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<StandardError> invalidPatch(
+            HttpServletRequest request, InvalidPatchException exception
+    ) {
+        int status = HttpStatus.BAD_REQUEST.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Bad Request")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<StandardError> preconditionFailed(
+            HttpServletRequest request, PreconditionFailedException exception
+    ) {
+        int status = HttpStatus.PRECONDITION_FAILED.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Precondition Failed")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
+    @ExceptionHandler(IndexNotReadyException.class)
+    public ResponseEntity<StandardError> indexNotReady(
+            HttpServletRequest request, IndexNotReadyException exception
+    ) {
+        int status = HttpStatus.SERVICE_UNAVAILABLE.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Service Unavailable")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "5").body(error);
+    }
+
+    @ExceptionHandler(TooManyExportsException.class)
+    public ResponseEntity<StandardError> tooManyExports(
+            HttpServletRequest request, TooManyExportsException exception
+    ) {
+        int status = HttpStatus.TOO_MANY_REQUESTS.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message(exception.getMessage())
+                .error("Too Many Requests")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "30").body(error);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<StandardError> optimisticLockingFailure(
+            HttpServletRequest request, ObjectOptimisticLockingFailureException exception
+    ) {
+        int status = HttpStatus.CONFLICT.value();
+        StandardError error = StandardError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message("The resource was changed by another request! Reload it and try again.")
+                .error("Conflict")
+                .path(request.getRequestURI())
+                .build();
+        return ResponseEntity.status(status).body(error);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<StandardError> validation(MethodArgumentNotValidException exception) {
         int status = HttpStatus.BAD_REQUEST.value();
@@ -58,4 +182,22 @@ public class GlobalExceptionHandler {
         }
         return ResponseEntity.status(status).body(error);
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<StandardError> constraintViolation(
+            HttpServletRequest request, ConstraintViolationException exception
+    ) {
+        int status = HttpStatus.BAD_REQUEST.value();
+        ValidationError error = ValidationError.builder()
+                .timestamp(Instant.now())
+                .status(status)
+                .message("Validation failed")
+                .error("Bad Request")
+                .path(request.getRequestURI())
+                .build();
+        for (ConstraintViolation<?> violation : exception.getConstraintViolations()) {
+            error.addError(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return ResponseEntity.status(status).body(error);
+    }
 }
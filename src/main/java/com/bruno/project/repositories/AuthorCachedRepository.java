@@ -0,0 +1,14 @@
+package com.bruno.project.repositories;
+
+import com.bruno.project.entities.Author;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface AuthorCachedRepository {
+
+    List<Author> findByIdIn(Collection<Long> ids);
+
+    Optional<Author> findByEmail(String email);
+}
@@ -0,0 +1,39 @@
+package com.bruno.project.repositories;
+
+import com.bruno.project.entities.Author;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AuthorCachedRepositoryImpl implements AuthorCachedRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Author> findByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        return entityManager.unwrap(Session.class).byMultipleIds(Author.class).with(CacheMode.NORMAL)
+                .multiLoad(new ArrayList<>(ids))
+                .stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Author> findByEmail(String email) {
+        if (email == null) return Optional.empty();
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Author.class)
+                .loadOptional(Author.normalizeEmail(email));
+    }
+}
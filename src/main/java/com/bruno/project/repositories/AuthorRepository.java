@@ -1,17 +1,87 @@
 package com.bruno.project.repositories;
 
 import com.bruno.project.entities.Author;
+import com.bruno.project.repositories.projections.AuthorSuggestionView;
+import com.bruno.project.repositories.projections.VersionStamp;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, AuthorCachedRepository {
 
     Page<Author> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
-    Optional<Author> findByEmailIgnoreCase(String email);
+    @Query("SELECT obj.email FROM Author obj")
+    Stream<String> streamEmails();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT obj.id FROM Author obj")
+    Stream<Long> streamIds();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT obj.id AS id, obj.name AS name, COUNT(book) AS books " +
+            "FROM Author obj LEFT JOIN obj.books book GROUP BY obj.id, obj.name")
+    Stream<AuthorSuggestionView> streamSuggestionViews();
+
+    @Query("SELECT COALESCE(MAX(obj.version), 0) AS version, COUNT(obj) AS total, " +
+            "COALESCE(SUM(obj.version), 0) AS versionSum, COALESCE(SUM(obj.id), 0) AS idSum FROM Author obj")
+    VersionStamp findVersionStamp();
+
+    @Query("SELECT obj.version AS version, COUNT(obj) AS total, " +
+            "COALESCE(SUM(obj.version), 0) AS versionSum, COALESCE(SUM(obj.id), 0) AS idSum " +
+            "FROM Author obj WHERE obj.id = :id GROUP BY obj.version")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("SELECT obj FROM Author obj WHERE obj.id IN :ids")
+    List<Author> findUncachedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT obj.id FROM Author obj WHERE obj.id IN :ids")
+    Set<Long> findRegisteredIds(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT obj.id FROM Author obj",
+            countQuery = "SELECT COUNT(obj) FROM Author obj")
+    Page<Long> findIdPage(Pageable pageable);
+
+    @Query(value = "SELECT obj.id FROM Author obj " +
+            "WHERE UPPER(obj.name) LIKE CONCAT('%', UPPER(:#{escape(#name)}), '%') ESCAPE :#{escapeCharacter()}",
+            countQuery = "SELECT COUNT(obj) FROM Author obj " +
+            "WHERE UPPER(obj.name) LIKE CONCAT('%', UPPER(:#{escape(#name)}), '%') ESCAPE :#{escapeCharacter()}")
+    Page<Long> findIdPageByName(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Author obj " +
+            "WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id) " +
+            "ORDER BY obj.name, obj.id")
+    List<Long> findIdsAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Author obj " +
+            "WHERE UPPER(obj.name) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()} " +
+            "AND (obj.name > :name OR (obj.name = :name AND obj.id > :id)) " +
+            "ORDER BY obj.name, obj.id")
+    List<Long> findIdsByNameAfter(@Param("text") String text, @Param("name") String name,
+                                  @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT obj FROM Author obj " +
+            "WHERE obj.name > :name OR (obj.name = :name AND obj.id > :id) " +
+            "ORDER BY obj.name, obj.id")
+    List<Author> findPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT obj FROM Author obj " +
+            "WHERE UPPER(obj.name) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()} " +
+            "AND (obj.name > :name OR (obj.name = :name AND obj.id > :id)) " +
+            "ORDER BY obj.name, obj.id")
+    List<Author> findByNamePageAfter(@Param("text") String text, @Param("name") String name,
+                                     @Param("id") Long id, Pageable pageable);
 }
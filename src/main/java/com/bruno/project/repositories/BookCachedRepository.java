@@ -0,0 +1,14 @@
+package com.bruno.project.repositories;
+
+import com.bruno.project.entities.Book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookCachedRepository {
+
+    List<Book> findWithAuthorsByIdIn(Collection<Long> ids);
+
+    Optional<Book> findByIsbn(String isbn);
+}
@@ -0,0 +1,61 @@
+package com.bruno.project.repositories;
+
+import com.bruno.project.entities.Book;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class BookCachedRepositoryImpl implements BookCachedRepository {
+
+    private static final String AUTHORS_ROLE = Book.class.getName() + ".authors";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Book> findWithAuthorsByIdIn(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        List<Long> cached = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            boolean hit = cache.containsEntity(Book.class, id) && cache.containsCollection(AUTHORS_ROLE, id);
+            (hit ? cached : missing).add(id);
+        }
+        List<Book> books = new ArrayList<>(ids.size());
+        if (!cached.isEmpty()) {
+            entityManager.unwrap(Session.class).byMultipleIds(Book.class).with(CacheMode.NORMAL).multiLoad(cached)
+                    .stream()
+                    .filter(Objects::nonNull)
+                    .forEach(book -> {
+                        Hibernate.initialize(book.getAuthors());
+                        books.add(book);
+                    });
+        }
+        if (!missing.isEmpty()) {
+            books.addAll(entityManager.createQuery(
+                    "SELECT DISTINCT obj FROM Book obj LEFT JOIN FETCH obj.authors WHERE obj.id IN :ids", Book.class)
+                    .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                    .setParameter("ids", missing)
+                    .getResultList());
+        }
+        return books;
+    }
+
+    @Override
+    public Optional<Book> findByIsbn(String isbn) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Book.class).loadOptional(isbn);
+    }
+}
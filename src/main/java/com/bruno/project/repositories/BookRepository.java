@@ -1,36 +1,129 @@
 package com.bruno.project.repositories;
 
 import com.bruno.project.entities.Book;
+import com.bruno.project.repositories.projections.BookFacetView;
+import com.bruno.project.repositories.projections.BookTextView;
+import com.bruno.project.repositories.projections.VersionStamp;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookCachedRepository {
 
-    @Query("SELECT obj FROM Book obj JOIN FETCH obj.authors WHERE obj IN :books")
-    List<Book> findBooksAuthors(List<Book> books);
+    @Query(value = "SELECT obj.id FROM Book obj",
+            countQuery = "SELECT COUNT(obj) FROM Book obj")
+    Page<Long> findIdPage(Pageable pageable);
 
-    Page<Book> findByTitleContainingIgnoreCase(String text, Pageable pageable);
+    @Query(value = "SELECT obj.id FROM Book obj WHERE obj.id IN :ids",
+            countQuery = "SELECT COUNT(obj) FROM Book obj WHERE obj.id IN :ids")
+    Page<Long> findIdPageByIdIn(@Param("ids") Collection<Long> ids, Pageable pageable);
 
-    Page<Book> findByLanguageContainingIgnoreCase(String text, Pageable pageable);
+    @Query(value = "SELECT obj.id FROM Book obj " +
+            "WHERE UPPER(obj.title) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()}",
+            countQuery = "SELECT COUNT(obj) FROM Book obj " +
+            "WHERE UPPER(obj.title) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()}")
+    Page<Long> findIdPageByTitle(@Param("text") String text, Pageable pageable);
 
-    Page<Book> findByPublisherContainingIgnoreCase(String text, Pageable pageable);
+    @Query(value = "SELECT obj.id FROM Book obj " +
+            "WHERE UPPER(obj.language) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()}",
+            countQuery = "SELECT COUNT(obj) FROM Book obj " +
+            "WHERE UPPER(obj.language) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()}")
+    Page<Long> findIdPageByLanguage(@Param("text") String text, Pageable pageable);
 
-    Optional<Book> findByIsbn(String isbn);
+    @Query(value = "SELECT obj.id FROM Book obj " +
+            "WHERE UPPER(obj.publisher) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()}",
+            countQuery = "SELECT COUNT(obj) FROM Book obj " +
+            "WHERE UPPER(obj.publisher) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()}")
+    Page<Long> findIdPageByPublisher(@Param("text") String text, Pageable pageable);
 
-    @Query(value = "SELECT DISTINCT book " +
-            "FROM #{#entityName} book " +
-            "INNER JOIN book.authors aut " +
-            "WHERE aut.name " +
-            "LIKE %?#{escape([0])}% escape ?#{escapeCharacter()} " +
-            "AND aut.name " +
-            "LIKE %:name%")
-    Page<Book> findBooksByAuthorName(@Param("name") String name, Pageable pageable);
+    @Query(value = "SELECT obj.id FROM Book obj WHERE obj.id IN (" +
+            "SELECT book.id FROM Book book INNER JOIN book.authors aut " +
+            "WHERE aut.name LIKE CONCAT('%', :#{escape(#name)}, '%') ESCAPE :#{escapeCharacter()})",
+            countQuery = "SELECT COUNT(obj) FROM Book obj WHERE obj.id IN (" +
+            "SELECT book.id FROM Book book INNER JOIN book.authors aut " +
+            "WHERE aut.name LIKE CONCAT('%', :#{escape(#name)}, '%') ESCAPE :#{escapeCharacter()})")
+    Page<Long> findIdPageByAuthorName(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(obj.version), 0) AS version, COUNT(obj) AS total, " +
+            "COALESCE(SUM(obj.version), 0) AS versionSum, COALESCE(SUM(obj.id), 0) AS idSum FROM Book obj")
+    VersionStamp findVersionStamp();
+
+    @Query("SELECT obj.version AS version, COUNT(aut) AS total, " +
+            "COALESCE(SUM(aut.version), 0) AS versionSum, COALESCE(SUM(aut.id), 0) AS idSum " +
+            "FROM Book obj LEFT JOIN obj.authors aut WHERE obj.id = :id GROUP BY obj.version")
+    Optional<VersionStamp> findVersionStampById(@Param("id") Long id);
+
+    @Query("SELECT obj.isbn FROM Book obj WHERE obj.isbn IN :isbns")
+    Set<String> findRegisteredIsbns(@Param("isbns") Collection<String> isbns);
+
+    @Query("SELECT obj.isbn FROM Book obj")
+    Stream<String> streamIsbns();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT obj.id FROM Book obj")
+    Stream<Long> streamIds();
+
+    @Query("SELECT DISTINCT obj.id FROM Book obj INNER JOIN obj.authors aut WHERE aut.id IN :ids")
+    Set<Long> findIdsByAuthorIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT obj.id AS id, obj.title AS title, obj.language AS language, obj.publisher AS publisher " +
+            "FROM Book obj")
+    Stream<BookTextView> streamTextViews();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT obj.id AS id, obj.bookGenre AS bookGenre, obj.language AS language, " +
+            "obj.publisher AS publisher, obj.publicationYear AS publicationYear FROM Book obj")
+    Stream<BookFacetView> streamFacetViews();
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT DISTINCT obj FROM Book obj LEFT JOIN FETCH obj.authors WHERE obj.id IN :ids")
+    List<Book> findUncachedWithAuthorsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT obj.id FROM Book obj WHERE obj.id > :id ORDER BY obj.id")
+    Stream<Long> streamIdsAfter(@Param("id") Long id);
+
+    @Query("SELECT obj.id FROM Book obj " +
+            "WHERE obj.title > :title OR (obj.title = :title AND obj.id > :id) " +
+            "ORDER BY obj.title, obj.id")
+    List<Long> findIdsAfter(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Book obj " +
+            "WHERE UPPER(obj.title) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()} " +
+            "AND (obj.title > :title OR (obj.title = :title AND obj.id > :id)) " +
+            "ORDER BY obj.title, obj.id")
+    List<Long> findIdsByTitleAfter(@Param("text") String text, @Param("title") String title,
+                                   @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Book obj " +
+            "WHERE UPPER(obj.language) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()} " +
+            "AND (obj.title > :title OR (obj.title = :title AND obj.id > :id)) " +
+            "ORDER BY obj.title, obj.id")
+    List<Long> findIdsByLanguageAfter(@Param("text") String text, @Param("title") String title,
+                                      @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT obj.id FROM Book obj " +
+            "WHERE UPPER(obj.publisher) LIKE CONCAT('%', UPPER(:#{escape(#text)}), '%') ESCAPE :#{escapeCharacter()} " +
+            "AND (obj.title > :title OR (obj.title = :title AND obj.id > :id)) " +
+            "ORDER BY obj.title, obj.id")
+    List<Long> findIdsByPublisherAfter(@Param("text") String text, @Param("title") String title,
+                                       @Param("id") Long id, Pageable pageable);
 }
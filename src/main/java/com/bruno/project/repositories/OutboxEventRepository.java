@@ -0,0 +1,26 @@
+package com.bruno.project.repositories;
+
+import com.bruno.project.entities.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT obj FROM OutboxEvent obj WHERE obj.publishedAt IS NULL ORDER BY obj.id")
+    List<OutboxEvent> findUnpublished(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent obj WHERE obj.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,10 @@
+package com.bruno.project.repositories.projections;
+
+public interface AuthorSuggestionView {
+
+    Long getId();
+
+    String getName();
+
+    Long getBooks();
+}
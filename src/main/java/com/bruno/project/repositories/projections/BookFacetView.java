@@ -0,0 +1,16 @@
+package com.bruno.project.repositories.projections;
+
+import com.bruno.project.enums.BookGenre;
+
+public interface BookFacetView {
+
+    Long getId();
+
+    BookGenre getBookGenre();
+
+    String getLanguage();
+
+    String getPublisher();
+
+    String getPublicationYear();
+}
@@ -0,0 +1,12 @@
+package com.bruno.project.repositories.projections;
+
+public interface BookTextView {
+
+    Long getId();
+
+    String getTitle();
+
+    String getLanguage();
+
+    String getPublisher();
+}
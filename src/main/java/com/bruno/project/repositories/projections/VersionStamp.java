@@ -0,0 +1,12 @@
+package com.bruno.project.repositories.projections;
+
+public interface VersionStamp {
+
+    Long getVersion();
+
+    Long getTotal();
+
+    Long getVersionSum();
+
+    Long getIdSum();
+}
@@ -1,15 +1,22 @@
 package com.bruno.project.resources;
 
 import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.services.impl.AuthorServiceImpl;
+import com.bruno.project.services.metrics.QueryBudget;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
@@ -23,17 +30,59 @@ public class AuthorResource {
     private final AuthorServiceImpl authorService;
 
     @ApiOperation(value = "Returns a page with all registered authors")
+    @QueryBudget(max = 5)
     @GetMapping
-    public ResponseEntity<Page<AuthorDTO>> findAll(Pageable pageable){
-        return ResponseEntity.ok(authorService.findAll(pageable));
+    public ResponseEntity<PageEnvelope<AuthorDTO>> findAll(
+            @RequestParam(value = "fields", required = false) String fields, Pageable pageable,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, authorService.findVersionStamps()),
+                () -> authorService.findAll(pageable, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns an author, or 304 when If-None-Match holds its current ETag")
+    @ApiResponses(value = @ApiResponse(code = 404, message = "Author not found in the database"))
+    @QueryBudget(max = 3)
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<AuthorDTO> findById(@PathVariable Long id, ServletWebRequest request){
+        return ETags.ifNoneMatch(request, ETags.strong(id, authorService.findVersionStamp(id)),
+                () -> authorService.findById(id));
     }
 
     @ApiOperation(value = "Returns a page with authors searched by name, case insensitive")
     @GetMapping(value = "/name")
-    public ResponseEntity<Page<AuthorDTO>> findByNameIgnoreCase(
-            @RequestParam(value = "text", defaultValue = "") String name, Pageable pageable
+    public ResponseEntity<PageEnvelope<AuthorDTO>> findByNameIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String name, Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, authorService.findVersionStamps()),
+                () -> authorService.findByNameContainingIgnoreCase(name, pageable, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a keyset page of authors ordered by name, starting after the given cursor")
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<AuthorDTO>> findAll(
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, authorService.findVersionStamps()),
+                () -> authorService.findAll(after, size, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a keyset page of authors searched by name, starting after the given cursor")
+    @GetMapping(value = "/name", params = "after")
+    public ResponseEntity<CursorPage<AuthorDTO>> findByNameIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String name,
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
     ){
-        return ResponseEntity.ok(authorService.findByNameContainingIgnoreCase(name, pageable));
+        return ETags.ifNoneMatch(request, ETags.weak(request, authorService.findVersionStamps()),
+                () -> authorService.findByNameContainingIgnoreCase(name, after, size, Fieldset.parse(fields)));
     }
 
     @ApiOperation(value = "Register a new author in the database")
@@ -51,13 +100,37 @@ public class AuthorResource {
     @ApiOperation(value = "Update author data")
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = "Author email already registered"),
-            @ApiResponse(code = 404, message = "Author not found in the database")
+            @ApiResponse(code = 404, message = "Author not found in the database"),
+            @ApiResponse(code = 409, message = "Author changed by another request while being updated"),
+            @ApiResponse(code = 412, message = "If-Match does not hold the current ETag of the author")
     })
     @PutMapping(value = "/{id}")
-    public ResponseEntity<AuthorDTO> updateById(@PathVariable Long id, @Valid @RequestBody AuthorDTO authorDTO){
+    public ResponseEntity<AuthorDTO> updateById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody AuthorDTO authorDTO
+    ){
+        if(ifMatch != null) authorDTO.setVersion(ETags.ifMatch(ifMatch, id, authorService.findVersionStamp(id)));
         return ResponseEntity.ok(authorService.updateById(id, authorDTO));
     }
 
+    @ApiOperation(value = "Change some fields of the author with a JSON Merge Patch in a single UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Invalid patch or author email already registered"),
+            @ApiResponse(code = 404, message = "Author not found in the database"),
+            @ApiResponse(code = 409, message = "Author changed since the ETag in If-Match was issued"),
+            @ApiResponse(code = 412, message = "If-Match is not an ETag of the author")
+    })
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ){
+        authorService.patchById(id, ETags.version(ifMatch, id), patch);
+        return ResponseEntity.noContent().build();
+    }
+
     @ApiOperation(value = "Exclude an author")
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = "It is necessary to delete the book(s) before deleting an author"),
@@ -1,18 +1,33 @@
 package com.bruno.project.resources;
 
 import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.enums.ExportFormat;
+import com.bruno.project.services.impl.BookExportServiceImpl;
+import com.bruno.project.services.impl.BookImportServiceImpl;
 import com.bruno.project.services.impl.BookServiceImpl;
+import com.bruno.project.services.metrics.QueryBudget;
+import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import java.io.Closeable;
+import java.io.InputStream;
 import java.net.URI;
 
 @RestController
@@ -22,42 +37,151 @@ public class BookResource {
 
     private final BookServiceImpl bookService;
 
+    private final BookImportServiceImpl bookImportService;
+
+    private final BookExportServiceImpl bookExportService;
+
     @ApiOperation(value = "Returns a page with all registered books and their authors")
+    @QueryBudget(max = 6)
     @GetMapping
-    public ResponseEntity<Page<BookDTO>> findAll(Pageable pageable){
-        return ResponseEntity.ok(bookService.findAll(pageable));
+    public ResponseEntity<PageEnvelope<BookDTO>> findAll(
+            @RequestParam(value = "fields", required = false) String fields, Pageable pageable,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findAll(pageable, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a book and its authors, or 304 when If-None-Match holds its current ETag")
+    @ApiResponses(value = @ApiResponse(code = 404, message = "Book not found in the database"))
+    @QueryBudget(max = 3)
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<BookDTO> findById(@PathVariable Long id, ServletWebRequest request){
+        return ETags.ifNoneMatch(request, ETags.strong(id, bookService.findVersionStamp(id)),
+                () -> bookService.findById(id));
     }
 
     @ApiOperation(value = "Returns a page of books searched by title, case insensitive")
     @GetMapping(value = "/title")
-    public ResponseEntity<Page<BookDTO>> findByTitleContainingIgnoreCase(
-            @RequestParam(value = "text", defaultValue = "") String title, Pageable pageable
+    public ResponseEntity<PageEnvelope<BookDTO>> findByTitleContainingIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String title, Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
     ){
-        return ResponseEntity.ok(bookService.findByTitleContainingIgnoreCase(title, pageable));
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findByTitleContainingIgnoreCase(title, pageable, Fieldset.parse(fields)));
     }
 
     @ApiOperation(value = "Returns a page of books searched by language, case insensitive")
     @GetMapping(value = "/language")
-    public ResponseEntity<Page<BookDTO>> findByLanguageContainingIgnoreCase(
-            @RequestParam(value = "text", defaultValue = "") String language, Pageable pageable
+    public ResponseEntity<PageEnvelope<BookDTO>> findByLanguageContainingIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String language, Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
     ){
-        return ResponseEntity.ok(bookService.findByLanguageContainingIgnoreCase(language, pageable));
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findByLanguageContainingIgnoreCase(language, pageable, Fieldset.parse(fields)));
     }
 
     @ApiOperation(value = "Returns a page of books searched by publisher, case insensitive")
     @GetMapping(value = "/publisher")
-    public ResponseEntity<Page<BookDTO>> findByPublisherContainingIgnoreCase(
-            @RequestParam(value = "text", defaultValue = "") String publisher, Pageable pageable
+    public ResponseEntity<PageEnvelope<BookDTO>> findByPublisherContainingIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String publisher, Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
     ){
-        return ResponseEntity.ok(bookService.findByPublisherContainingIgnoreCase(publisher, pageable));
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findByPublisherContainingIgnoreCase(publisher, pageable, Fieldset.parse(fields)));
     }
 
     @ApiOperation(value = "Returns a page of books searched by author name, case sensitive")
     @GetMapping(value = "/author")
-    public ResponseEntity<Page<BookDTO>> findBooksByAuthorName(
-            @RequestParam(value = "text", defaultValue = "") String author, Pageable pageable
+    public ResponseEntity<PageEnvelope<BookDTO>> findBooksByAuthorName(
+            @RequestParam(value = "text", defaultValue = "") String author, Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findBooksByAuthorName(author, pageable, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a page of books matching every given facet, with the book count of each " +
+            "facet value")
+    @GetMapping(value = "/search")
+    public ResponseEntity<PageEnvelope<BookDTO>> search(
+            BookFacetQuery query, Pageable pageable,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.search(query, pageable, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Streams every book with ID greater than afterId, ordered by ID, as NDJSON or CSV")
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format
+    ){
+        Closeable reservation = bookExportService.reserve();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .body(output -> {
+                    try (reservation) {
+                        bookExportService.exportBooks(afterId, format, output);
+                    }
+                });
+    }
+
+    @ApiOperation(value = "Returns a keyset page of books ordered by title, starting after the given cursor")
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<BookDTO>> findAll(
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
     ){
-        return ResponseEntity.ok(bookService.findBooksByAuthorName(author, pageable));
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findAll(after, size, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a keyset page of books searched by title, starting after the given cursor")
+    @GetMapping(value = "/title", params = "after")
+    public ResponseEntity<CursorPage<BookDTO>> findByTitleContainingIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String title,
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findByTitleContainingIgnoreCase(title, after, size, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a keyset page of books searched by language, starting after the given cursor")
+    @GetMapping(value = "/language", params = "after")
+    public ResponseEntity<CursorPage<BookDTO>> findByLanguageContainingIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String language,
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findByLanguageContainingIgnoreCase(language, after, size, Fieldset.parse(fields)));
+    }
+
+    @ApiOperation(value = "Returns a keyset page of books searched by publisher, starting after the given cursor")
+    @GetMapping(value = "/publisher", params = "after")
+    public ResponseEntity<CursorPage<BookDTO>> findByPublisherContainingIgnoreCase(
+            @RequestParam(value = "text", defaultValue = "") String publisher,
+            @RequestParam(value = "after") String after,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "fields", required = false) String fields,
+            ServletWebRequest request
+    ){
+        return ETags.ifNoneMatch(request, ETags.weak(request, bookService.findVersionStamps()),
+                () -> bookService.findByPublisherContainingIgnoreCase(publisher, after, size, Fieldset.parse(fields)));
     }
 
     @ApiOperation(value = "Register a new book in the database")
@@ -76,16 +200,62 @@ public class BookResource {
         return ResponseEntity.created(uri).body(bookDTO);
     }
 
+    @ApiOperation(value = "Register books from a newline-delimited JSON stream and return a report line for each one")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importBooks(InputStream input){
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> bookImportService.importBooks(input, output));
+    }
+
+    @ApiOperation(value = "Register books from a CBOR or Smile value sequence, or from length-delimited Protobuf " +
+            "messages, and return a report line for each one")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile",
+            "application/x-protobuf"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importBooks(
+            InputStream input,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE) MediaType contentType
+    ){
+        BinaryFormat format = BinaryFormat.toEnum(contentType);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> bookImportService.importBooks(input, format, output));
+    }
+
     @ApiOperation(value = "Update book data")
     @ApiResponses(value = {
             @ApiResponse(code = 400, message = "ISBN already registered in database"),
-            @ApiResponse(code = 404, message = "Book or its author not found in database")
+            @ApiResponse(code = 404, message = "Book or its author not found in database"),
+            @ApiResponse(code = 409, message = "Book changed by another request while being updated"),
+            @ApiResponse(code = 412, message = "If-Match does not hold the current ETag of the book")
     })
     @PutMapping(value = "/{id}")
-    public ResponseEntity<BookDTO> updateById(@PathVariable Long id, @Valid @RequestBody BookDTO bookDTO){
+    public ResponseEntity<BookDTO> updateById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody BookDTO bookDTO
+    ){
+        if(ifMatch != null) bookDTO.setVersion(ETags.ifMatch(ifMatch, id, bookService.findVersionStamp(id)));
         return ResponseEntity.ok(bookService.updateById(id, bookDTO));
     }
 
+    @ApiOperation(value = "Change some fields of the book with a JSON Merge Patch in a single UPDATE")
+    @ApiResponses(value = {
+            @ApiResponse(code = 400, message = "Invalid patch or ISBN already registered in database"),
+            @ApiResponse(code = 404, message = "Book not found in database"),
+            @ApiResponse(code = 409, message = "Book changed since the ETag in If-Match was issued"),
+            @ApiResponse(code = 412, message = "If-Match is not an ETag of the book")
+    })
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Void> patchById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch
+    ){
+        bookService.patchById(id, ETags.version(ifMatch, id), patch);
+        return ResponseEntity.noContent().build();
+    }
+
     @ApiOperation(value = "Exclude a book")
     @ApiResponses(value = {
             @ApiResponse(code = 404, message = "Book not found in the database")
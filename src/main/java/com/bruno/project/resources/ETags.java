@@ -0,0 +1,78 @@
+package com.bruno.project.resources;
+
+import com.bruno.project.repositories.projections.VersionStamp;
+import com.bruno.project.services.exceptions.PreconditionFailedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String strong(Long id, VersionStamp stamp) {
+        long hash = hash(17L, stamp);
+        return "\"" + id + "-" + stamp.getVersion() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    static String weak(ServletWebRequest request, List<VersionStamp> stamps) {
+        HttpServletRequest servletRequest = request.getRequest();
+        long hash = 17L;
+        for (VersionStamp stamp : stamps) {
+            hash = hash(hash, stamp);
+        }
+        hash = 31 * hash + servletRequest.getRequestURI().hashCode();
+        hash = 31 * hash + String.valueOf(servletRequest.getQueryString()).hashCode();
+        hash = 31 * hash + String.valueOf(servletRequest.getHeader(HttpHeaders.ACCEPT)).hashCode();
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    static <T> ResponseEntity<T> ifNoneMatch(ServletWebRequest request, String eTag, Supplier<T> body) {
+        if (request.getResponse() != null) request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(body.get());
+    }
+
+    static Long ifMatch(String ifMatch, Long id, VersionStamp stamp) {
+        String eTag = strong(id, stamp);
+        boolean matches = Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+        if (!matches) {
+            throw new PreconditionFailedException("The resource '" + id + "' does not match " + ifMatch + "!");
+        }
+        return stamp.getVersion();
+    }
+
+    static Long version(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        String candidate = ifMatch.trim();
+        int end = candidate.indexOf('-', prefix.length());
+        if (candidate.contains(",") || !candidate.startsWith(prefix) || end < 0) {
+            throw new PreconditionFailedException("The resource '" + id + "' does not match " + ifMatch + "!");
+        }
+        try {
+            return Long.valueOf(candidate.substring(prefix.length(), end));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("The resource '" + id + "' does not match " + ifMatch + "!");
+        }
+    }
+
+    private static long hash(long hash, VersionStamp stamp) {
+        hash = 31 * hash + stamp.getVersion();
+        hash = 31 * hash + stamp.getTotal();
+        hash = 31 * hash + stamp.getVersionSum();
+        return 31 * hash + stamp.getIdSum();
+    }
+}
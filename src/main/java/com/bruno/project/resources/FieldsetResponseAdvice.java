@@ -0,0 +1,55 @@
+package com.bruno.project.resources;
+
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+@ControllerAdvice(assignableTypes = {BookResource.class, AuthorResource.class})
+@RequiredArgsConstructor
+public class FieldsetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof PageEnvelope || body instanceof CursorPage)) return body;
+        if (!(request instanceof ServletServerHttpRequest)) return body;
+        Fieldset fields = Fieldset.parse(((ServletServerHttpRequest) request).getServletRequest().getParameter("fields"));
+        if (fields.isAll()) return body;
+        JsonNode tree = objectMapper.valueToTree(body);
+        tree.path("content").forEach(element -> prune(element, fields));
+        return tree;
+    }
+
+    private static void prune(JsonNode element, Fieldset fields) {
+        if (!(element instanceof ObjectNode)) return;
+        ((ObjectNode) element).retain(fields.names());
+        fields.names().forEach(name -> {
+            Fieldset nested = fields.nested(name);
+            if (nested.isAll()) return;
+            JsonNode value = element.get(name);
+            if (value != null && value.isArray()) value.forEach(child -> prune(child, nested));
+            else prune(value, nested);
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.bruno.project.resources;
+
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.dto.SearchHitDTO;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.services.impl.SearchServiceImpl;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping(value = "/api/v1/search")
+@RequiredArgsConstructor
+public class SearchResource {
+
+    private final SearchServiceImpl searchService;
+
+    @ApiOperation(value = "Returns a page of books and authors ranked by relevance to the text, with highlighted matches")
+    @ApiResponses(value = @ApiResponse(code = 503, message = "The full-text index is still being built"))
+    @GetMapping
+    public ResponseEntity<PageEnvelope<SearchHitDTO>> search(
+            @RequestParam(value = "q", defaultValue = "") String text,
+            @RequestParam(value = "type", required = false) CatalogType type,
+            Pageable pageable
+    ){
+        return ResponseEntity.ok().body(searchService.search(text, type, pageable));
+    }
+}
@@ -0,0 +1,33 @@
+package com.bruno.project.resources;
+
+import com.bruno.project.dto.SuggestionDTO;
+import com.bruno.project.services.impl.SuggestServiceImpl;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/api/v1/suggest")
+@RequiredArgsConstructor
+public class SuggestResource {
+
+    private final SuggestServiceImpl suggestService;
+
+    @ApiOperation(value = "Returns the most popular book titles and author names starting with the given prefix")
+    @ApiResponses(value = @ApiResponse(code = 503, message = "Suggestions are still being indexed"))
+    @GetMapping
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ){
+        return ResponseEntity.ok().body(suggestService.suggest(prefix, limit));
+    }
+}
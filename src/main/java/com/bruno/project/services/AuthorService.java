@@ -1,18 +1,36 @@
 package com.bruno.project.services;
 
 import com.bruno.project.dto.AuthorDTO;
-import org.springframework.data.domain.Page;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.repositories.projections.VersionStamp;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface AuthorService {
 
-    Page<AuthorDTO> findAll(Pageable pageable);
+    AuthorDTO findById(Long id);
+
+    VersionStamp findVersionStamp(Long id);
+
+    List<VersionStamp> findVersionStamps();
+
+    PageEnvelope<AuthorDTO> findAll(Pageable pageable, Fieldset fields);
 
-    Page<AuthorDTO> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    PageEnvelope<AuthorDTO> findByNameContainingIgnoreCase(String name, Pageable pageable, Fieldset fields);
+
+    CursorPage<AuthorDTO> findAll(String after, int size, Fieldset fields);
+
+    CursorPage<AuthorDTO> findByNameContainingIgnoreCase(String name, String after, int size, Fieldset fields);
 
     AuthorDTO save(AuthorDTO authorDTO);
 
     AuthorDTO updateById(Long id, AuthorDTO authorDTO);
 
+    void patchById(Long id, Long version, JsonNode patch);
+
     void deleteById(Long id);
 }
@@ -0,0 +1,14 @@
+package com.bruno.project.services;
+
+import com.bruno.project.enums.ExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BookExportService {
+
+    Closeable reserve();
+
+    void exportBooks(Long afterId, ExportFormat format, OutputStream output) throws IOException;
+}
@@ -0,0 +1,14 @@
+package com.bruno.project.services;
+
+import com.bruno.project.enums.BinaryFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BookImportService {
+
+    void importBooks(InputStream input, OutputStream output) throws IOException;
+
+    void importBooks(InputStream input, BinaryFormat format, OutputStream output) throws IOException;
+}
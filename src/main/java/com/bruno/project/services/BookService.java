@@ -1,24 +1,49 @@
 package com.bruno.project.services;
 
 import com.bruno.project.dto.BookDTO;
-import org.springframework.data.domain.Page;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.repositories.projections.VersionStamp;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface BookService {
 
-    Page<BookDTO> findAll(Pageable pageable);
+    BookDTO findById(Long id);
+
+    VersionStamp findVersionStamp(Long id);
+
+    List<VersionStamp> findVersionStamps();
+
+    PageEnvelope<BookDTO> findAll(Pageable pageable, Fieldset fields);
+
+    PageEnvelope<BookDTO> findByTitleContainingIgnoreCase(String text, Pageable pageable, Fieldset fields);
 
-    Page<BookDTO> findByTitleContainingIgnoreCase(String text, Pageable pageable);
+    PageEnvelope<BookDTO> findByLanguageContainingIgnoreCase(String text, Pageable pageable, Fieldset fields);
 
-    Page<BookDTO> findByLanguageContainingIgnoreCase(String text, Pageable pageable);
+    PageEnvelope<BookDTO> findByPublisherContainingIgnoreCase(String text, Pageable pageable, Fieldset fields);
 
-    Page<BookDTO> findByPublisherContainingIgnoreCase(String text, Pageable pageable);
+    PageEnvelope<BookDTO> findBooksByAuthorName(String author, Pageable pageable, Fieldset fields);
 
-    Page<BookDTO> findBooksByAuthorName(String author, Pageable pageable);
+    PageEnvelope<BookDTO> search(BookFacetQuery query, Pageable pageable, Fieldset fields);
+
+    CursorPage<BookDTO> findAll(String after, int size, Fieldset fields);
+
+    CursorPage<BookDTO> findByTitleContainingIgnoreCase(String text, String after, int size, Fieldset fields);
+
+    CursorPage<BookDTO> findByLanguageContainingIgnoreCase(String text, String after, int size, Fieldset fields);
+
+    CursorPage<BookDTO> findByPublisherContainingIgnoreCase(String text, String after, int size, Fieldset fields);
 
     BookDTO save(BookDTO bookDTO);
 
     BookDTO updateById(Long id, BookDTO bookDTO);
 
+    void patchById(Long id, Long version, JsonNode patch);
+
     void deleteById(Long id);
 }
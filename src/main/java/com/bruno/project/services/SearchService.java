@@ -0,0 +1,11 @@
+package com.bruno.project.services;
+
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.dto.SearchHitDTO;
+import com.bruno.project.enums.CatalogType;
+import org.springframework.data.domain.Pageable;
+
+public interface SearchService {
+
+    PageEnvelope<SearchHitDTO> search(String text, CatalogType type, Pageable pageable);
+}
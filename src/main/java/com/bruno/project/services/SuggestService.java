@@ -0,0 +1,10 @@
+package com.bruno.project.services;
+
+import com.bruno.project.dto.SuggestionDTO;
+
+import java.util.List;
+
+public interface SuggestService {
+
+    List<SuggestionDTO> suggest(String prefix, int limit);
+}
@@ -0,0 +1,17 @@
+package com.bruno.project.services.coalescing;
+
+import com.bruno.project.enums.CatalogType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Coalesced {
+
+    CatalogType[] value();
+}
@@ -0,0 +1,152 @@
+package com.bruno.project.services.coalescing;
+
+import com.bruno.project.config.datasource.ReplicaRoutingContext;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestCoalescingAspect {
+
+    public static final String METRIC_PREFIX = "catalog.coalescing";
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class Key {
+
+        private final Method method;
+        private final List<Object> arguments;
+        private final long epoch;
+        private final boolean primaryRequired;
+    }
+
+    private final MeterRegistry registry;
+
+    private final Clock clock;
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLongArray epochs = new AtomicLongArray(CatalogType.values().length);
+
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public RequestCoalescingAspect(MeterRegistry registry) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, Coalesced coalesced) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return joinPoint.proceed();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()), epoch(coalesced.value()),
+                ReplicaRoutingContext.isPrimaryRequired());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        MethodMeters methodMeters = meters(joinPoint, method);
+        if (leader != null) {
+            methodMeters.followers.increment();
+            long start = clock.monotonicTime();
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause();
+            } finally {
+                methodMeters.wait.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        methodMeters.leaders.increment();
+        try {
+            Object result = joinPoint.proceed();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        epochs.incrementAndGet(CatalogType.BOOK.ordinal());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        epochs.incrementAndGet(CatalogType.AUTHOR.ordinal());
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private long epoch(CatalogType[] aggregates) {
+        long epoch = 0;
+        for (CatalogType aggregate : aggregates) epoch += epochs.get(aggregate.ordinal());
+        return epoch;
+    }
+
+    private MethodMeters meters(ProceedingJoinPoint joinPoint, Method method) {
+        MethodMeters methodMeters = meters.get(method);
+        if (methodMeters != null) return methodMeters;
+        String service = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+        return meters.computeIfAbsent(method, key -> new MethodMeters(service, key.getName()));
+    }
+
+    private class MethodMeters {
+
+        private final Counter leaders;
+        private final Counter followers;
+        private final Timer wait;
+
+        MethodMeters(String service, String method) {
+            this.leaders = counter(service, method, "leader");
+            this.followers = counter(service, method, "follower");
+            this.wait = Timer.builder(METRIC_PREFIX + ".wait")
+                    .description("Time spent waiting for a coalesced call started by another request")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        private Counter counter(String service, String method, String role) {
+            return Counter.builder(METRIC_PREFIX + ".calls")
+                    .description("Coalesced service calls, by whether they ran the call or shared its result")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("role", role)
+                    .register(registry);
+        }
+    }
+}
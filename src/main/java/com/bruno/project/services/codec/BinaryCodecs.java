@@ -0,0 +1,101 @@
+package com.bruno.project.services.codec;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.exceptions.StandardError;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufFactory;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class BinaryCodecs {
+
+    public static final String PROTOBUF_SCHEMA = "proto/catalog.proto";
+
+    private final Map<BinaryFormat, ObjectMapper> mappers = new EnumMap<>(BinaryFormat.class);
+
+    private final Map<String, ProtobufSchema> schemas = new HashMap<>();
+
+    public BinaryCodecs(Jackson2ObjectMapperBuilder builder) {
+        mappers.put(BinaryFormat.CBOR, builder.factory(new CBORFactory()).build());
+        mappers.put(BinaryFormat.SMILE, builder.factory(new SmileFactory()).build());
+        mappers.put(BinaryFormat.PROTOBUF, builder.factory(new ProtobufFactory())
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .featuresToEnable(JsonGenerator.Feature.IGNORE_UNKNOWN)
+                .build());
+        try {
+            NativeProtobufSchema schema = ProtobufSchemaLoader.std
+                    .loadNative(new ClassPathResource(PROTOBUF_SCHEMA).getURL());
+            for (String name : schema.getMessageNames()) {
+                schemas.put(name, schema.forType(name));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("The schema " + PROTOBUF_SCHEMA + " could not be loaded", e);
+        }
+    }
+
+    public ObjectMapper mapper(BinaryFormat format) {
+        return mappers.get(format);
+    }
+
+    public ObjectReader reader(BinaryFormat format, Type type) {
+        ObjectMapper mapper = mappers.get(format);
+        ObjectReader reader = mapper.readerFor(mapper.constructType(type));
+        return format == BinaryFormat.PROTOBUF ? reader.with(schema(type)) : reader;
+    }
+
+    public ObjectWriter writer(BinaryFormat format, Type type) {
+        ObjectMapper mapper = mappers.get(format);
+        ObjectWriter writer = mapper.writerFor(mapper.constructType(type));
+        return format == BinaryFormat.PROTOBUF ? writer.with(schema(type)) : writer;
+    }
+
+    public ProtobufSchema schema(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        Class<?> raw = resolved.resolve();
+        if (raw == null) return null;
+        String name = messageName(raw);
+        if (PageEnvelope.class.isAssignableFrom(raw)) {
+            name = messageName(resolved.as(PageEnvelope.class).resolveGeneric(0), "Page");
+        }
+        if (CursorPage.class.isAssignableFrom(raw)) {
+            name = messageName(resolved.as(CursorPage.class).resolveGeneric(0), "CursorPage");
+        }
+        return name == null ? null : schemas.get(name);
+    }
+
+    private static String messageName(Class<?> type, String envelope) {
+        String name = messageName(type);
+        return name == null ? null : name + envelope;
+    }
+
+    private static String messageName(Class<?> type) {
+        if (type == null) return null;
+        if (BookDTO.class.equals(type)) return "Book";
+        if (AuthorDTO.class.equals(type)) return "Author";
+        if (StandardError.class.isAssignableFrom(type)) return "Error";
+        return null;
+    }
+}
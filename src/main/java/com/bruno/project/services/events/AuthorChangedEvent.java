@@ -0,0 +1,36 @@
+package com.bruno.project.services.events;
+
+import com.bruno.project.entities.Author;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AuthorChangedEvent {
+
+    public enum Type {
+        SAVED,
+        PATCHED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Author author;
+    private final Set<String> fields;
+
+    public static AuthorChangedEvent saved(Author author) {
+        return new AuthorChangedEvent(Type.SAVED, author.getId(), author, Set.of());
+    }
+
+    public static AuthorChangedEvent patched(Author author, Set<String> fields) {
+        return new AuthorChangedEvent(Type.PATCHED, author.getId(), author, Set.copyOf(fields));
+    }
+
+    public static AuthorChangedEvent deleted(Long id) {
+        return new AuthorChangedEvent(Type.DELETED, id, null, Set.of());
+    }
+}
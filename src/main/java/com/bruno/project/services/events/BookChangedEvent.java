@@ -0,0 +1,36 @@
+package com.bruno.project.services.events;
+
+import com.bruno.project.entities.Book;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookChangedEvent {
+
+    public enum Type {
+        SAVED,
+        PATCHED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Book book;
+    private final Set<String> fields;
+
+    public static BookChangedEvent saved(Book book) {
+        return new BookChangedEvent(Type.SAVED, book.getId(), book, Set.of());
+    }
+
+    public static BookChangedEvent patched(Book book, Set<String> fields) {
+        return new BookChangedEvent(Type.PATCHED, book.getId(), book, Set.copyOf(fields));
+    }
+
+    public static BookChangedEvent deleted(Long id) {
+        return new BookChangedEvent(Type.DELETED, id, null, Set.of());
+    }
+}
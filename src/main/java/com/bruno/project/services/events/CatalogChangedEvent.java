@@ -0,0 +1,31 @@
+package com.bruno.project.services.events;
+
+import com.bruno.project.entities.OutboxEvent;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.enums.ChangeType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CatalogChangedEvent {
+
+    private final Long sequence;
+    private final CatalogType aggregateType;
+    private final Long aggregateId;
+    private final ChangeType changeType;
+    private final String payload;
+    private final Instant occurredAt;
+
+    public static CatalogChangedEvent of(OutboxEvent event) {
+        return new CatalogChangedEvent(event.getId(), event.getAggregateType(), event.getAggregateId(),
+                event.getChangeType(), event.getPayload(), event.getCreatedAt());
+    }
+}
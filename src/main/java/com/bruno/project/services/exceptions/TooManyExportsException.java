@@ -0,0 +1,14 @@
+package com.bruno.project.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyExportsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyExportsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.bruno.project.services.export;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.export")
+public class BookExportProperties {
+
+    private int maxConcurrent = 2;
+}
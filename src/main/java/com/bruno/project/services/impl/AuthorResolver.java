@@ -0,0 +1,43 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class AuthorResolver {
+
+    private final AuthorRepository authorRepository;
+
+    public List<Author> resolve(Collection<AuthorDTO> authors) {
+        if (authors.isEmpty()) return new ArrayList<>();
+        List<Long> ids = authors.stream()
+                .map(AuthorDTO::getId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Author> found = ids.contains(null)
+                ? Collections.emptyMap()
+                : authorRepository.findByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Author::getId, Function.identity()));
+        List<Long> missing = ids.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) throw new ResourceNotFoundException("Authors not found with these IDs: " + missing);
+        return ids.stream().map(found::get).collect(Collectors.toList());
+    }
+
+    public Set<Long> findMissingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) return Collections.emptySet();
+        Set<Long> missing = new HashSet<>(ids);
+        missing.removeAll(authorRepository.findRegisteredIds(ids));
+        return missing;
+    }
+}
@@ -1,18 +1,37 @@
 package com.bruno.project.services.impl;
 
 import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.CatalogJson;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.entities.Author;
+import com.bruno.project.enums.CatalogType;
 import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.projections.VersionStamp;
 import com.bruno.project.services.AuthorService;
+import com.bruno.project.services.coalescing.Coalesced;
+import com.bruno.project.services.events.AuthorChangedEvent;
 import com.bruno.project.services.exceptions.ExistingResourceException;
+import com.bruno.project.services.exceptions.PreconditionFailedException;
 import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import com.bruno.project.services.index.SuggestIndex;
+import com.bruno.project.services.index.UniqueKeyFilter;
+import com.bruno.project.services.metrics.QueryBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -20,49 +39,181 @@ public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
 
+    private final UniqueKeyFilter uniqueKeyFilter;
+
+    private final SuggestIndex suggestIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final EntityManager entityManager;
+
+    static final Set<String> FIELDS = Set.of("id", "name", "birthDate", "email", "phone", "biography",
+            "urlPicture");
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "birthDate", "email", "phone",
+            "biography", "urlPicture");
+
+    @QueryBudget(max = 2)
+    @Transactional(readOnly = true)
+    @Override
+    public AuthorDTO findById(Long id) {
+        AuthorDTO author = AuthorDTO.toDTO(checkGivenId(id));
+        suggestIndex.recordHit(CatalogType.AUTHOR, id);
+        return author;
+    }
+
+    @QueryBudget(max = 1)
+    @Transactional(readOnly = true)
+    @Override
+    public VersionStamp findVersionStamp(Long id) {
+        return authorRepository.findVersionStampById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("The ID '" + id + "' was not found!"));
+    }
+
+    @Coalesced(CatalogType.AUTHOR)
+    @QueryBudget(max = 1)
+    @Transactional(readOnly = true)
+    @Override
+    public List<VersionStamp> findVersionStamps() {
+        return List.of(authorRepository.findVersionStamp());
+    }
+
+    @Coalesced(CatalogType.AUTHOR)
+    @QueryBudget(max = 4)
+    @Transactional(readOnly = true)
+    @Override
+    public PageEnvelope<AuthorDTO> findAll(Pageable pageable, Fieldset fields){
+        if(!fields.isAll()) return getPage(authorRepository.findIdPage(pageable), fields);
+        return getPage(authorRepository.findAll(pageable));
+    }
+
+    @Coalesced(CatalogType.AUTHOR)
+    @QueryBudget(max = 4)
     @Transactional(readOnly = true)
     @Override
-    public Page<AuthorDTO> findAll(Pageable pageable){
-        return authorRepository.findAll(pageable).map(AuthorDTO::toDTO);
+    public PageEnvelope<AuthorDTO> findByNameContainingIgnoreCase(String name, Pageable pageable, Fieldset fields) {
+        if(!fields.isAll()) return getPage(authorRepository.findIdPageByName(name, pageable), fields);
+        return getPage(authorRepository.findByNameContainingIgnoreCase(name, pageable));
     }
 
+    @Coalesced(CatalogType.AUTHOR)
+    @QueryBudget(max = 3)
     @Transactional(readOnly = true)
     @Override
-    public Page<AuthorDTO> findByNameContainingIgnoreCase(String name, Pageable pageable) {
-        return authorRepository.findByNameContainingIgnoreCase(name, pageable).map(AuthorDTO::toDTO);
+    public CursorPage<AuthorDTO> findAll(String after, int size, Fieldset fields) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = KeysetCursor.limit(size);
+        if(!fields.isAll()) {
+            return getCursorPage(authorRepository.findIdsAfter(cursor.getKey(), cursor.getId(), limit), limit, fields);
+        }
+        return KeysetCursor.page(authorRepository.findPageAfter(cursor.getKey(), cursor.getId(), limit),
+                limit, Author::getName, Author::getId, AuthorDTO::toDTO);
     }
 
+    @Coalesced(CatalogType.AUTHOR)
+    @QueryBudget(max = 3)
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<AuthorDTO> findByNameContainingIgnoreCase(String name, String after, int size,
+                                                                Fieldset fields) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = KeysetCursor.limit(size);
+        if(!fields.isAll()) {
+            return getCursorPage(
+                    authorRepository.findIdsByNameAfter(name, cursor.getKey(), cursor.getId(), limit), limit, fields);
+        }
+        return KeysetCursor.page(authorRepository.findByNamePageAfter(name, cursor.getKey(), cursor.getId(), limit),
+                limit, Author::getName, Author::getId, AuthorDTO::toDTO);
+    }
+
+    @Transactional
     @Override
     public AuthorDTO save(AuthorDTO authorDTO) {
         checkRegisteredEmail(null, authorDTO.getEmail());
         authorDTO.setId(null);
         if(authorDTO.getUrlPicture() == null) authorDTO.setUrlPicture("51265117593_c76eb4ccb8_n.jpg");
-        Author author = fromDTO(authorDTO);
-        return AuthorDTO.toDTO(authorRepository.save(author));
+        uniqueKeyFilter.add(UniqueKeyFilter.Key.EMAIL, authorDTO.getEmail());
+        Author author = authorRepository.save(fromDTO(authorDTO));
+        eventPublisher.publishEvent(AuthorChangedEvent.saved(author));
+        return AuthorDTO.toDTO(author);
     }
 
+    @Transactional
     @Override
     public AuthorDTO updateById(Long id, AuthorDTO authorDTO) {
-        checkGivenId(id);
+        Author current = checkGivenId(id);
+        if(authorDTO.getVersion() != null && !authorDTO.getVersion().equals(current.getVersion()))
+            throw new PreconditionFailedException("The author '" + id + "' was changed by another request!");
+        authorDTO.setVersion(current.getVersion());
         checkRegisteredEmail(id, authorDTO.getEmail());
         if(authorDTO.getUrlPicture() == null) authorDTO.setUrlPicture("51265117593_c76eb4ccb8_n.jpg");
+        uniqueKeyFilter.add(UniqueKeyFilter.Key.EMAIL, authorDTO.getEmail());
         authorDTO.setId(id);
-        Author author = fromDTO(authorDTO);
-        return AuthorDTO.toDTO(authorRepository.save(author));
+        Author author = authorRepository.save(fromDTO(authorDTO));
+        eventPublisher.publishEvent(AuthorChangedEvent.saved(author));
+        return AuthorDTO.toDTO(author);
     }
 
+    @Transactional
+    @Override
+    public void patchById(Long id, Long version, JsonNode patch) {
+        MergePatch<AuthorDTO> mergePatch = MergePatch.of(patch, AuthorDTO.class, Author.class, PATCHABLE_FIELDS,
+                objectMapper, validator);
+        if(mergePatch.contains("email")) {
+            mergePatch.getValues().setEmail(Author.normalizeEmail(mergePatch.getValues().getEmail()));
+            checkRegisteredEmail(id, mergePatch.getValues().getEmail());
+            uniqueKeyFilter.add(UniqueKeyFilter.Key.EMAIL, mergePatch.getValues().getEmail());
+        }
+        if(mergePatch.apply(entityManager, id, version) == 0) {
+            checkGivenId(id);
+            throw new ObjectOptimisticLockingFailureException(Author.class, id);
+        }
+        AuthorDTO values = mergePatch.getValues();
+        values.setId(id);
+        eventPublisher.publishEvent(AuthorChangedEvent.patched(fromDTO(values), mergePatch.getFields()));
+    }
+
+    @Transactional
     @Override
     public void deleteById(Long id) {
         checkGivenId(id);
         authorRepository.deleteById(id);
+        eventPublisher.publishEvent(AuthorChangedEvent.deleted(id));
+    }
+
+    private PageEnvelope<AuthorDTO> getPage(Page<Author> page) {
+        return PageEnvelope.of(page.getContent(), page.getPageable(), page.getTotalElements(), AuthorDTO::toDTO,
+                CatalogJson::writeAuthor);
+    }
+
+    private PageEnvelope<AuthorDTO> getPage(Page<Long> page, Fieldset fields) {
+        return PageEnvelope.of(findDTOs(page.getContent(), fields), page.getPageable(), page.getTotalElements());
+    }
+
+    private CursorPage<AuthorDTO> getCursorPage(List<Long> ids, Pageable limit, Fieldset fields) {
+        return KeysetCursor.page(findDTOs(ids, fields, "name"), limit, AuthorDTO::getName, AuthorDTO::getId,
+                Function.identity());
+    }
+
+    private List<AuthorDTO> findDTOs(List<Long> ids, Fieldset fields, String... keys) {
+        SparseProjection.check(fields, FIELDS, Collections.emptyMap());
+        if (ids.isEmpty()) return Collections.emptyList();
+        List<String> columns = new ArrayList<>(fields.names());
+        columns.addAll(Arrays.asList(keys));
+        return SparseProjection.select(entityManager, Author.class, ids, columns, () -> AuthorDTO.builder().build());
     }
 
     private Author fromDTO(AuthorDTO authorDTO) {
         return Author.builder()
                 .id(authorDTO.getId())
+                .version(authorDTO.getVersion())
                 .name(authorDTO.getName())
                 .birthDate(authorDTO.getBirthDate())
-                .email(authorDTO.getEmail())
+                .email(Author.normalizeEmail(authorDTO.getEmail()))
                 .phone(authorDTO.getPhone())
                 .biography(authorDTO.getBiography())
                 .urlPicture(authorDTO.getUrlPicture())
@@ -76,8 +227,10 @@ public class AuthorServiceImpl implements AuthorService {
 
     @Transactional(readOnly = true)
     private Optional<Author> checkRegisteredEmail(Long id, String email){
-        Optional<Author> author = authorRepository.findByEmailIgnoreCase(email);
-        if(author.isPresent() && author.get().getId() != id)
+        if(!uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, email)) return Optional.empty();
+        Optional<Author> author = authorRepository.findByEmail(email);
+        if(author.isEmpty()) uniqueKeyFilter.recordFalsePositive(UniqueKeyFilter.Key.EMAIL);
+        if(author.isPresent() && !Objects.equals(author.get().getId(), id))
             throw new ExistingResourceException("The email " + email
                     + " you supplied is already registered! Try with another one.");
         return author;
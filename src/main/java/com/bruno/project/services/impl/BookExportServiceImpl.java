@@ -0,0 +1,171 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.ExportFormat;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.BookExportService;
+import com.bruno.project.services.exceptions.TooManyExportsException;
+import com.bruno.project.services.export.BookExportProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class BookExportServiceImpl implements BookExportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+
+    private final BookRepository bookRepository;
+
+    private final EntityManager entityManager;
+
+    private final int maxConcurrent;
+
+    private final Semaphore exports;
+
+    public BookExportServiceImpl(ObjectMapper objectMapper, BookRepository bookRepository, EntityManager entityManager,
+                                 BookExportProperties properties) {
+        this.objectMapper = objectMapper;
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.exports = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public Closeable reserve() {
+        if (!exports.tryAcquire()) {
+            throw new TooManyExportsException("No more than " + maxConcurrent
+                    + " exports can run at the same time, try again later");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) exports.release();
+        };
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportBooks(Long afterId, ExportFormat format, OutputStream output) throws IOException {
+        BookWriter writer = format == ExportFormat.CSV ? new CsvBookWriter(output) : new JsonBookWriter(output);
+        List<Long> ids = new ArrayList<>(CHUNK_SIZE);
+        try (Stream<Long> bookIds = bookRepository.streamIdsAfter(afterId == null ? 0L : afterId)) {
+            Iterator<Long> iterator = bookIds.iterator();
+            while (iterator.hasNext()) {
+                ids.add(iterator.next());
+                if (ids.size() == CHUNK_SIZE) writeChunk(ids, writer);
+            }
+        }
+        if (!ids.isEmpty()) writeChunk(ids, writer);
+        writer.flush();
+    }
+
+    private void writeChunk(List<Long> ids, BookWriter writer) throws IOException {
+        List<Book> books = bookRepository.findUncachedWithAuthorsByIdIn(ids);
+        books.sort(Comparator.comparing(Book::getId));
+        for (Book book : books) {
+            writer.write(toExport(book));
+        }
+        writer.flush();
+        entityManager.clear();
+        ids.clear();
+    }
+
+    private static BookDTO toExport(Book book) {
+        BookDTO bookDTO = BookDTO.toDTO(book);
+        bookDTO.setSynopsis(book.getSynopsis());
+        return bookDTO;
+    }
+
+    private interface BookWriter {
+
+        void write(BookDTO book) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private class JsonBookWriter implements BookWriter {
+
+        private final JsonGenerator generator;
+
+        JsonBookWriter(OutputStream output) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(output);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(BookDTO book) throws IOException {
+            objectMapper.writeValue(generator, book);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvBookWriter implements BookWriter {
+
+        private static final String HEADER = "id,isbn,title,printLength,language,publicationYear,publisher," +
+                "urlCover,synopsis,bookGenre,authorIds";
+
+        private final Writer writer;
+
+        CsvBookWriter(OutputStream output) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(BookDTO book) throws IOException {
+            writer.write(String.join(",",
+                    String.valueOf(book.getId()),
+                    escape(book.getIsbn()),
+                    escape(book.getTitle()),
+                    book.getPrintLength() == null ? "" : String.valueOf(book.getPrintLength()),
+                    escape(book.getLanguage()),
+                    escape(book.getPublicationYear()),
+                    escape(book.getPublisher()),
+                    escape(book.getUrlCover()),
+                    escape(book.getSynopsis()),
+                    book.getBookGenre() == null ? "" : book.getBookGenre().name(),
+                    book.getAuthors().stream()
+                            .map(AuthorDTO::getId)
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(";"))));
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value == null) return "";
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.ImportResultDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.entities.Book;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.BookImportService;
+import com.bruno.project.services.codec.BinaryCodecs;
+import com.bruno.project.services.events.BookChangedEvent;
+import com.bruno.project.services.index.UniqueKeyFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class BookImportServiceImpl implements BookImportService {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final BookRepository bookRepository;
+
+    private final AuthorResolver authorResolver;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final UniqueKeyFilter uniqueKeyFilter;
+
+    private final BinaryCodecs binaryCodecs;
+
+    @Override
+    public void importBooks(InputStream input, OutputStream output) throws IOException {
+        importBooks(new NdjsonSource(input), output);
+    }
+
+    @Override
+    public void importBooks(InputStream input, BinaryFormat format, OutputStream output) throws IOException {
+        importBooks(format == BinaryFormat.PROTOBUF ? new DelimitedSource(input) : new SequenceSource(input, format),
+                output);
+    }
+
+    private void importBooks(BookSource source, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.setRootValueSeparator(null);
+        List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        ImportLine line;
+        while ((line = source.next()) != null) {
+            chunk.add(line);
+            if (chunk.size() == CHUNK_SIZE) {
+                write(generator, importChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) write(generator, importChunk(chunk));
+        generator.flush();
+    }
+
+    private List<ImportResultDTO> importChunk(List<ImportLine> chunk) {
+        chunk.stream().filter(ImportLine::isValid).forEach(this::validate);
+        rejectDuplicatedIsbns(chunk);
+        rejectRegisteredIsbns(chunk);
+        rejectUnregisteredAuthors(chunk);
+        List<ImportLine> accepted = chunk.stream().filter(ImportLine::isValid).collect(Collectors.toList());
+        if (!accepted.isEmpty()) insert(accepted);
+        return chunk.stream()
+                .map(line -> line.isValid()
+                        ? ImportResultDTO.created(line.number, line.book.getId())
+                        : ImportResultDTO.rejected(line.number, line.error))
+                .collect(Collectors.toList());
+    }
+
+    private void validate(ImportLine line) {
+        Set<ConstraintViolation<BookDTO>> violations = validator.validate(line.book);
+        if (!violations.isEmpty()) {
+            line.error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+    }
+
+    private void rejectDuplicatedIsbns(List<ImportLine> chunk) {
+        Set<String> seen = new HashSet<>();
+        chunk.stream()
+                .filter(ImportLine::isValid)
+                .filter(line -> !seen.add(line.book.getIsbn()))
+                .forEach(line -> line.error = "The ISBN '" + line.book.getIsbn() + "' appears more than once!");
+    }
+
+    private void rejectRegisteredIsbns(List<ImportLine> chunk) {
+        Set<String> isbns = chunk.stream()
+                .filter(ImportLine::isValid)
+                .map(line -> line.book.getIsbn())
+                .filter(isbn -> uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, isbn))
+                .collect(Collectors.toSet());
+        if (isbns.isEmpty()) return;
+        Set<String> registered = bookRepository.findRegisteredIsbns(isbns);
+        isbns.stream()
+                .filter(isbn -> !registered.contains(isbn))
+                .forEach(isbn -> uniqueKeyFilter.recordFalsePositive(UniqueKeyFilter.Key.ISBN));
+        chunk.stream()
+                .filter(ImportLine::isValid)
+                .filter(line -> registered.contains(line.book.getIsbn()))
+                .forEach(line -> line.error = "The ISBN '" + line.book.getIsbn() + "' is already registered!");
+    }
+
+    private void rejectUnregisteredAuthors(List<ImportLine> chunk) {
+        Set<Long> ids = chunk.stream()
+                .filter(ImportLine::isValid)
+                .flatMap(line -> line.book.getAuthors().stream())
+                .map(AuthorDTO::getId)
+                .collect(Collectors.toSet());
+        if (ids.contains(null)) {
+            chunk.stream()
+                    .filter(ImportLine::isValid)
+                    .filter(line -> line.book.getAuthors().stream().anyMatch(author -> author.getId() == null))
+                    .forEach(line -> line.error = "Every author needs an ID!");
+            ids.remove(null);
+        }
+        if (ids.isEmpty()) return;
+        Set<Long> missingIds = authorResolver.findMissingIds(ids);
+        for (ImportLine line : chunk) {
+            if (!line.isValid()) continue;
+            List<Long> missing = line.book.getAuthors().stream()
+                    .map(AuthorDTO::getId)
+                    .filter(missingIds::contains)
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) line.error = "Authors not found with these IDs: " + missing;
+        }
+    }
+
+    private void insert(List<ImportLine> accepted) {
+        accepted.forEach(line -> uniqueKeyFilter.add(UniqueKeyFilter.Key.ISBN, line.book.getIsbn()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+                for (ImportLine line : accepted) {
+                    Book book = toEntity(line.book);
+                    entityManager.persist(book);
+                    line.book.setId(book.getId());
+                    eventPublisher.publishEvent(BookChangedEvent.saved(book));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (DataIntegrityViolationException | PersistenceException e) {
+            accepted.forEach(line -> {
+                line.book.setId(null);
+                line.error = "The chunk containing this line was rolled back: " + e.getMessage();
+            });
+        }
+    }
+
+    private Book toEntity(BookDTO bookDTO) {
+        bookDTO.setId(null);
+        if (bookDTO.getUrlCover() == null) bookDTO.setUrlCover("51264896706_e66beed079_n.jpg");
+        Book book = BookServiceImpl.fromDTO(bookDTO);
+        for (AuthorDTO authorDTO : bookDTO.getAuthors()) {
+            book.getAuthors().add(entityManager.getReference(Author.class, authorDTO.getId()));
+        }
+        return book;
+    }
+
+    private void write(JsonGenerator generator, List<ImportResultDTO> results) throws IOException {
+        for (ImportResultDTO result : results) {
+            objectMapper.writeValue(generator, result);
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private static ImportLine book(long number, BookDTO bookDTO) {
+        if (bookDTO.getAuthors() == null) bookDTO.setAuthors(new ArrayList<>());
+        return new ImportLine(number, bookDTO, null);
+    }
+
+    private static ImportLine rejected(long number, String kind, JsonProcessingException e) {
+        return new ImportLine(number, null, "This " + kind + " is not a valid book: " + e.getOriginalMessage());
+    }
+
+    private interface BookSource {
+
+        ImportLine next() throws IOException;
+    }
+
+    private class NdjsonSource implements BookSource {
+
+        private final BufferedReader reader;
+
+        private long lineNumber;
+
+        NdjsonSource(InputStream input) {
+            reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public ImportLine next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                try {
+                    return book(lineNumber, objectMapper.readValue(line, BookDTO.class));
+                } catch (JsonProcessingException e) {
+                    return rejected(lineNumber, "line", e);
+                }
+            }
+            return null;
+        }
+    }
+
+    private class SequenceSource implements BookSource {
+
+        private final ObjectMapper mapper;
+
+        private final JsonParser parser;
+
+        private long record;
+
+        private boolean broken;
+
+        SequenceSource(InputStream input, BinaryFormat format) throws IOException {
+            mapper = binaryCodecs.mapper(format);
+            parser = mapper.getFactory().createParser(input);
+        }
+
+        @Override
+        public ImportLine next() throws IOException {
+            if (broken) return null;
+            JsonNode node;
+            try {
+                node = mapper.readTree(parser);
+            } catch (JsonProcessingException e) {
+                broken = true;
+                return rejected(++record, "record", e);
+            }
+            if (node == null) return null;
+            record++;
+            try {
+                return book(record, mapper.treeToValue(node, BookDTO.class));
+            } catch (JsonProcessingException e) {
+                return rejected(record, "record", e);
+            }
+        }
+    }
+
+    private class DelimitedSource implements BookSource {
+
+        private final InputStream input;
+
+        private final ObjectReader reader;
+
+        private long record;
+
+        DelimitedSource(InputStream input) {
+            this.input = new BufferedInputStream(input);
+            reader = binaryCodecs.reader(BinaryFormat.PROTOBUF, BookDTO.class);
+        }
+
+        @Override
+        public ImportLine next() throws IOException {
+            int length;
+            try {
+                length = readLength();
+            } catch (EOFException e) {
+                return new ImportLine(++record, null, "This record is truncated: " + e.getMessage());
+            }
+            if (length < 0) return null;
+            record++;
+            byte[] message = input.readNBytes(length);
+            if (message.length < length) {
+                return new ImportLine(record, null, "This record is truncated: " + message.length + " of " +
+                        length + " bytes were sent");
+            }
+            try {
+                return book(record, reader.readValue(message));
+            } catch (JsonProcessingException e) {
+                return rejected(record, "record", e);
+            }
+        }
+
+        private int readLength() throws IOException {
+            int length = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = input.read();
+                if (b < 0) {
+                    if (shift == 0) return -1;
+                    throw new EOFException("The stream ended inside a message length");
+                }
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return length;
+            }
+            throw new IOException("The message length is longer than 32 bits");
+        }
+    }
+
+    @AllArgsConstructor
+    private static class ImportLine {
+
+        private final long number;
+        private final BookDTO book;
+        private String error;
+
+        boolean isValid() {
+            return error == null;
+        }
+    }
+}
@@ -2,22 +2,48 @@ package com.bruno.project.services.impl;
 
 import com.bruno.project.dto.AuthorDTO;
 import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CatalogJson;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.entities.Author;
 import com.bruno.project.entities.Book;
+import com.bruno.project.enums.CatalogType;
 import com.bruno.project.repositories.AuthorRepository;
 import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.repositories.projections.VersionStamp;
 import com.bruno.project.services.BookService;
+import com.bruno.project.services.coalescing.Coalesced;
+import com.bruno.project.services.events.BookChangedEvent;
 import com.bruno.project.services.exceptions.ExistingResourceException;
+import com.bruno.project.services.exceptions.IndexNotReadyException;
+import com.bruno.project.services.exceptions.InvalidSortException;
+import com.bruno.project.services.exceptions.PreconditionFailedException;
 import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import com.bruno.project.services.index.BookFacetIndex;
+import com.bruno.project.services.index.BookSearchIndex;
+import com.bruno.project.services.index.FacetResult;
+import com.bruno.project.services.index.SuggestIndex;
+import com.bruno.project.services.index.UniqueKeyFilter;
+import com.bruno.project.services.metrics.QueryBudget;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,79 +53,304 @@ public class BookServiceImpl implements BookService {
 
     private final AuthorRepository authorRepository;
 
+    private final AuthorResolver authorResolver;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final BookFacetIndex bookFacetIndex;
+
+    private final SuggestIndex suggestIndex;
+
+    private final UniqueKeyFilter uniqueKeyFilter;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final EntityManager entityManager;
+
+    private static final int MAX_INDEXED_IDS = 10_000;
+
+    private static final Sort ID_ORDER = Sort.by("id");
+
+    static final Set<String> FIELDS = Set.of("id", "isbn", "title", "printLength", "language",
+            "publicationYear", "publisher", "urlCover", "synopsis", "bookGenre", "authors");
+
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("isbn", "title", "printLength", "language",
+            "publicationYear", "publisher", "urlCover", "synopsis", "bookGenre");
+
+    @QueryBudget(max = 2)
+    @Transactional(readOnly = true)
+    @Override
+    public BookDTO findById(Long id) {
+        BookDTO book = findWithAuthors(List.of(id)).stream()
+                .findFirst()
+                .map(BookDTO::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("The id '" + id + "' was not found!"));
+        suggestIndex.recordHit(CatalogType.BOOK, id);
+        return book;
+    }
+
+    @QueryBudget(max = 1)
+    @Transactional(readOnly = true)
+    @Override
+    public VersionStamp findVersionStamp(Long id) {
+        return bookRepository.findVersionStampById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("The id '" + id + "' was not found!"));
+    }
+
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 2)
+    @Transactional(readOnly = true)
+    @Override
+    public List<VersionStamp> findVersionStamps() {
+        return List.of(bookRepository.findVersionStamp(), authorRepository.findVersionStamp());
+    }
+
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 4)
     @Transactional(readOnly = true)
     @Override
-    public Page<BookDTO> findAll(Pageable pageable) {
-        Page<Book> page = bookRepository.findAll(pageable);
-        return getPage(page);
+    public PageEnvelope<BookDTO> findAll(Pageable pageable, Fieldset fields) {
+        Page<Long> page = bookRepository.findIdPage(pageable);
+        return getPage(page, fields);
     }
 
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 4)
     @Transactional(readOnly = true)
     @Override
-    public Page<BookDTO> findByTitleContainingIgnoreCase(String text, Pageable pageable){
-        Page<Book> page = bookRepository.findByTitleContainingIgnoreCase(text, pageable);
-        return getPage(page);
+    public PageEnvelope<BookDTO> findByTitleContainingIgnoreCase(String text, Pageable pageable, Fieldset fields){
+        Page<Long> page = findByIndexedIds(bookSearchIndex.findByTitle(text), pageable)
+                .orElseGet(() -> bookRepository.findIdPageByTitle(text, pageable));
+        return getPage(page, fields);
     }
 
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 4)
     @Transactional(readOnly = true)
     @Override
-    public Page<BookDTO> findByLanguageContainingIgnoreCase(String text, Pageable pageable){
-        Page<Book> page = bookRepository.findByLanguageContainingIgnoreCase(text, pageable);
-        return getPage(page);
+    public PageEnvelope<BookDTO> findByLanguageContainingIgnoreCase(String text, Pageable pageable, Fieldset fields){
+        Page<Long> page = findByIndexedIds(bookSearchIndex.findByLanguage(text), pageable)
+                .orElseGet(() -> bookRepository.findIdPageByLanguage(text, pageable));
+        return getPage(page, fields);
     }
 
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 4)
     @Transactional(readOnly = true)
     @Override
-    public Page<BookDTO> findByPublisherContainingIgnoreCase(String text, Pageable pageable){
-        Page<Book> page = bookRepository.findByPublisherContainingIgnoreCase(text, pageable);
-        return getPage(page);
+    public PageEnvelope<BookDTO> findByPublisherContainingIgnoreCase(String text, Pageable pageable, Fieldset fields){
+        Page<Long> page = findByIndexedIds(bookSearchIndex.findByPublisher(text), pageable)
+                .orElseGet(() -> bookRepository.findIdPageByPublisher(text, pageable));
+        return getPage(page, fields);
     }
 
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 4)
     @Transactional(readOnly = true)
     @Override
-    public Page<BookDTO> findBooksByAuthorName(String author, Pageable pageable){
-        Page<Book> page = bookRepository.findBooksByAuthorName(author, pageable);
-        return getPage(page);
+    public PageEnvelope<BookDTO> findBooksByAuthorName(String author, Pageable pageable, Fieldset fields){
+        Page<Long> page = bookRepository.findIdPageByAuthorName(author, pageable);
+        return getPage(page, fields);
     }
 
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 4)
+    @Transactional(readOnly = true)
+    @Override
+    public PageEnvelope<BookDTO> search(BookFacetQuery query, Pageable pageable, Fieldset fields) {
+        FacetResult result = bookFacetIndex.search(query).orElseThrow(() -> new IndexNotReadyException(
+                "The book facets are still being indexed! Try again in a few seconds."));
+        Page<Long> page;
+        if (result.getTotal() == 0) {
+            page = Page.empty(pageable);
+        } else if (pageable.getSort().isSorted() && !pageable.getSort().equals(ID_ORDER)) {
+            if (result.getTotal() > MAX_INDEXED_IDS) {
+                throw new InvalidSortException("The search matched " + result.getTotal() + " books, only up to "
+                        + MAX_INDEXED_IDS + " can be sorted! Narrow the filters or sort by id.");
+            }
+            page = bookRepository.findIdPageByIdIn(result.ids(), pageable);
+        } else if (pageable.isPaged()) {
+            page = new PageImpl<>(result.page(pageable.getOffset(), pageable.getPageSize()), pageable,
+                    result.getTotal());
+        } else {
+            page = new PageImpl<>(result.page(0, (int) result.getTotal()));
+        }
+        return getPage(page, fields).withFacets(result.getFacets());
+    }
+
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 3)
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookDTO> findAll(String after, int size, Fieldset fields) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = KeysetCursor.limit(size);
+        return getCursorPage(bookRepository.findIdsAfter(cursor.getKey(), cursor.getId(), limit), limit, fields);
+    }
+
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 3)
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookDTO> findByTitleContainingIgnoreCase(String text, String after, int size,
+                                                               Fieldset fields) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = KeysetCursor.limit(size);
+        return getCursorPage(
+                bookRepository.findIdsByTitleAfter(text, cursor.getKey(), cursor.getId(), limit), limit, fields);
+    }
+
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 3)
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookDTO> findByLanguageContainingIgnoreCase(String text, String after, int size,
+                                                                  Fieldset fields) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = KeysetCursor.limit(size);
+        return getCursorPage(
+                bookRepository.findIdsByLanguageAfter(text, cursor.getKey(), cursor.getId(), limit), limit, fields);
+    }
+
+    @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+    @QueryBudget(max = 3)
+    @Transactional(readOnly = true)
+    @Override
+    public CursorPage<BookDTO> findByPublisherContainingIgnoreCase(String text, String after, int size,
+                                                                   Fieldset fields) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        Pageable limit = KeysetCursor.limit(size);
+        return getCursorPage(
+                bookRepository.findIdsByPublisherAfter(text, cursor.getKey(), cursor.getId(), limit), limit, fields);
+    }
+
+    @Transactional
     @Override
     public BookDTO save(BookDTO bookDTO){
         checkRegisteredISBN(null, bookDTO.getIsbn());
         bookDTO.setId(null);
         if(bookDTO.getUrlCover() == null) bookDTO.setUrlCover("51264896706_e66beed079_n.jpg");
-        List<Author> listAuthor = checkRegisteredAuthors(bookDTO.getAuthors());
+        List<Author> listAuthor = authorResolver.resolve(bookDTO.getAuthors());
+        uniqueKeyFilter.add(UniqueKeyFilter.Key.ISBN, bookDTO.getIsbn());
         bookDTO.getAuthors().clear();
         Book book = fromDTO(bookDTO);
         book.getAuthors().addAll(listAuthor);
-        return BookDTO.toDTO(bookRepository.save(book));
+        book = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(book));
+        return BookDTO.toDTO(book);
     }
 
+    @Transactional
     @Override
     public BookDTO updateById(Long id, BookDTO bookDTO){
-        checkGivenId(id);
+        Book current = checkGivenId(id);
+        if(bookDTO.getVersion() != null && !bookDTO.getVersion().equals(current.getVersion()))
+            throw new PreconditionFailedException("The book '" + id + "' was changed by another request!");
+        bookDTO.setVersion(current.getVersion());
         checkRegisteredISBN(id, bookDTO.getIsbn());
-        List<Author> listAuthor = checkRegisteredAuthors(bookDTO.getAuthors());
+        List<Author> listAuthor = authorResolver.resolve(bookDTO.getAuthors());
         if(bookDTO.getUrlCover() == null) bookDTO.setUrlCover("51264896706_e66beed079_n.jpg");
+        uniqueKeyFilter.add(UniqueKeyFilter.Key.ISBN, bookDTO.getIsbn());
         bookDTO.setId(id);
         Book book = fromDTO(bookDTO);
         book.getAuthors().addAll(listAuthor);
-        return BookDTO.toDTO(bookRepository.save(book));
+        book = bookRepository.save(book);
+        eventPublisher.publishEvent(BookChangedEvent.saved(book));
+        return BookDTO.toDTO(book);
     }
 
+    @Transactional
+    @Override
+    public void patchById(Long id, Long version, JsonNode patch){
+        MergePatch<BookDTO> mergePatch = MergePatch.of(patch, BookDTO.class, Book.class, PATCHABLE_FIELDS,
+                objectMapper, validator);
+        BookDTO values = mergePatch.getValues();
+        if(mergePatch.contains("isbn")) {
+            checkRegisteredISBN(id, values.getIsbn());
+            uniqueKeyFilter.add(UniqueKeyFilter.Key.ISBN, values.getIsbn());
+        }
+        if(mergePatch.apply(entityManager, id, version) == 0) {
+            checkGivenId(id);
+            throw new ObjectOptimisticLockingFailureException(Book.class, id);
+        }
+        values.setId(id);
+        eventPublisher.publishEvent(BookChangedEvent.patched(fromDTO(values), mergePatch.getFields()));
+    }
+
+    @Transactional
     @Override
     public void deleteById(Long id){
         checkGivenId(id);
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(BookChangedEvent.deleted(id));
     }
 
-    private Page<BookDTO> getPage(Page<Book> page) {
-        bookRepository.findBooksAuthors(page.toList());
-        return page.map(BookDTO::toDTO);
+    private PageEnvelope<BookDTO> getPage(Page<Long> page, Fieldset fields) {
+        if (fields.isAll()) {
+            return PageEnvelope.of(findWithAuthors(page.getContent()), page.getPageable(), page.getTotalElements(),
+                    BookDTO::toDTO, CatalogJson::writeBook);
+        }
+        return PageEnvelope.of(findDTOs(page.getContent(), fields), page.getPageable(), page.getTotalElements());
+    }
+
+    private CursorPage<BookDTO> getCursorPage(List<Long> ids, Pageable limit, Fieldset fields) {
+        if (fields.isAll()) {
+            return KeysetCursor.page(findWithAuthors(ids), limit, Book::getTitle, Book::getId, BookDTO::toDTO);
+        }
+        return KeysetCursor.page(findDTOs(ids, fields, "title"), limit, BookDTO::getTitle, BookDTO::getId,
+                Function.identity());
     }
 
-    private Book fromDTO(BookDTO bookDTO) {
+    private List<BookDTO> findDTOs(List<Long> ids, Fieldset fields, String... keys) {
+        SparseProjection.check(fields, FIELDS, Map.of("authors", AuthorServiceImpl.FIELDS));
+        if (fields.isAll()) return findWithAuthors(ids).stream().map(BookDTO::toDTO).collect(Collectors.toList());
+        if (ids.isEmpty()) return Collections.emptyList();
+        List<String> columns = fields.names().stream()
+                .filter(name -> !name.equals("authors"))
+                .collect(Collectors.toCollection(ArrayList::new));
+        columns.addAll(Arrays.asList(keys));
+        List<BookDTO> books = SparseProjection.select(entityManager, Book.class, ids, columns,
+                () -> BookDTO.builder().build());
+        if (fields.contains("authors")) {
+            Fieldset authorFields = fields.nested("authors");
+            Map<Long, List<AuthorDTO>> authors = SparseProjection.selectJoined(entityManager, Book.class, "authors",
+                    ids, authorFields.isAll() ? AuthorServiceImpl.FIELDS : authorFields.names(),
+                    () -> AuthorDTO.builder().build());
+            books.forEach(book -> book.setAuthors(authors.getOrDefault(book.getId(), new ArrayList<>())));
+        }
+        return books;
+    }
+
+    private List<Book> findWithAuthors(List<Long> ids) {
+        if (ids.isEmpty()) return Collections.emptyList();
+        Map<Long, Book> books = bookRepository.findWithAuthorsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream().map(books::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private Optional<Page<Long>> findByIndexedIds(Optional<Set<Long>> candidates, Pageable pageable) {
+        if (candidates.isEmpty()) return Optional.empty();
+        Set<Long> ids = candidates.get();
+        if (ids.isEmpty()) return Optional.of(Page.empty(pageable));
+        if (pageable.getSort().isSorted()) {
+            return ids.size() <= MAX_INDEXED_IDS
+                    ? Optional.of(bookRepository.findIdPageByIdIn(ids, pageable))
+                    : Optional.empty();
+        }
+        List<Long> sorted = ids.stream().sorted().collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        List<Long> slice = sorted.subList(from, Math.min(from + pageable.getPageSize(), sorted.size()));
+        return Optional.of(new PageImpl<>(slice, pageable, sorted.size()));
+    }
+
+    public static Book fromDTO(BookDTO bookDTO) {
         return Book.builder()
                 .id(bookDTO.getId())
+                .version(bookDTO.getVersion())
                 .isbn(bookDTO.getIsbn())
                 .title(bookDTO.getTitle())
                 .printLength(bookDTO.getPrintLength())
@@ -112,17 +363,6 @@ public class BookServiceImpl implements BookService {
                 .build();
     }
 
-    @Transactional(readOnly = true)
-    private List<Author> checkRegisteredAuthors(List<AuthorDTO> list) {
-        List<Author> listAuthor = new ArrayList<>();
-        for(AuthorDTO authorDTO : list){
-            Author author = authorRepository.findById(authorDTO.getId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Author not found with this ID: '" + authorDTO.getId()));
-            listAuthor.add(author);
-        }
-        return listAuthor;
-    }
-
     private Book checkGivenId(Long id){
         return bookRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("The id '" + id + "' was not found!"));
@@ -130,8 +370,10 @@ public class BookServiceImpl implements BookService {
 
     @Transactional(readOnly = true)
     private Optional<Book> checkRegisteredISBN(Long id, String isbn){
+        if(!uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, isbn)) return Optional.empty();
         Optional<Book> book = bookRepository.findByIsbn(isbn);
-        if(book.isPresent() && book.get().getId() != id)
+        if(book.isEmpty()) uniqueKeyFilter.recordFalsePositive(UniqueKeyFilter.Key.ISBN);
+        if(book.isPresent() && !Objects.equals(book.get().getId(), id))
             throw new ExistingResourceException("The ISBN '" + isbn + "' is already registered!");
         return book;
     }
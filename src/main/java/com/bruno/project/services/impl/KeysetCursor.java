@@ -0,0 +1,62 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.services.exceptions.InvalidCursorException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+class KeysetCursor {
+
+    static final int MAX_SIZE = 2000;
+
+    private static final KeysetCursor FIRST = new KeysetCursor("", 0L);
+
+    private final String key;
+    private final Long id;
+
+    static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return FIRST;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new KeysetCursor(decoded.substring(separator + 1), Long.valueOf(decoded.substring(0, separator)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new InvalidCursorException("The cursor '" + cursor + "' you supplied is not valid!");
+        }
+    }
+
+    static String encode(String key, Long id) {
+        String raw = id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Pageable limit(int size) {
+        return PageRequest.of(0, Math.max(1, Math.min(size, MAX_SIZE)) + 1);
+    }
+
+    static <E, D> CursorPage<D> page(List<E> rows, Pageable limit, Function<E, String> key,
+                                     Function<E, Long> id, Function<E, D> mapper) {
+        int size = limit.getPageSize() - 1;
+        boolean hasNext = rows.size() > size;
+        List<E> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            E last = content.get(size - 1);
+            nextCursor = encode(key.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(content.stream().map(mapper).collect(Collectors.toList()), size, nextCursor);
+    }
+}
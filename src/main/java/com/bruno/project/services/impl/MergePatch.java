@@ -0,0 +1,94 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.services.exceptions.InvalidPatchException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.BeanWrapperImpl;
+
+import javax.persistence.Column;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class MergePatch<D> {
+
+    private final Class<?> entity;
+
+    private final D values;
+
+    private final Set<String> fields;
+
+    static <D> MergePatch<D> of(JsonNode patch, Class<D> type, Class<?> entity, Set<String> patchable,
+                                ObjectMapper objectMapper, Validator validator) {
+        if (patch == null || !patch.isObject() || patch.size() == 0) {
+            throw new InvalidPatchException("The patch must be a JSON object with at least one field!");
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        patch.fieldNames().forEachRemaining(fields::add);
+        List<String> rejected = fields.stream().filter(field -> !patchable.contains(field)).collect(Collectors.toList());
+        if (!rejected.isEmpty()) {
+            throw new InvalidPatchException("These fields cannot be patched: " + rejected);
+        }
+        D values;
+        try {
+            values = objectMapper.treeToValue(patch, type);
+        } catch (JsonProcessingException e) {
+            throw new InvalidPatchException("The patch is not valid: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<D>> violations = new HashSet<>();
+        for (String field : fields) {
+            violations.addAll(validator.validateProperty(values, field));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        BeanWrapperImpl source = new BeanWrapperImpl(values);
+        for (String field : fields) {
+            if (source.getPropertyValue(field) == null && !isNullable(entity, field)) {
+                throw new InvalidPatchException("The field '" + field + "' cannot be removed!");
+            }
+        }
+        return new MergePatch<>(entity, values, fields);
+    }
+
+    boolean contains(String field) {
+        return fields.contains(field);
+    }
+
+    int apply(EntityManager entityManager, Long id, Long version) {
+        BeanWrapperImpl source = new BeanWrapperImpl(values);
+        StringBuilder jpql = new StringBuilder("UPDATE ").append(entity.getSimpleName())
+                .append(" obj SET obj.version = obj.version + 1");
+        for (String field : fields) {
+            jpql.append(", obj.").append(field).append(" = :").append(field);
+        }
+        jpql.append(" WHERE obj.id = :id");
+        if (version != null) jpql.append(" AND obj.version = :version");
+        Query query = entityManager.createQuery(jpql.toString());
+        for (String field : fields) {
+            query.setParameter(field, source.getPropertyValue(field));
+        }
+        query.setParameter("id", id);
+        if (version != null) query.setParameter("version", version);
+        return query.executeUpdate();
+    }
+
+    private static boolean isNullable(Class<?> entity, String field) {
+        try {
+            Column column = entity.getDeclaredField(field).getAnnotation(Column.class);
+            return column == null || column.nullable();
+        } catch (NoSuchFieldException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.dto.SearchHitDTO;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.services.SearchService;
+import com.bruno.project.services.exceptions.IndexNotReadyException;
+import com.bruno.project.services.index.FullTextIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final FullTextIndex fullTextIndex;
+
+    @Override
+    public PageEnvelope<SearchHitDTO> search(String text, CatalogType type, Pageable pageable) {
+        if (text == null || text.isBlank()) return PageEnvelope.of(Collections.emptyList(), pageable, 0);
+        return fullTextIndex.search(text, type, pageable)
+                .orElseThrow(() -> new IndexNotReadyException(
+                        "The full-text index is still being built! Try again in a few seconds."));
+    }
+}
@@ -0,0 +1,79 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.services.exceptions.InvalidFieldsetException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import javax.persistence.EntityManager;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+final class SparseProjection {
+
+    private SparseProjection() {
+    }
+
+    static void check(Fieldset fields, Set<String> known, Map<String, Set<String>> nestedKnown) {
+        for (String name : fields.names()) {
+            if (!known.contains(name)) {
+                throw new InvalidFieldsetException("The field '" + name + "' does not exist! Choose among "
+                        + new TreeSet<>(known));
+            }
+            Fieldset nested = fields.nested(name);
+            if (nested.isAll()) continue;
+            Set<String> nestedNames = nestedKnown.getOrDefault(name, Collections.emptySet());
+            for (String nestedName : nested.names()) {
+                if (!nestedNames.contains(nestedName)) {
+                    throw new InvalidFieldsetException("The field '" + name + "." + nestedName + "' does not exist!");
+                }
+            }
+        }
+    }
+
+    static <D> List<D> select(EntityManager entityManager, Class<?> entity, List<Long> ids,
+                              Collection<String> columns, Supplier<D> factory) {
+        List<String> selected = withId(columns);
+        String jpql = "SELECT " + paths("obj", selected) + " FROM " + entity.getSimpleName() +
+                " obj WHERE obj.id IN :ids";
+        Map<Long, D> rows = new HashMap<>();
+        for (Object result : entityManager.createQuery(jpql).setParameter("ids", ids).getResultList()) {
+            Object[] row = result instanceof Object[] ? (Object[]) result : new Object[]{result};
+            rows.put((Long) row[0], fill(factory.get(), selected, row, 0));
+        }
+        return ids.stream().map(rows::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    static <D> Map<Long, List<D>> selectJoined(EntityManager entityManager, Class<?> entity, String relation,
+                                               List<Long> ids, Collection<String> columns, Supplier<D> factory) {
+        List<String> selected = withId(columns);
+        String jpql = "SELECT obj.id, " + paths("rel", selected) + " FROM " + entity.getSimpleName() +
+                " obj JOIN obj." + relation + " rel WHERE obj.id IN :ids";
+        Map<Long, List<D>> rows = new HashMap<>();
+        for (Object result : entityManager.createQuery(jpql).setParameter("ids", ids).getResultList()) {
+            Object[] row = (Object[]) result;
+            rows.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add(fill(factory.get(), selected, row, 1));
+        }
+        return rows;
+    }
+
+    private static List<String> withId(Collection<String> columns) {
+        List<String> selected = new ArrayList<>();
+        selected.add("id");
+        columns.stream().filter(column -> !selected.contains(column)).forEach(selected::add);
+        return selected;
+    }
+
+    private static String paths(String alias, List<String> columns) {
+        return columns.stream().map(column -> alias + "." + column).collect(Collectors.joining(", "));
+    }
+
+    private static <D> D fill(D dto, List<String> columns, Object[] row, int offset) {
+        BeanWrapper wrapper = new BeanWrapperImpl(dto);
+        for (int i = 0; i < columns.size(); i++) {
+            wrapper.setPropertyValue(columns.get(i), row[offset + i]);
+        }
+        return dto;
+    }
+}
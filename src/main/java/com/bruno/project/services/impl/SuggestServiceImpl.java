@@ -0,0 +1,29 @@
+package com.bruno.project.services.impl;
+
+import com.bruno.project.dto.SuggestionDTO;
+import com.bruno.project.services.SuggestService;
+import com.bruno.project.services.exceptions.IndexNotReadyException;
+import com.bruno.project.services.index.SuggestIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    public static final int MAX_LIMIT = 50;
+
+    private final SuggestIndex suggestIndex;
+
+    @Override
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = prefix == null ? "" : prefix.stripLeading();
+        if (normalized.isEmpty()) return Collections.emptyList();
+        return suggestIndex.suggest(normalized, Math.max(1, Math.min(MAX_LIMIT, limit)))
+                .orElseThrow(() -> new IndexNotReadyException(
+                        "The suggestions are still being indexed! Try again in a few seconds."));
+    }
+}
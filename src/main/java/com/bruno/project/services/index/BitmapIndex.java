@@ -0,0 +1,75 @@
+package com.bruno.project.services.index;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BitmapIndex<V> {
+
+    private final Map<V, RoaringBitmap> bitmaps = new HashMap<>();
+
+    private final Map<Integer, V> valueByKey = new HashMap<>();
+
+    public static int key(Long id) {
+        if (id == null || id < 0 || id >>> Integer.SIZE != 0) {
+            throw new IllegalArgumentException("The id " + id + " does not fit in a bitmap index");
+        }
+        return (int) id.longValue();
+    }
+
+    public static long id(int key) {
+        return Integer.toUnsignedLong(key);
+    }
+
+    public void put(Long id, V value) {
+        int key = key(id);
+        V previous = value == null ? valueByKey.remove(key) : valueByKey.put(key, value);
+        if (previous != null && !previous.equals(value)) unset(previous, key);
+        if (value != null) bitmaps.computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+    }
+
+    public void remove(Long id) {
+        int key = key(id);
+        V previous = valueByKey.remove(key);
+        if (previous != null) unset(previous, key);
+    }
+
+    public void clear() {
+        bitmaps.clear();
+        valueByKey.clear();
+    }
+
+    public void optimize() {
+        bitmaps.values().forEach(RoaringBitmap::runOptimize);
+    }
+
+    public RoaringBitmap get(V value) {
+        return bitmaps.get(value);
+    }
+
+    public RoaringBitmap union(Collection<V> values) {
+        RoaringBitmap union = new RoaringBitmap();
+        for (V value : values) {
+            RoaringBitmap bitmap = bitmaps.get(value);
+            if (bitmap != null) union.or(bitmap);
+        }
+        return union;
+    }
+
+    public Map<V, RoaringBitmap> bitmaps() {
+        return bitmaps;
+    }
+
+    public long sizeInBytes() {
+        return bitmaps.values().stream().mapToLong(RoaringBitmap::getLongSizeInBytes).sum();
+    }
+
+    private void unset(V value, int key) {
+        RoaringBitmap bitmap = bitmaps.get(value);
+        if (bitmap == null) return;
+        bitmap.remove(key);
+        if (bitmap.isEmpty()) bitmaps.remove(value);
+    }
+}
@@ -0,0 +1,192 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.FacetCount;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.repositories.projections.BookFacetView;
+import com.bruno.project.services.events.BookChangedEvent;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookFacetIndex {
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public enum Facet {
+        BOOK_GENRE("bookGenre"),
+        LANGUAGE("language"),
+        PUBLISHER("publisher"),
+        PUBLICATION_YEAR("publicationYear");
+
+        private final String name;
+    }
+
+    public static final int MAX_FACET_VALUES = 20;
+
+    private final BookRepository bookRepository;
+
+    private final BitmapIndex<Integer> genres = new BitmapIndex<>();
+
+    private final BitmapIndex<String> languages = new BitmapIndex<>();
+
+    private final BitmapIndex<String> publishers = new BitmapIndex<>();
+
+    private final BitmapIndex<String> publicationYears = new BitmapIndex<>();
+
+    private final RoaringBitmap books = new RoaringBitmap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            genres.clear();
+            languages.clear();
+            publishers.clear();
+            publicationYears.clear();
+            books.clear();
+            try (Stream<BookFacetView> views = bookRepository.streamFacetViews()) {
+                views.forEach(view -> put(view.getId(), view.getBookGenre(), view.getLanguage(),
+                        view.getPublisher(), view.getPublicationYear()));
+            }
+            genres.optimize();
+            languages.optimize();
+            publishers.optimize();
+            publicationYears.optimize();
+            books.runOptimize();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book facet index built with {} books in {} bytes", books.getLongCardinality(), sizeInBytes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == BookChangedEvent.Type.DELETED) {
+                genres.remove(event.getId());
+                languages.remove(event.getId());
+                publishers.remove(event.getId());
+                publicationYears.remove(event.getId());
+                books.remove(BitmapIndex.key(event.getId()));
+            } else if (event.getType() == BookChangedEvent.Type.PATCHED) {
+                Book book = event.getBook();
+                Set<String> fields = event.getFields();
+                if (fields.contains("bookGenre")) genres.put(book.getId(), code(book.getBookGenre()));
+                if (fields.contains("language")) languages.put(book.getId(), book.getLanguage());
+                if (fields.contains("publisher")) publishers.put(book.getId(), book.getPublisher());
+                if (fields.contains("publicationYear")) publicationYears.put(book.getId(), book.getPublicationYear());
+            } else {
+                Book book = event.getBook();
+                put(book.getId(), book.getBookGenre(), book.getLanguage(), book.getPublisher(),
+                        book.getPublicationYear());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<FacetResult> search(BookFacetQuery query) {
+        lock.readLock().lock();
+        try {
+            if (!ready) return Optional.empty();
+            List<Integer> genreCodes = query.getBookGenre().stream().map(BookFacetIndex::code)
+                    .collect(Collectors.toList());
+            Map<Facet, RoaringBitmap> filters = new EnumMap<>(Facet.class);
+            if (!genreCodes.isEmpty()) filters.put(Facet.BOOK_GENRE, genres.union(genreCodes));
+            if (!query.getLanguage().isEmpty()) filters.put(Facet.LANGUAGE, languages.union(query.getLanguage()));
+            if (!query.getPublisher().isEmpty()) {
+                filters.put(Facet.PUBLISHER, publishers.union(query.getPublisher()));
+            }
+            if (!query.getPublicationYear().isEmpty()) {
+                filters.put(Facet.PUBLICATION_YEAR, publicationYears.union(query.getPublicationYear()));
+            }
+            RoaringBitmap matches = filters.isEmpty() ? books.clone() : intersect(filters, null);
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            facets.put(Facet.BOOK_GENRE.getName(), count(genres, intersect(filters, Facet.BOOK_GENRE), genreCodes,
+                    code -> BookGenre.toEnum(code).name()));
+            facets.put(Facet.LANGUAGE.getName(), count(languages, intersect(filters, Facet.LANGUAGE),
+                    query.getLanguage(), Function.identity()));
+            facets.put(Facet.PUBLISHER.getName(), count(publishers, intersect(filters, Facet.PUBLISHER),
+                    query.getPublisher(), Function.identity()));
+            facets.put(Facet.PUBLICATION_YEAR.getName(), count(publicationYears,
+                    intersect(filters, Facet.PUBLICATION_YEAR), query.getPublicationYear(), Function.identity()));
+            return Optional.of(new FacetResult(matches, facets));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long sizeInBytes() {
+        return books.getLongSizeInBytes() + genres.sizeInBytes() + languages.sizeInBytes()
+                + publishers.sizeInBytes() + publicationYears.sizeInBytes();
+    }
+
+    private RoaringBitmap intersect(Map<Facet, RoaringBitmap> filters, Facet excluded) {
+        RoaringBitmap result = books;
+        for (Map.Entry<Facet, RoaringBitmap> filter : filters.entrySet()) {
+            if (filter.getKey() != excluded) result = RoaringBitmap.and(result, filter.getValue());
+        }
+        return result;
+    }
+
+    private <V> List<FacetCount> count(BitmapIndex<V> index, RoaringBitmap base, Collection<V> selected,
+                                       Function<V, String> label) {
+        List<Map.Entry<V, Long>> counts = new ArrayList<>();
+        for (Map.Entry<V, RoaringBitmap> entry : index.bitmaps().entrySet()) {
+            long count = base == books
+                    ? entry.getValue().getLongCardinality()
+                    : RoaringBitmap.andCardinality(base, entry.getValue());
+            if (count > 0 || selected.contains(entry.getKey())) counts.add(Map.entry(entry.getKey(), count));
+        }
+        counts.sort(Map.Entry.<V, Long>comparingByValue().reversed()
+                .thenComparing(entry -> label.apply(entry.getKey())));
+        List<FacetCount> facet = new ArrayList<>();
+        for (Map.Entry<V, Long> entry : counts) {
+            if (facet.size() < MAX_FACET_VALUES || selected.contains(entry.getKey())) {
+                facet.add(new FacetCount(label.apply(entry.getKey()), entry.getValue()));
+            }
+        }
+        return facet;
+    }
+
+    private void put(Long id, BookGenre bookGenre, String language, String publisher, String publicationYear) {
+        genres.put(id, code(bookGenre));
+        languages.put(id, language);
+        publishers.put(id, publisher);
+        publicationYears.put(id, publicationYear);
+        books.add(BitmapIndex.key(id));
+    }
+
+    private static Integer code(BookGenre bookGenre) {
+        return bookGenre == null ? null : bookGenre.getCode();
+    }
+}
@@ -0,0 +1,90 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.entities.Book;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.repositories.projections.BookTextView;
+import com.bruno.project.services.events.BookChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+
+    private final BookRepository bookRepository;
+
+    private final TrigramIndex titles = new TrigramIndex();
+
+    private final TrigramIndex languages = new TrigramIndex();
+
+    private final TrigramIndex publishers = new TrigramIndex();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        ready = false;
+        titles.clear();
+        languages.clear();
+        publishers.clear();
+        try (Stream<BookTextView> books = bookRepository.streamTextViews()) {
+            books.forEach(book -> put(book.getId(), book.getTitle(), book.getLanguage(), book.getPublisher()));
+        }
+        titles.optimize();
+        languages.optimize();
+        publishers.optimize();
+        ready = true;
+        log.info("Book search index built with {} titles", titles.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            titles.remove(event.getId());
+            languages.remove(event.getId());
+            publishers.remove(event.getId());
+        } else if (event.getType() == BookChangedEvent.Type.PATCHED) {
+            Book book = event.getBook();
+            if (event.getFields().contains("title")) titles.put(book.getId(), book.getTitle());
+            if (event.getFields().contains("language")) languages.put(book.getId(), book.getLanguage());
+            if (event.getFields().contains("publisher")) publishers.put(book.getId(), book.getPublisher());
+        } else {
+            Book book = event.getBook();
+            put(book.getId(), book.getTitle(), book.getLanguage(), book.getPublisher());
+        }
+    }
+
+    public Optional<Set<Long>> findByTitle(String text) {
+        return search(titles, text);
+    }
+
+    public Optional<Set<Long>> findByLanguage(String text) {
+        return search(languages, text);
+    }
+
+    public Optional<Set<Long>> findByPublisher(String text) {
+        return search(publishers, text);
+    }
+
+    private Optional<Set<Long>> search(TrigramIndex index, String text) {
+        if (!ready || !TrigramIndex.supports(text)) return Optional.empty();
+        return Optional.of(index.search(text));
+    }
+
+    private void put(Long id, String title, String language, String publisher) {
+        titles.put(id, title);
+        languages.put(id, language);
+        publishers.put(id, publisher);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.dto.FacetCount;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class FacetResult {
+
+    private final RoaringBitmap matches;
+
+    @Getter
+    private final Map<String, List<FacetCount>> facets;
+
+    public long getTotal() {
+        return matches.getLongCardinality();
+    }
+
+    public List<Long> page(long offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        if (offset >= getTotal()) return ids;
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded(matches.select((int) offset));
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(BitmapIndex.id(iterator.next()));
+        }
+        return ids;
+    }
+
+    public Set<Long> ids() {
+        Set<Long> ids = new HashSet<>();
+        matches.forEach((int key) -> ids.add(BitmapIndex.id(key)));
+        return ids;
+    }
+}
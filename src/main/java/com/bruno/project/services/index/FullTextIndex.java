@@ -0,0 +1,370 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.dto.SearchHitDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.uhighlight.DefaultPassageFormatter;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.Directory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class FullTextIndex implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "catalog.full.text";
+
+    public static final int MAX_WINDOW = 1000;
+
+    public static final int BATCH_SIZE = 500;
+
+    static final String KEY = "key";
+    static final String TYPE = "type";
+    static final String ID = "id";
+    static final String GENERATION = "generation";
+    static final String TITLE = "title";
+    static final String NAME = "name";
+    static final String AUTHORS = "authors";
+    static final String SYNOPSIS = "synopsis";
+    static final String BIOGRAPHY = "biography";
+
+    private static final Map<String, Float> WEIGHTS = Map.of(TITLE, 3f, NAME, 3f, AUTHORS, 2f, SYNOPSIS, 1f,
+            BIOGRAPHY, 1f);
+
+    private static final String[] HIGHLIGHTED = {TITLE, NAME, AUTHORS, SYNOPSIS, BIOGRAPHY};
+
+    private static final int[] PASSAGES = {1, 1, 1, 2, 2};
+
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Change {
+
+        private final CatalogType type;
+        private final Long id;
+        private final long since;
+    }
+
+    private final BookRepository bookRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final FullTextIndexProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    private final Map<String, Change> pending = new ConcurrentHashMap<>();
+
+    private final ReentrantLock indexing = new ReentrantLock();
+
+    private volatile long generation;
+
+    private volatile boolean ready;
+
+    public FullTextIndex(BookRepository bookRepository, AuthorRepository authorRepository,
+                         FullTextIndexProperties properties, PlatformTransactionManager transactionManager,
+                         Directory fullTextDirectory) throws IOException {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = new IndexWriter(fullTextDirectory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (properties.isRebuildOnStartup() || writer.getDocStats().numDocs == 0) rebuild();
+        ready = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        enqueue(CatalogType.BOOK, event.getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        enqueue(CatalogType.AUTHOR, event.getId());
+    }
+
+    @Scheduled(fixedDelayString = "${app.full-text.refresh-interval:PT1S}",
+            initialDelayString = "${app.full-text.refresh-interval:PT1S}")
+    public void applyPendingChanges() {
+        if (pending.isEmpty()) return;
+        indexing.lock();
+        try {
+            List<Map.Entry<String, Change>> changes = new ArrayList<>(pending.entrySet());
+            for (int from = 0; from < changes.size(); from += BATCH_SIZE) {
+                List<Map.Entry<String, Change>> batch = changes.subList(from,
+                        Math.min(changes.size(), from + BATCH_SIZE));
+                Set<Long> bookIds = new HashSet<>();
+                Set<Long> authorIds = new HashSet<>();
+                batch.forEach(change -> (change.getValue().type == CatalogType.BOOK ? bookIds : authorIds)
+                        .add(change.getValue().id));
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!authorIds.isEmpty()) bookIds.addAll(bookRepository.findIdsByAuthorIdIn(authorIds));
+                    index(bookIds, authorIds);
+                });
+                batch.forEach(change -> pending.remove(change.getKey(), change.getValue()));
+            }
+            commit();
+        } finally {
+            indexing.unlock();
+        }
+    }
+
+    public int rebuild() {
+        indexing.lock();
+        try {
+            long started = System.nanoTime();
+            long next = Math.max(generation + 1, System.currentTimeMillis());
+            generation = next;
+            List<Long> bookIds = transactionTemplate.execute(status -> collect(bookRepository.streamIds()));
+            List<Long> authorIds = transactionTemplate.execute(status -> collect(authorRepository.streamIds()));
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getRebuildThreads()));
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int from = 0; from < bookIds.size(); from += BATCH_SIZE) {
+                    List<Long> batch = bookIds.subList(from, Math.min(bookIds.size(), from + BATCH_SIZE));
+                    tasks.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                            status -> index(batch, List.of()))));
+                }
+                for (int from = 0; from < authorIds.size(); from += BATCH_SIZE) {
+                    List<Long> batch = authorIds.subList(from, Math.min(authorIds.size(), from + BATCH_SIZE));
+                    tasks.add(executor.submit(() -> transactionTemplate.executeWithoutResult(
+                            status -> index(List.of(), batch))));
+                }
+                for (Future<?> task : tasks) task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("The full-text rebuild was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("The full-text rebuild failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, next - 1));
+            commit();
+            int documents = bookIds.size() + authorIds.size();
+            log.info("Full-text index rebuilt with {} documents in {} ms", documents,
+                    (System.nanoTime() - started) / 1_000_000);
+            return documents;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            indexing.unlock();
+        }
+    }
+
+    public Optional<PageEnvelope<SearchHitDTO>> search(String text, CatalogType type, Pageable pageable) {
+        if (!ready) return Optional.empty();
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query parsed = parser.parse(text);
+        BooleanQuery.Builder builder = new BooleanQuery.Builder()
+                .add(parsed == null ? new MatchNoDocsQuery() : parsed, BooleanClause.Occur.MUST);
+        if (type != null) builder.add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.FILTER);
+        Query query = builder.build();
+        int offset = (int) Math.min(pageable.getOffset(), MAX_WINDOW);
+        int end = Math.min(offset + pageable.getPageSize(), MAX_WINDOW);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopScoreDocCollector collector = TopScoreDocCollector.create(Math.max(1, end), Integer.MAX_VALUE);
+                searcher.search(query, collector);
+                TopDocs page = collector.topDocs(offset, end - offset);
+                UnifiedHighlighter highlighter = new UnifiedHighlighter(searcher, analyzer);
+                highlighter.setFormatter(new DefaultPassageFormatter("<em>", "</em>", "... ", true));
+                highlighter.setMaxNoHighlightPassages(0);
+                Map<String, String[]> highlights = highlighter.highlightFields(HIGHLIGHTED, query, page, PASSAGES);
+                List<SearchHitDTO> hits = new ArrayList<>();
+                for (int i = 0; i < page.scoreDocs.length; i++) {
+                    hits.add(hit(searcher, page.scoreDocs[i], highlights, i));
+                }
+                return Optional.of(PageEnvelope.of(hits, pageable, collector.getTotalHits()));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int documents() {
+        return writer.getDocStats().numDocs;
+    }
+
+    public int pendingChanges() {
+        return pending.size();
+    }
+
+    public double lagSeconds() {
+        long now = System.currentTimeMillis();
+        return pending.values().stream().mapToLong(change -> now - change.since).max().orElse(0) / 1000.0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".lag", this, FullTextIndex::lagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".pending", this, FullTextIndex::pendingChanges)
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".documents", this, FullTextIndex::documents)
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    private void enqueue(CatalogType type, Long id) {
+        pending.merge(key(type, id), new Change(type, id, System.currentTimeMillis()),
+                (current, next) -> new Change(type, id, current.since));
+    }
+
+    private void index(Collection<Long> bookIds, Collection<Long> authorIds) {
+        try {
+            Set<Long> missingBooks = new HashSet<>(bookIds);
+            if (!bookIds.isEmpty()) {
+                for (Book book : bookRepository.findUncachedWithAuthorsByIdIn(bookIds)) {
+                    missingBooks.remove(book.getId());
+                    writer.updateDocument(new Term(KEY, key(CatalogType.BOOK, book.getId())), document(book));
+                }
+            }
+            for (Long id : missingBooks) writer.deleteDocuments(new Term(KEY, key(CatalogType.BOOK, id)));
+            Set<Long> missingAuthors = new HashSet<>(authorIds);
+            if (!authorIds.isEmpty()) {
+                for (Author author : authorRepository.findUncachedByIdIn(authorIds)) {
+                    missingAuthors.remove(author.getId());
+                    writer.updateDocument(new Term(KEY, key(CatalogType.AUTHOR, author.getId())), document(author));
+                }
+            }
+            for (Long id : missingAuthors) writer.deleteDocuments(new Term(KEY, key(CatalogType.AUTHOR, id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Document document(Book book) {
+        Document document = document(CatalogType.BOOK, book.getId());
+        add(document, TITLE, book.getTitle());
+        add(document, SYNOPSIS, book.getSynopsis());
+        book.getAuthors().forEach(author -> add(document, AUTHORS, author.getName()));
+        return document;
+    }
+
+    private Document document(Author author) {
+        Document document = document(CatalogType.AUTHOR, author.getId());
+        add(document, NAME, author.getName());
+        add(document, BIOGRAPHY, author.getBiography());
+        return document;
+    }
+
+    private Document document(CatalogType type, Long id) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(type, id), Field.Store.NO));
+        document.add(new StringField(TYPE, type.name(), Field.Store.YES));
+        document.add(new StoredField(ID, id));
+        document.add(new LongPoint(GENERATION, generation));
+        return document;
+    }
+
+    private SearchHitDTO hit(IndexSearcher searcher, ScoreDoc scoreDoc, Map<String, String[]> highlights, int index)
+            throws IOException {
+        Document document = searcher.doc(scoreDoc.doc, Set.of(TYPE, ID, TITLE, NAME));
+        CatalogType type = CatalogType.valueOf(document.get(TYPE));
+        Map<String, List<String>> fragments = new LinkedHashMap<>();
+        for (String field : HIGHLIGHTED) {
+            String fragment = highlights.get(field)[index];
+            if (fragment != null) fragments.put(field, List.of(fragment.split("\\.\\.\\. ")));
+        }
+        return new SearchHitDTO(type, document.getField(ID).numericValue().longValue(),
+                document.get(type == CatalogType.BOOK ? TITLE : NAME), scoreDoc.score, fragments);
+    }
+
+    private static void add(Document document, String field, String value) {
+        if (value != null) document.add(new TextField(field, value, Field.Store.YES));
+    }
+
+    private static List<Long> collect(Stream<Long> ids) {
+        try (ids) {
+            return ids.collect(Collectors.toList());
+        }
+    }
+
+    private static String key(CatalogType type, Long id) {
+        return type.name() + ':' + id;
+    }
+}
@@ -0,0 +1,37 @@
+package com.bruno.project.services.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@Endpoint(id = "fulltext")
+@RequiredArgsConstructor
+public class FullTextIndexEndpoint {
+
+    private final FullTextIndex fullTextIndex;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("documents", fullTextIndex.documents());
+        status.put("pending", fullTextIndex.pendingChanges());
+        status.put("lagSeconds", fullTextIndex.lagSeconds());
+        return status;
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild() {
+        long started = System.nanoTime();
+        int documents = fullTextIndex.rebuild();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("documents", documents);
+        result.put("millis", (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+}
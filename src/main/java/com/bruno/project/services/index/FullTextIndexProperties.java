@@ -0,0 +1,17 @@
+package com.bruno.project.services.index;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.full-text")
+public class FullTextIndexProperties {
+
+    private String directory;
+
+    private int rebuildThreads = Runtime.getRuntime().availableProcessors();
+
+    private boolean rebuildOnStartup;
+}
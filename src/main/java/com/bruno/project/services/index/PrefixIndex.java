@@ -0,0 +1,349 @@
+package com.bruno.project.services.index;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.*;
+
+public class PrefixIndex {
+
+    public static final int MIN_PENDING_CHANGES = 1024;
+
+    public static final int MAX_PENDING_CHANGES = 16_384;
+
+    private static final int RADIX_BITS = 16;
+
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private static final Comparator<Entry> ORDER = Comparator.<Entry, String>comparing(Entry::getText,
+            PrefixIndex::compare).thenComparingLong(Entry::getKey);
+
+    private static final Comparator<Entry> RANK = Comparator.comparingInt(Entry::getWeight).reversed()
+            .thenComparing(ORDER);
+
+    @Getter
+    @ToString
+    @EqualsAndHashCode
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static final class Entry {
+
+        private final long key;
+        private final String text;
+        private int weight;
+    }
+
+    private char[] text = new char[0];
+
+    private int[] offsets = {0};
+
+    private long[] keys = new long[0];
+
+    private int[] weights = new int[0];
+
+    private int[] tree = new int[0];
+
+    private long[] sortedKeys = new long[0];
+
+    private int[] positions = new int[0];
+
+    private int removed;
+
+    private int appended;
+
+    private final TreeMap<String, Entry> delta = new TreeMap<>();
+
+    private final Map<Long, String> deltaKeys = new HashMap<>();
+
+    public static PrefixIndex of(List<Entry> entries) {
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.parallelSort(sorted, ORDER);
+        PrefixIndex index = new PrefixIndex();
+        index.allocate(sorted.length, Arrays.stream(sorted).mapToInt(entry -> entry.text.length()).sum());
+        for (Entry entry : sorted) index.append(entry);
+        index.finish();
+        return index;
+    }
+
+    public static Entry entry(long key, String text, int weight) {
+        if (key < 0 || text == null || weight < 0) {
+            throw new IllegalArgumentException("Invalid prefix index entry " + key + " '" + text + "' " + weight);
+        }
+        return new Entry(key, text, weight);
+    }
+
+    public static String normalize(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) chars[i] = Character.toLowerCase(chars[i]);
+        return new String(chars);
+    }
+
+    public void put(long key, String text, int weight) {
+        Optional<Entry> current = get(key);
+        if (current.isPresent() && current.get().text.equals(text)) return;
+        remove(key);
+        if (text == null) return;
+        Entry entry = entry(key, text, current.map(Entry::getWeight).orElse(weight));
+        String deltaKey = normalize(text) + '\u0000' + key;
+        delta.put(deltaKey, entry);
+        deltaKeys.put(key, deltaKey);
+    }
+
+    public void remove(long key) {
+        String deltaKey = deltaKeys.remove(key);
+        if (deltaKey != null) {
+            delta.remove(deltaKey);
+            return;
+        }
+        int position = position(key);
+        if (position < 0) return;
+        weights[position] = -1;
+        update(position);
+        removed++;
+    }
+
+    public void increment(long key, int amount) {
+        String deltaKey = deltaKeys.get(key);
+        if (deltaKey != null) {
+            Entry entry = delta.get(deltaKey);
+            entry.weight = add(entry.weight, amount);
+            return;
+        }
+        int position = position(key);
+        if (position < 0) return;
+        weights[position] = add(weights[position], amount);
+        update(position);
+    }
+
+    public Optional<Entry> get(long key) {
+        String deltaKey = deltaKeys.get(key);
+        if (deltaKey != null) return Optional.of(delta.get(deltaKey));
+        int position = position(key);
+        return position < 0 ? Optional.empty() : Optional.of(entryAt(position));
+    }
+
+    public List<Entry> top(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        List<Entry> matches = new ArrayList<>(limit * 2);
+        int from = bound(normalized, false);
+        int to = bound(normalized, true);
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(Comparator.<int[]>comparingInt(range -> -weights[range[0]])
+                .thenComparingInt(range -> range[0]));
+        offer(ranges, from, to);
+        while (!ranges.isEmpty() && matches.size() < limit) {
+            int[] range = ranges.poll();
+            matches.add(entryAt(range[0]));
+            offer(ranges, range[1], range[0]);
+            offer(ranges, range[0] + 1, range[2]);
+        }
+        PriorityQueue<Entry> pending = new PriorityQueue<>(RANK.reversed());
+        for (Entry entry : delta.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            pending.add(entry);
+            if (pending.size() > limit) pending.poll();
+        }
+        for (Entry entry : pending) matches.add(new Entry(entry.key, entry.text, entry.weight));
+        matches.sort(RANK);
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    public int size() {
+        return keys.length - removed + delta.size();
+    }
+
+    public int pendingChanges() {
+        return removed + delta.size();
+    }
+
+    public long sizeInBytes() {
+        long arrays = 2L * text.length + 4L * offsets.length + 8L * keys.length + 4L * weights.length
+                + 4L * tree.length + 8L * sortedKeys.length + 4L * positions.length;
+        long pending = delta.values().stream().mapToLong(entry -> 160 + 6L * entry.text.length()).sum();
+        return arrays + pending;
+    }
+
+    public boolean needsMerge() {
+        return pendingChanges() > Math.max(MIN_PENDING_CHANGES, Math.min(MAX_PENDING_CHANGES, keys.length / 16));
+    }
+
+    public PrefixIndex merged() {
+        int length = delta.values().stream().mapToInt(entry -> entry.text.length()).sum();
+        for (int i = 0; i < keys.length; i++) {
+            if (weights[i] >= 0) length += offsets[i + 1] - offsets[i];
+        }
+        PrefixIndex merged = new PrefixIndex();
+        merged.allocate(size(), length);
+        Iterator<Entry> pending = delta.values().iterator();
+        Entry next = pending.hasNext() ? pending.next() : null;
+        for (int i = 0; i < keys.length; i++) {
+            if (weights[i] < 0) continue;
+            while (next != null && compareAt(i, next.text) > 0) {
+                merged.append(next);
+                next = pending.hasNext() ? pending.next() : null;
+            }
+            merged.append(keys[i], text, offsets[i], offsets[i + 1] - offsets[i], weights[i]);
+        }
+        while (next != null) {
+            merged.append(next);
+            next = pending.hasNext() ? pending.next() : null;
+        }
+        merged.finish();
+        return merged;
+    }
+
+    private void allocate(int size, int length) {
+        text = new char[length];
+        offsets = new int[size + 1];
+        keys = new long[size];
+        weights = new int[size];
+        appended = 0;
+    }
+
+    private void append(Entry entry) {
+        int position = appended++;
+        entry.text.getChars(0, entry.text.length(), text, offsets[position]);
+        offsets[position + 1] = offsets[position] + entry.text.length();
+        keys[position] = entry.key;
+        weights[position] = entry.weight;
+    }
+
+    private void append(long key, char[] source, int from, int count, int weight) {
+        int position = appended++;
+        System.arraycopy(source, from, text, offsets[position], count);
+        offsets[position + 1] = offsets[position] + count;
+        keys[position] = key;
+        weights[position] = weight;
+    }
+
+    private void finish() {
+        int size = keys.length;
+        tree = new int[2 * size];
+        for (int i = 0; i < size; i++) tree[size + i] = i;
+        for (int node = size - 1; node > 0; node--) tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        sortedKeys = keys.clone();
+        positions = new int[size];
+        for (int i = 0; i < size; i++) positions[i] = i;
+        sortByKey(sortedKeys, positions);
+        for (int i = 1; i < size; i++) {
+            if (sortedKeys[i] == sortedKeys[i - 1]) {
+                throw new IllegalArgumentException("Duplicate prefix index key " + sortedKeys[i]);
+            }
+        }
+    }
+
+    private static void sortByKey(long[] keys, int[] positions) {
+        long max = 0;
+        for (long key : keys) max = Math.max(max, key);
+        long[] keyBuffer = new long[keys.length];
+        int[] positionBuffer = new int[positions.length];
+        int[] counts = new int[RADIX + 1];
+        for (int shift = 0; shift < Long.SIZE && max >>> shift != 0; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (long key : keys) counts[(int) (key >>> shift & RADIX - 1) + 1]++;
+            for (int i = 0; i < RADIX; i++) counts[i + 1] += counts[i];
+            for (int i = 0; i < keys.length; i++) {
+                int slot = counts[(int) (keys[i] >>> shift & RADIX - 1)]++;
+                keyBuffer[slot] = keys[i];
+                positionBuffer[slot] = positions[i];
+            }
+            System.arraycopy(keyBuffer, 0, keys, 0, keys.length);
+            System.arraycopy(positionBuffer, 0, positions, 0, positions.length);
+        }
+    }
+
+    private int nextLive(int position) {
+        while (position < keys.length && weights[position] < 0) position++;
+        return position;
+    }
+
+    private void offer(PriorityQueue<int[]> ranges, int from, int to) {
+        int best = best(from, to);
+        if (best >= 0) ranges.add(new int[]{best, from, to});
+    }
+
+    private int best(int from, int to) {
+        int size = keys.length;
+        int best = -1;
+        for (int left = from + size, right = to + size; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) best = better(best, tree[left++]);
+            if ((right & 1) == 1) best = better(best, tree[--right]);
+        }
+        return best;
+    }
+
+    private int better(int first, int second) {
+        boolean hasFirst = first >= 0 && weights[first] >= 0;
+        boolean hasSecond = second >= 0 && weights[second] >= 0;
+        if (!hasFirst) return hasSecond ? second : -1;
+        if (!hasSecond) return first;
+        if (weights[first] != weights[second]) return weights[first] > weights[second] ? first : second;
+        return Math.min(first, second);
+    }
+
+    private void update(int position) {
+        for (int node = (position + keys.length) >> 1; node > 0; node >>= 1) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private int position(long key) {
+        int slot = Arrays.binarySearch(sortedKeys, key);
+        if (slot < 0) return -1;
+        int position = positions[slot];
+        return weights[position] < 0 ? -1 : position;
+    }
+
+    private int bound(String prefix, boolean upper) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = comparePrefix(middle, prefix);
+            if (comparison < 0 || (upper && comparison == 0)) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private int comparePrefix(int position, String prefix) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        for (int i = 0; i < prefix.length(); i++) {
+            if (i == length) return -1;
+            int comparison = Character.toLowerCase(text[start + i]) - prefix.charAt(i);
+            if (comparison != 0) return comparison;
+        }
+        return 0;
+    }
+
+    private int compareAt(int position, String other) {
+        int start = offsets[position];
+        int length = offsets[position + 1] - start;
+        for (int i = 0; i < Math.min(length, other.length()); i++) {
+            int comparison = Character.toLowerCase(text[start + i]) - Character.toLowerCase(other.charAt(i));
+            if (comparison != 0) return comparison;
+        }
+        return length - other.length();
+    }
+
+    private Entry entryAt(int position) {
+        return new Entry(keys[position], new String(text, offsets[position], offsets[position + 1] - offsets[position]),
+                weights[position]);
+    }
+
+    private static int compare(String first, String second) {
+        for (int i = 0; i < Math.min(first.length(), second.length()); i++) {
+            char left = first.charAt(i);
+            char right = second.charAt(i);
+            if (left == right) continue;
+            int comparison = Character.toLowerCase(left) - Character.toLowerCase(right);
+            if (comparison != 0) return comparison;
+        }
+        return first.length() - second.length();
+    }
+
+    private static int add(int weight, int amount) {
+        return (int) Math.max(0, Math.min(Integer.MAX_VALUE, (long) weight + amount));
+    }
+}
@@ -0,0 +1,194 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.dto.SuggestionDTO;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.repositories.projections.AuthorSuggestionView;
+import com.bruno.project.repositories.projections.BookTextView;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SuggestIndex implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "catalog.suggest.index";
+
+    public static final int BOOK_WEIGHT = 1;
+
+    private static final CatalogType[] TYPES = CatalogType.values();
+
+    private final BookRepository bookRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final Map<Long, Integer> pendingHits = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Object writes = new Object();
+
+    private volatile PrefixIndex index = new PrefixIndex();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<PrefixIndex.Entry> entries = new ArrayList<>();
+        try (Stream<BookTextView> books = bookRepository.streamTextViews()) {
+            books.filter(book -> book.getTitle() != null).forEach(book -> entries.add(
+                    PrefixIndex.entry(key(CatalogType.BOOK, book.getId()), book.getTitle().strip(), BOOK_WEIGHT)));
+        }
+        try (Stream<AuthorSuggestionView> authors = authorRepository.streamSuggestionViews()) {
+            authors.filter(author -> author.getName() != null).forEach(author -> entries.add(
+                    PrefixIndex.entry(key(CatalogType.AUTHOR, author.getId()), author.getName().strip(),
+                            (int) Math.min(Integer.MAX_VALUE, author.getBooks()))));
+        }
+        PrefixIndex built = PrefixIndex.of(entries);
+        synchronized (writes) {
+            swap(built);
+            ready = true;
+        }
+        log.info("Suggest index built with {} entries in {} bytes", built.size(), built.sizeInBytes());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getType() == BookChangedEvent.Type.DELETED) {
+            remove(CatalogType.BOOK, event.getId());
+        } else if (event.getType() == BookChangedEvent.Type.SAVED || event.getFields().contains("title")) {
+            put(CatalogType.BOOK, event.getId(), event.getBook().getTitle(), BOOK_WEIGHT);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        if (event.getType() == AuthorChangedEvent.Type.DELETED) {
+            remove(CatalogType.AUTHOR, event.getId());
+        } else if (event.getType() == AuthorChangedEvent.Type.SAVED || event.getFields().contains("name")) {
+            put(CatalogType.AUTHOR, event.getId(), event.getAuthor().getName(), 0);
+        }
+    }
+
+    public void recordHit(CatalogType type, Long id) {
+        pendingHits.merge(key(type, id), 1, Integer::sum);
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.hit-flush-interval:PT10S}",
+            initialDelayString = "${app.suggest.hit-flush-interval:PT10S}")
+    public void flushHits() {
+        if (pendingHits.isEmpty()) return;
+        synchronized (writes) {
+            lock.writeLock().lock();
+            try {
+                Iterator<Long> keys = pendingHits.keySet().iterator();
+                while (keys.hasNext()) {
+                    Long key = keys.next();
+                    Integer hits = pendingHits.remove(key);
+                    if (hits != null) index.increment(key, hits);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public Optional<List<SuggestionDTO>> suggest(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            if (!ready) return Optional.empty();
+            return Optional.of(index.top(prefix, limit).stream()
+                    .map(entry -> new SuggestionDTO(entry.getText(), type(entry.getKey()), id(entry.getKey())))
+                    .collect(Collectors.toList()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long sizeInBytes() {
+        return index.sizeInBytes();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".entries", this, SuggestIndex::size)
+                .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, SuggestIndex::sizeInBytes)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void put(CatalogType type, Long id, String text, int weight) {
+        synchronized (writes) {
+            lock.writeLock().lock();
+            try {
+                index.put(key(type, id), text == null ? null : text.strip(), weight);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            mergeIfNeeded();
+        }
+    }
+
+    private void remove(CatalogType type, Long id) {
+        synchronized (writes) {
+            lock.writeLock().lock();
+            try {
+                index.remove(key(type, id));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            mergeIfNeeded();
+        }
+    }
+
+    private void mergeIfNeeded() {
+        if (index.needsMerge()) swap(index.merged());
+    }
+
+    private void swap(PrefixIndex next) {
+        lock.writeLock().lock();
+        try {
+            index = next;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long key(CatalogType type, Long id) {
+        return id << 1 | type.ordinal();
+    }
+
+    private static CatalogType type(long key) {
+        return TYPES[(int) (key & 1)];
+    }
+
+    private static Long id(long key) {
+        return key >>> 1;
+    }
+}
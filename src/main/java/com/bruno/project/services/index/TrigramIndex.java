@@ -0,0 +1,151 @@
+package com.bruno.project.services.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class TrigramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final int PAGE_BITS = 12;
+
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final Map<Long, RoaringBitmap> postings = new HashMap<>();
+
+    private final RoaringBitmap keys = new RoaringBitmap();
+
+    private String[][] values = new String[0][];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public static boolean supports(String text) {
+        return text != null && normalize(text).length() >= GRAM_LENGTH;
+    }
+
+    public void put(Long id, String value) {
+        int key = BitmapIndex.key(id);
+        lock.writeLock().lock();
+        try {
+            unset(key);
+            if (value == null) return;
+            String normalized = normalize(value);
+            setValue(key, normalized);
+            keys.add(key);
+            for (Long gram : grams(normalized)) {
+                postings.computeIfAbsent(gram, g -> new RoaringBitmap()).add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        int key = BitmapIndex.key(id);
+        lock.writeLock().lock();
+        try {
+            unset(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            keys.clear();
+            values = new String[0][];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(RoaringBitmap::runOptimize);
+            keys.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return keys.getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> search(String text) {
+        String normalized = normalize(text);
+        Set<Long> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> candidates = new ArrayList<>();
+            for (Long gram : grams(normalized)) {
+                RoaringBitmap bitmap = postings.get(gram);
+                if (bitmap == null) return Collections.emptySet();
+                candidates.add(bitmap);
+            }
+            RoaringBitmap scanned = candidates.isEmpty() ? keys : FastAggregation.and(candidates.iterator());
+            scanned.forEach((int key) -> {
+                if (value(key).contains(normalized)) result.add(BitmapIndex.id(key));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void unset(int key) {
+        String normalized = value(key);
+        if (normalized == null) return;
+        setValue(key, null);
+        keys.remove(key);
+        for (Long gram : grams(normalized)) {
+            RoaringBitmap bitmap = postings.get(gram);
+            bitmap.remove(key);
+            if (bitmap.isEmpty()) postings.remove(gram);
+        }
+    }
+
+    private String value(int key) {
+        int page = key >>> PAGE_BITS;
+        return page < values.length && values[page] != null ? values[page][key & PAGE_MASK] : null;
+    }
+
+    private void setValue(int key, String value) {
+        int page = key >>> PAGE_BITS;
+        if (page >= values.length) {
+            if (value == null) return;
+            values = Arrays.copyOf(values, Math.max(page + 1, values.length * 2));
+        }
+        if (values[page] == null) {
+            if (value == null) return;
+            values[page] = new String[PAGE_MASK + 1];
+        }
+        values[page][key & PAGE_MASK] = value;
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<Long> grams(String normalized) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2));
+        }
+        return grams;
+    }
+}
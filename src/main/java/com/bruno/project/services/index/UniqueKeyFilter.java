@@ -0,0 +1,176 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.entities.Author;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class UniqueKeyFilter implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "catalog.unique.filter";
+
+    public enum Key {
+        ISBN,
+        EMAIL
+    }
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final long MIN_EXPECTED_INSERTIONS = 10_000;
+
+    private final BookRepository bookRepository;
+
+    private final AuthorRepository authorRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Key, Entry> entries = new EnumMap<>(Map.of(Key.ISBN, new Entry(), Key.EMAIL, new Entry()));
+
+    public UniqueKeyFilter(BookRepository bookRepository, AuthorRepository authorRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.unique-key-filter.rebuild-interval:PT1H}",
+            initialDelayString = "${app.unique-key-filter.rebuild-interval:PT1H}")
+    public void rebuild() {
+        rebuild(Key.ISBN, bookRepository::count, bookRepository::streamIsbns);
+        rebuild(Key.EMAIL, authorRepository::count, authorRepository::streamEmails);
+    }
+
+    public boolean mightExist(Key key, String value) {
+        Entry entry = entries.get(key);
+        BloomFilter filter = entry.current;
+        if (value == null || filter == null || filter.mightContain(normalize(key, value))) {
+            entry.checked.increment();
+            return true;
+        }
+        entry.skipped.increment();
+        return false;
+    }
+
+    public void add(Key key, String value) {
+        if (value == null) return;
+        Entry entry = entries.get(key);
+        String normalized = normalize(key, value);
+        entry.add(normalized);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entry.add(normalized);
+                }
+            });
+        }
+    }
+
+    public void recordFalsePositive(Key key) {
+        entries.get(key).falsePositives.increment();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        entries.forEach((key, entry) -> {
+            String tag = key.name().toLowerCase(Locale.ROOT);
+            Gauge.builder(METRIC_PREFIX + ".size", entry, e -> e.current == null ? 0 : e.current.bitSize())
+                    .tag("key", tag)
+                    .baseUnit("bits")
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + ".expected.false.positive.rate", entry,
+                    e -> e.current == null ? Double.NaN : e.current.expectedFalsePositiveRate())
+                    .tag("key", tag)
+                    .register(registry);
+            Gauge.builder(METRIC_PREFIX + ".false.positive.rate", entry, Entry::observedFalsePositiveRate)
+                    .tag("key", tag)
+                    .register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".lookups", entry.skipped, LongAdder::sum)
+                    .tags("key", tag, "result", "skipped")
+                    .register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".lookups", entry.checked, LongAdder::sum)
+                    .tags("key", tag, "result", "checked")
+                    .register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".false.positives", entry.falsePositives, LongAdder::sum)
+                    .tag("key", tag)
+                    .register(registry);
+        });
+    }
+
+    private void rebuild(Key key, Supplier<Long> count, Supplier<Stream<String>> values) {
+        Entry entry = entries.get(key);
+        synchronized (entry) {
+            entry.pending = new HashSet<>();
+        }
+        BloomFilter next;
+        try {
+            next = transactionTemplate.execute(status -> {
+                BloomFilter filter = BloomFilter.create(Math.max(MIN_EXPECTED_INSERTIONS, count.get() * 2),
+                        FALSE_POSITIVE_RATE);
+                try (Stream<String> stream = values.get()) {
+                    stream.forEach(value -> filter.put(normalize(key, value)));
+                }
+                return filter;
+            });
+        } catch (RuntimeException e) {
+            synchronized (entry) {
+                entry.pending = null;
+            }
+            throw e;
+        }
+        int pending;
+        synchronized (entry) {
+            pending = entry.pending.size();
+            entry.pending.forEach(next::put);
+            entry.current = next;
+            entry.pending = null;
+        }
+        log.info("Unique {} filter rebuilt in {} bits, {} values added while it was built", key, next.bitSize(),
+                pending);
+    }
+
+    private static String normalize(Key key, String value) {
+        return key == Key.EMAIL ? Author.normalizeEmail(value) : value;
+    }
+
+    private static class Entry {
+
+        private volatile BloomFilter current;
+        private Set<String> pending;
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder checked = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+
+        synchronized void add(String value) {
+            if (current != null) current.put(value);
+            if (pending != null) pending.add(value);
+        }
+
+        double observedFalsePositiveRate() {
+            long falsePositives = this.falsePositives.sum();
+            long negatives = skipped.sum() + falsePositives;
+            return negatives == 0 ? 0 : (double) falsePositives / negatives;
+        }
+    }
+}
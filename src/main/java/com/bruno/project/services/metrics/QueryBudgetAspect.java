@@ -0,0 +1,66 @@
+package com.bruno.project.services.metrics;
+
+import com.bruno.project.services.exceptions.QueryBudgetExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+@Slf4j
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@RequiredArgsConstructor
+public class QueryBudgetAspect {
+
+    public static final String METRIC_PREFIX = "catalog.query.budget";
+
+    private final MeterRegistry registry;
+
+    private final QueryBudgetProperties properties;
+
+    @Around("@within(com.bruno.project.services.metrics.QueryBudget) || " +
+            "@annotation(com.bruno.project.services.metrics.QueryBudget)")
+    public Object enforce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> target = AopUtils.getTargetClass(joinPoint.getTarget());
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                target);
+        QueryBudget budget = AnnotatedElementUtils.findMergedAnnotation(method, QueryBudget.class);
+        if (budget == null) budget = AnnotatedElementUtils.findMergedAnnotation(target, QueryBudget.class);
+        if (budget == null) return joinPoint.proceed();
+        Object result;
+        int count;
+        Map.Entry<String, Integer> repeated;
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            result = joinPoint.proceed();
+            count = scope.getCount();
+            repeated = scope.mostRepeated().orElse(null);
+        }
+        if (count > budget.max()) exceeded(target.getSimpleName() + "." + method.getName(), budget, count, repeated);
+        return result;
+    }
+
+    private void exceeded(String endpoint, QueryBudget budget, int count, Map.Entry<String, Integer> repeated) {
+        String message = endpoint + " issued " + count + " statements, over its budget of " + budget.max()
+                + ". Most repeated (" + repeated.getValue() + "x, " + StatementCounter.hash(repeated.getKey())
+                + "): " + repeated.getKey();
+        Counter.builder(METRIC_PREFIX + ".exceeded")
+                .description("Calls that issued more SQL statements than their query budget")
+                .tag("endpoint", endpoint)
+                .tag("statement", StatementCounter.hash(repeated.getKey()))
+                .register(registry)
+                .increment();
+        if (properties.getMode() == QueryBudgetProperties.Mode.FAIL) throw new QueryBudgetExceededException(message);
+        log.warn(message);
+    }
+}
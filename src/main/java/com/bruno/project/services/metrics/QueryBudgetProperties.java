@@ -0,0 +1,20 @@
+package com.bruno.project.services.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+
+    public enum Mode {
+        LOG,
+        FAIL
+    }
+
+    private Mode mode = Mode.LOG;
+
+    private int repeatThreshold = 5;
+}
@@ -0,0 +1,65 @@
+package com.bruno.project.services.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_PREFIX = "catalog.query";
+
+    private final MeterRegistry registry;
+
+    private final QueryBudgetProperties properties;
+
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            chain.doFilter(request, response);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (pattern == null ? "UNMAPPED" : pattern);
+            DistributionSummary.builder(METRIC_PREFIX + ".statements")
+                    .description("SQL statements issued per request")
+                    .tag("endpoint", endpoint)
+                    .publishPercentileHistogram()
+                    .register(registry)
+                    .record(scope.getCount());
+            scope.mostRepeated()
+                    .filter(statement -> statement.getValue() >= properties.getRepeatThreshold())
+                    .ifPresent(statement -> repeated(endpoint, statement));
+        }
+    }
+
+    private void repeated(String endpoint, Map.Entry<String, Integer> statement) {
+        String hash = StatementCounter.hash(statement.getKey());
+        Counter.builder(METRIC_PREFIX + ".repeated")
+                .description("Requests that issued the same SQL statement at least app.query-budget.repeat-threshold "
+                        + "times, a likely N+1")
+                .tag("endpoint", endpoint)
+                .tag("statement", hash)
+                .register(registry)
+                .increment();
+        if (reported.add(endpoint + " " + hash)) {
+            log.warn("Possible N+1 in {}: the same statement ran {} times ({}): {}", endpoint, statement.getValue(),
+                    hash, statement.getKey());
+        }
+    }
+}
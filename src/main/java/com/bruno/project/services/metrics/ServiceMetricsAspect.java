@@ -0,0 +1,94 @@
+package com.bruno.project.services.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    public static final String METRIC_NAME = "catalog.service.invocations";
+
+    private final MeterRegistry registry;
+
+    private final Clock clock;
+
+    private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+    }
+
+    @Around("execution(public * com.bruno.project.services.BookService+.*(..)) || " +
+            "execution(public * com.bruno.project.services.AuthorService+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MethodTimers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            String service = AopUtils.getTargetClass(joinPoint.getTarget()).getSimpleName();
+            methodTimers = timers.computeIfAbsent(method, key -> new MethodTimers(service, key.getName()));
+        }
+        long start = clock.monotonicTime();
+        try {
+            Object result = joinPoint.proceed();
+            methodTimers.success.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers.failure(e).record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public static String outcome(Throwable error) {
+        if (error == null) return "SUCCESS";
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        return status != null && status.code().is4xxClientError() ? "CLIENT_ERROR" : "SERVER_ERROR";
+    }
+
+    private class MethodTimers {
+
+        private final String service;
+        private final String method;
+        private final Timer success;
+        private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+        MethodTimers(String service, String method) {
+            this.service = service;
+            this.method = method;
+            this.success = timer(null);
+        }
+
+        Timer failure(Throwable error) {
+            return failures.computeIfAbsent(error.getClass(), key -> timer(error));
+        }
+
+        private Timer timer(Throwable error) {
+            return Timer.builder(METRIC_NAME)
+                    .description("Time spent in service methods")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("outcome", outcome(error))
+                    .tag("exception", error == null ? "none" : error.getClass().getSimpleName())
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.bruno.project.services.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+public class StatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+
+    private static final Pattern IN_LIST = Pattern.compile("\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static Scope open() {
+        Scope scope = new Scope();
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) return sql;
+        String fingerprint = fingerprint(sql);
+        for (Scope scope : scopes) scope.record(fingerprint);
+        return sql;
+    }
+
+    public static String fingerprint(String sql) {
+        String fingerprint = WHITESPACE.matcher(sql.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+        fingerprint = STRING_LITERAL.matcher(fingerprint).replaceAll("?");
+        fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+        return IN_LIST.matcher(fingerprint).replaceAll("in (?)");
+    }
+
+    public static String hash(String fingerprint) {
+        return String.format("%08x", fingerprint.hashCode());
+    }
+
+    public static class Scope implements AutoCloseable {
+
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+
+        private int count;
+
+        private Scope() {
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public Map<String, Integer> getStatements() {
+            return statements;
+        }
+
+        public Optional<Map.Entry<String, Integer>> mostRepeated() {
+            return statements.entrySet().stream().max(Map.Entry.comparingByValue());
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) SCOPES.remove();
+        }
+
+        private void record(String fingerprint) {
+            count++;
+            statements.merge(fingerprint, 1, Integer::sum);
+        }
+    }
+}
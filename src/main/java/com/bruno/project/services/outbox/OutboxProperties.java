@@ -0,0 +1,17 @@
+package com.bruno.project.services.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    private int batchSize = 200;
+
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,122 @@
+package com.bruno.project.services.outbox;
+
+import com.bruno.project.entities.OutboxEvent;
+import com.bruno.project.repositories.OutboxEventRepository;
+import com.bruno.project.services.events.CatalogChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class OutboxRelay implements MeterBinder {
+
+    public static final String METRIC_PREFIX = "catalog.outbox";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectProvider<OutboxSink> sinks;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final OutboxProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantLock relaying = new ReentrantLock();
+
+    private final AtomicLong relayed = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private volatile Instant oldestPending;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, ObjectProvider<OutboxSink> sinks,
+                       ApplicationEventPublisher eventPublisher, OutboxProperties properties,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = sinks;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval:PT1S}")
+    public int relay() {
+        if (!relaying.tryLock()) return 0;
+        try {
+            int total = 0;
+            int batch;
+            do {
+                batch = relayBatch();
+                total += batch;
+            } while (batch == properties.getBatchSize());
+            return total;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            log.warn("Outbox relay failed, the batch will be retried: {}", e.getMessage(), e);
+            return 0;
+        } finally {
+            relaying.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.purge-interval:PT1H}")
+    public int purge() {
+        Instant before = Instant.now().minus(properties.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(before));
+        return deleted == null ? 0 : deleted;
+    }
+
+    public double lagSeconds() {
+        Instant oldest = oldestPending;
+        return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis() / 1000.0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".lag", this, OutboxRelay::lagSeconds)
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".relayed", relayed, AtomicLong::get)
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".failures", failures, AtomicLong::get)
+                .register(registry);
+    }
+
+    private int relayBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findUnpublished(
+                    PageRequest.of(0, properties.getBatchSize()));
+            if (batch.isEmpty()) return 0;
+            oldestPending = batch.get(0).getCreatedAt();
+            List<CatalogChangedEvent> events = batch.stream()
+                    .map(CatalogChangedEvent::of)
+                    .collect(Collectors.toList());
+            sinks.orderedStream().forEach(sink -> sink.send(events));
+            events.forEach(eventPublisher::publishEvent);
+            Instant publishedAt = Instant.now();
+            batch.forEach(event -> event.setPublishedAt(publishedAt));
+            return batch.size();
+        });
+        relayed.addAndGet(count);
+        if (count < properties.getBatchSize()) oldestPending = null;
+        return count;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bruno.project.services.outbox;
+
+import com.bruno.project.services.events.CatalogChangedEvent;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface OutboxSink {
+
+    void send(List<CatalogChangedEvent> events);
+}
@@ -0,0 +1,66 @@
+package com.bruno.project.services.outbox;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.OutboxEvent;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.enums.ChangeType;
+import com.bruno.project.repositories.OutboxEventRepository;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onBookChanged(BookChangedEvent event) {
+        ChangeType changeType = ChangeType.valueOf(event.getType().name());
+        String payload = changeType == ChangeType.DELETED
+                ? null
+                : payload(BookDTO.toDTO(event.getBook()), changeType, event.getFields());
+        write(CatalogType.BOOK, event.getId(), changeType, payload);
+    }
+
+    @EventListener
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        ChangeType changeType = ChangeType.valueOf(event.getType().name());
+        String payload = changeType == ChangeType.DELETED
+                ? null
+                : payload(AuthorDTO.toDTO(event.getAuthor()), changeType, event.getFields());
+        write(CatalogType.AUTHOR, event.getId(), changeType, payload);
+    }
+
+    private String payload(Object dto, ChangeType changeType, Set<String> fields) {
+        ObjectNode node = objectMapper.valueToTree(dto);
+        if (changeType == ChangeType.PATCHED) {
+            Set<String> retained = new HashSet<>(fields);
+            retained.add("id");
+            node.retain(retained);
+        }
+        return node.toString();
+    }
+
+    private void write(CatalogType aggregateType, Long aggregateId, ChangeType changeType, String payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .changeType(changeType)
+                .payload(payload)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,63 @@
+package com.bruno.project.services.seed;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class BulkInsert {
+
+    private final String table;
+
+    private final String[] columns;
+
+    public static BulkInsert into(String table, String... columns) {
+        return new BulkInsert(table, columns);
+    }
+
+    public void write(Connection connection, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        if (connection.isWrapperFor(PGConnection.class)) copy(connection.unwrap(PGConnection.class), rows);
+        else batch(connection, rows);
+    }
+
+    private void batch(Connection connection, List<Object[]> rows) throws SQLException {
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + "?, ".repeat(columns.length - 1) + "?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) statement.setObject(i + 1, row[i]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private void copy(PGConnection connection, List<Object[]> rows) throws SQLException {
+        StringBuilder csv = new StringBuilder(rows.size() * 64 * columns.length);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) csv.append(',');
+                if (row[i] instanceof String) {
+                    csv.append('"').append(((String) row[i]).replace("\"", "\"\"")).append('"');
+                } else if (row[i] != null) {
+                    csv.append(row[i]);
+                }
+            }
+            csv.append('\n');
+        }
+        try {
+            connection.getCopyAPI().copyIn("COPY " + table + " (" + String.join(", ", columns)
+                    + ") FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+        } catch (IOException e) {
+            throw new SQLException("Could not copy rows into " + table, e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.bruno.project.services.seed;
+
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+
+import javax.persistence.SequenceGenerator;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogSeeder implements ApplicationRunner {
+
+    public static final String DEFAULT_URL_COVER = "51264896706_e66beed079_n.jpg";
+
+    public static final String DEFAULT_URL_PICTURE = "51265117593_c76eb4ccb8_n.jpg";
+
+    private static final BulkInsert AUTHORS = BulkInsert.into("tb_author", "id", "version", "name", "birth_date",
+            "email", "phone", "biography", "url_picture");
+
+    private static final BulkInsert BOOKS = BulkInsert.into("tb_book", "id", "version", "isbn", "title",
+            "print_length", "language", "publication_year", "publisher", "url_cover", "synopsis", "book_genre");
+
+    private static final BulkInsert BOOK_AUTHORS = BulkInsert.into("tb_book_author", "book_id", "author_id");
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1900, 1, 1);
+
+    private static final double AUTHOR_SKEW = 0.8;
+
+    private final DataSource dataSource;
+
+    private final SeedProperties properties;
+
+    private final ApplicationContext context;
+
+    @Getter
+    private SeedResult result;
+
+    @Override
+    public void run(ApplicationArguments args) throws SQLException, InterruptedException {
+        result = seed();
+        log.info("Seeded {} books, {} authors and {} links in {} ms ({} rows/s)", result.getBooks(),
+                result.getAuthors(), result.getLinks(), result.getMillis(), result.getRowsPerSecond());
+        if (properties.isExit()) System.exit(SpringApplication.exit(context));
+    }
+
+    public SeedResult seed() throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        long firstAuthorId = maxId("tb_author") + 1;
+        long firstBookId = maxId("tb_book") + 1;
+        int batchSize = properties.getBatchSize();
+        Distribution authorDistribution = Distribution.zipf(Math.max(1, properties.getAuthors()), AUTHOR_SKEW);
+        AtomicLong links = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()));
+        try {
+            List<Callable<Void>> authorChunks = new ArrayList<>();
+            for (long offset = 0; offset < properties.getAuthors(); offset += batchSize) {
+                long from = firstAuthorId + offset;
+                long to = Math.min(firstAuthorId + properties.getAuthors(), from + batchSize);
+                authorChunks.add(() -> write(connection -> AUTHORS.write(connection, authorRows(from, to))));
+            }
+            invokeAll(executor, authorChunks);
+            List<Callable<Void>> bookChunks = new ArrayList<>();
+            for (long offset = 0; offset < properties.getBooks(); offset += batchSize) {
+                long from = firstBookId + offset;
+                long to = Math.min(firstBookId + properties.getBooks(), from + batchSize);
+                bookChunks.add(() -> write(connection -> {
+                    List<Object[]> bookAuthors = new ArrayList<>();
+                    BOOKS.write(connection, bookRows(from, to, firstAuthorId, authorDistribution, bookAuthors));
+                    BOOK_AUTHORS.write(connection, bookAuthors);
+                    links.addAndGet(bookAuthors.size());
+                }));
+            }
+            invokeAll(executor, bookChunks);
+        } finally {
+            executor.shutdownNow();
+        }
+        restartSequence(Author.class, firstAuthorId + properties.getAuthors() - 1);
+        restartSequence(Book.class, firstBookId + properties.getBooks() - 1);
+        return new SeedResult(firstBookId, properties.getBooks(), firstAuthorId, properties.getAuthors(),
+                links.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    List<Object[]> authorRows(long from, long to) {
+        Random random = random(-from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long id = from; id < to; id++) {
+            String name = CatalogVocabulary.name(id);
+            String language = CatalogVocabulary.LANGUAGES[CatalogVocabulary.LANGUAGE.sample(random)];
+            rows.add(new Object[]{id, 0L, name, FIRST_BIRTH_DATE.plusDays(random.nextInt(36_500)),
+                    CatalogVocabulary.email(id), "+55 11 9" + (10_000_000 + id % 90_000_000),
+                    CatalogVocabulary.biography(name, language), DEFAULT_URL_PICTURE});
+        }
+        return rows;
+    }
+
+    List<Object[]> bookRows(long from, long to, long firstAuthorId, Distribution authorDistribution,
+                            List<Object[]> bookAuthors) {
+        Random random = random(from);
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        long[] authors = new long[3];
+        for (long id = from; id < to; id++) {
+            String title = CatalogVocabulary.title(random);
+            String language = CatalogVocabulary.LANGUAGES[CatalogVocabulary.LANGUAGE.sample(random)];
+            rows.add(new Object[]{id, 0L, CatalogVocabulary.isbn("978", id), title, 80 + random.nextInt(900),
+                    language, String.valueOf(2021 - (int) Math.min(120, -Math.log(1 - random.nextDouble()) * 25)),
+                    CatalogVocabulary.PUBLISHERS[CatalogVocabulary.PUBLISHER.sample(random)], DEFAULT_URL_COVER,
+                    CatalogVocabulary.synopsis(title, language, random),
+                    CatalogVocabulary.GENRES[CatalogVocabulary.GENRE.sample(random)].ordinal()});
+            if (properties.getAuthors() == 0) continue;
+            double coauthors = random.nextDouble();
+            int count = coauthors < 0.05 ? 3 : coauthors < 0.25 ? 2 : 1;
+            int added = 0;
+            for (int i = 0; i < count; i++) {
+                long author = firstAuthorId + authorDistribution.sample(random);
+                boolean repeated = false;
+                for (int j = 0; j < added; j++) repeated |= authors[j] == author;
+                if (repeated) continue;
+                authors[added++] = author;
+                bookAuthors.add(new Object[]{id, author});
+            }
+        }
+        return rows;
+    }
+
+    private Void write(ChunkWriter writer) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                writer.write(connection);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        return null;
+    }
+
+    private long maxId(String table) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private void restartSequence(Class<?> entity, long lastId) throws SQLException {
+        SequenceGenerator generator;
+        try {
+            generator = entity.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(entity.getSimpleName() + " has no id field", e);
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + generator.sequenceName() + " RESTART WITH "
+                    + (lastId + generator.allocationSize()));
+        }
+    }
+
+    private Random random(long chunk) {
+        return new Random(properties.getSeed() * 0x9E3779B97F4A7C15L + chunk);
+    }
+
+    private static void invokeAll(ExecutorService executor, List<Callable<Void>> chunks)
+            throws SQLException, InterruptedException {
+        for (Future<Void> future : executor.invokeAll(chunks)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) throw (SQLException) e.getCause();
+                throw new IllegalStateException("Could not seed the catalog", e.getCause());
+            }
+        }
+    }
+
+    private interface ChunkWriter {
+
+        void write(Connection connection) throws SQLException;
+    }
+}
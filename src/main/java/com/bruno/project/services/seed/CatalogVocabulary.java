@@ -0,0 +1,102 @@
+package com.bruno.project.services.seed;
+
+import com.bruno.project.enums.BookGenre;
+
+import java.util.Random;
+
+public final class CatalogVocabulary {
+
+    public static final String[] LANGUAGES = {"English", "Spanish", "Portuguese", "French", "German", "Italian",
+            "Japanese", "Norwegian", "Russian", "Chinese"};
+
+    public static final Distribution LANGUAGE = Distribution.of(58, 10, 8, 7, 6, 4, 3, 2, 1, 1);
+
+    public static final String[] PUBLISHERS = {"Penguin Random House", "HarperCollins", "Simon & Schuster",
+            "Hachette", "Macmillan", "Vintage", "Harvill Secker", "Companhia das Letras", "Gallimard", "Suhrkamp",
+            "Einaudi", "Aschehoug", "Bloomsbury", "Faber & Faber", "Scholastic", "Tor Books", "Orbit",
+            "Oxford University Press", "Shinchosha", "Anagrama"};
+
+    public static final Distribution PUBLISHER = Distribution.zipf(PUBLISHERS.length, 1.1);
+
+    public static final BookGenre[] GENRES = {BookGenre.THRILLER, BookGenre.ROMANCE, BookGenre.FANTASY,
+            BookGenre.MYSTERY, BookGenre.SCIENCEFICTION, BookGenre.CRIMEANDDETECTIVE, BookGenre.HISTORICALFICTION,
+            BookGenre.BIOGRAPHY, BookGenre.SELFHELPBOOK, BookGenre.CLASSIC, BookGenre.HORROR,
+            BookGenre.REALISTICFICTION, BookGenre.SUSPENSE, BookGenre.ADVENTURE, BookGenre.MEMOIR,
+            BookGenre.COMICANDGRAPHICNOVEL, BookGenre.POETRY, BookGenre.DRAMA, BookGenre.HUMOR, BookGenre.TEXTBOOK,
+            BookGenre.SHORTSTORY, BookGenre.ACTION, BookGenre.NARRATIVENONFICTION, BookGenre.ESSAY,
+            BookGenre.AUTOBIOGRAPHY, BookGenre.MAGICALREALISM, BookGenre.SATIRE, BookGenre.SCIFI,
+            BookGenre.MYTHOLOGY, BookGenre.FAIRYTALE, BookGenre.ANTHOLOGY, BookGenre.LEGEND, BookGenre.FABLE,
+            BookGenre.FANFICTION, BookGenre.REFERENCEBOOKS, BookGenre.PERIODICALS, BookGenre.SPEECH};
+
+    public static final Distribution GENRE = Distribution.zipf(GENRES.length, 1.2);
+
+    public static final String[] FIRST_NAMES = {"Ingrid", "Harry", "Clarice", "Machado", "Jorge", "Elena", "Haruki",
+            "Toni", "Gabriel", "Isabel", "Karl", "Astrid", "Chimamanda", "Orhan", "Margaret", "Italo", "Olga",
+            "Kazuo", "Zadie", "Roberto", "Wisława", "Jo", "Sally", "Hilary", "Salman", "Jhumpa", "Fernando",
+            "Agatha", "Ursula", "Colson", "Yoko", "Lídia", "Knut", "Sigrid", "Naguib", "Ocean", "Ali", "Min Jin",
+            "Han", "Mo"};
+
+    public static final String[] LAST_NAMES = {"Nesbø", "Lispector", "Assis", "Amado", "Ferrante", "Murakami",
+            "Morrison", "Márquez", "Allende", "Knausgård", "Lindgren", "Adichie", "Pamuk", "Atwood", "Calvino",
+            "Tokarczuk", "Ishiguro", "Smith", "Bolaño", "Szymborska", "Rooney", "Mantel", "Rushdie", "Lahiri",
+            "Pessoa", "Christie", "Le Guin", "Whitehead", "Ogawa", "Jorge", "Hamsun", "Undset", "Mahfouz", "Vuong",
+            "Le Carré", "Lee", "Kang", "Yan", "Tolstaya", "Saramago", "Hosseini", "Ondaatje", "Mistry", "Okri",
+            "Coetzee", "Gordimer", "Munro", "Oates", "Carver", "Didion", "Baldwin", "Walker", "Ellison", "Cather",
+            "Woolf", "Austen", "Brontë", "Eliot", "Dickens", "Hardy"};
+
+    public static final String[] ADJECTIVES = {"Silent", "Last", "Hidden", "Broken", "Golden", "Red", "Dark",
+            "Lost", "Burning", "Frozen", "Forgotten", "Secret", "Quiet", "Wild", "Distant", "Endless", "Bitter",
+            "Shattered", "Crimson", "Northern"};
+
+    public static final String[] NOUNS = {"Snowman", "Bat", "Leopard", "River", "Garden", "Kingdom", "Harbour",
+            "Mirror", "Archive", "Lighthouse", "Orchard", "Empire", "Storm", "Island", "Witness", "Letter",
+            "Season", "Machine", "Forest", "Passenger", "Daughter", "Winter", "Station", "Map", "Promise",
+            "Labyrinth", "Tide", "Border", "Cathedral", "Silence"};
+
+    private CatalogVocabulary() {
+    }
+
+    public static String title(Random random) {
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+        switch (random.nextInt(4)) {
+            case 0:
+                return "The " + noun;
+            case 1:
+                return "The " + adjective + " " + noun;
+            case 2:
+                return adjective + " " + noun + " of the " + NOUNS[random.nextInt(NOUNS.length)];
+            default:
+                return "A " + noun + " in " + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " "
+                        + NOUNS[random.nextInt(NOUNS.length)];
+        }
+    }
+
+    public static String synopsis(String title, String language, Random random) {
+        return "A " + ADJECTIVES[random.nextInt(ADJECTIVES.length)].toLowerCase() + " story about a "
+                + NOUNS[random.nextInt(NOUNS.length)].toLowerCase() + ", first published in " + language
+                + ". " + title + " follows a family across three generations and one "
+                + NOUNS[random.nextInt(NOUNS.length)].toLowerCase() + ".";
+    }
+
+    public static String name(long id) {
+        return FIRST_NAMES[(int) (id % FIRST_NAMES.length)] + " "
+                + LAST_NAMES[(int) (id / FIRST_NAMES.length % LAST_NAMES.length)];
+    }
+
+    public static String email(long id) {
+        return "author" + id + "@books.com";
+    }
+
+    public static String biography(String name, String language) {
+        return name + " is a novelist writing in " + language + ", translated into more than twenty languages.";
+    }
+
+    public static String isbn(String prefix, long number) {
+        String digits = prefix + String.format("%09d", number);
+        if (digits.length() != 12) throw new IllegalArgumentException("ISBN body out of range: " + number);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        return digits + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,43 @@
+package com.bruno.project.services.seed;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public final class Distribution {
+
+    private final double[] cumulative;
+
+    private Distribution(double[] weights) {
+        cumulative = new double[weights.length];
+        double total = Arrays.stream(weights).sum();
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum / total;
+        }
+        cumulative[weights.length - 1] = 1;
+    }
+
+    public static Distribution of(double... weights) {
+        if (weights.length == 0 || Arrays.stream(weights).anyMatch(weight -> weight < 0)
+                || Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("A distribution needs at least one positive weight");
+        }
+        return new Distribution(weights.clone());
+    }
+
+    public static Distribution zipf(int size, double exponent) {
+        double[] weights = new double[size];
+        for (int i = 0; i < size; i++) weights[i] = 1 / Math.pow(i + 1, exponent);
+        return new Distribution(weights);
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
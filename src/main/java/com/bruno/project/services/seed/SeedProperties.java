@@ -0,0 +1,25 @@
+package com.bruno.project.services.seed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.seed")
+public class SeedProperties {
+
+    private boolean enabled;
+
+    private long seed = 42;
+
+    private int books = 1_000_000;
+
+    private int authors = 200_000;
+
+    private int batchSize = 2_000;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private boolean exit;
+}
@@ -0,0 +1,18 @@
+package com.bruno.project.services.seed;
+
+import lombok.Value;
+
+@Value
+public class SeedResult {
+
+    long firstBookId;
+    long books;
+    long firstAuthorId;
+    long authors;
+    long links;
+    long millis;
+
+    public long getRowsPerSecond() {
+        return millis == 0 ? 0 : (books + authors + links) * 1000 / millis;
+    }
+}
@@ -0,0 +1,33 @@
+CREATE TABLE tb_author (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255) NOT NULL,
+    birth_date  DATE,
+    email       VARCHAR(255) NOT NULL,
+    phone       VARCHAR(255),
+    biography   TEXT         NOT NULL,
+    url_picture VARCHAR(255),
+    CONSTRAINT pk_author PRIMARY KEY (id),
+    CONSTRAINT uk_author_email UNIQUE (email)
+);
+
+CREATE TABLE tb_book (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    isbn             VARCHAR(255) NOT NULL,
+    title            VARCHAR(255) NOT NULL,
+    print_length     INTEGER      NOT NULL,
+    language         VARCHAR(255) NOT NULL,
+    publication_year VARCHAR(255) NOT NULL,
+    publisher        VARCHAR(255),
+    url_cover        VARCHAR(255),
+    synopsis         TEXT,
+    book_genre       INTEGER,
+    CONSTRAINT pk_book PRIMARY KEY (id),
+    CONSTRAINT uk_book_isbn UNIQUE (isbn)
+);
+
+CREATE TABLE tb_book_author (
+    book_id   BIGINT NOT NULL,
+    author_id BIGINT NOT NULL,
+    CONSTRAINT fk_book_author_book FOREIGN KEY (book_id) REFERENCES tb_book (id),
+    CONSTRAINT fk_book_author_author FOREIGN KEY (author_id) REFERENCES tb_author (id)
+);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_book_title_id ON tb_book (title, id);
+
+CREATE INDEX IF NOT EXISTS idx_author_name_id ON tb_author (name, id);
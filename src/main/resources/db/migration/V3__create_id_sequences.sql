@@ -0,0 +1,7 @@
+CREATE SEQUENCE IF NOT EXISTS tb_author_seq INCREMENT BY 50;
+
+SELECT setval('tb_author_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tb_author), false);
+
+CREATE SEQUENCE IF NOT EXISTS tb_book_seq INCREMENT BY 50;
+
+SELECT setval('tb_book_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM tb_book), false);
@@ -0,0 +1,11 @@
+ALTER TABLE tb_author ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE tb_author SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE tb_author ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
+
+ALTER TABLE tb_book ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE tb_book SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE tb_book ALTER COLUMN version SET DEFAULT 0, ALTER COLUMN version SET NOT NULL;
@@ -0,0 +1,14 @@
+CREATE SEQUENCE IF NOT EXISTS tb_outbox_event_seq INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS tb_outbox_event (
+    id             BIGINT      NOT NULL,
+    aggregate_type VARCHAR(16) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    change_type    VARCHAR(16) NOT NULL,
+    payload        TEXT,
+    created_at     TIMESTAMP   NOT NULL,
+    published_at   TIMESTAMP,
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_published_at_id ON tb_outbox_event (published_at, id);
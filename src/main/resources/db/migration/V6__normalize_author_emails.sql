@@ -0,0 +1,3 @@
+UPDATE tb_author SET email = LOWER(email) WHERE email <> LOWER(email);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_author_email ON tb_author (email);
@@ -3,7 +3,7 @@ package com.bruno.project;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.query-budget.mode=fail")
 class MySpringProjectApplicationTests {
 
 	@Test
@@ -0,0 +1,187 @@
+package com.bruno.project.config.cache;
+
+import com.bruno.project.config.SecondLevelCacheConfig;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(SecondLevelCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM tb_book_author");
+        jdbcTemplate.execute("DELETE FROM tb_book");
+        jdbcTemplate.execute("DELETE FROM tb_author");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("(1) Should answer repeated ISBN and email lookups, in any case, from the natural id cache")
+    void whenANaturalIdIsLookedUpAgainThenNoStatementIsIssued() {
+        Author author = authorRepository.save(author("jo.nesbo@example.com"));
+        Book book = bookRepository.save(book("9788203193538", author));
+
+        assertThat(bookRepository.findByIsbn("9788203193538").orElseThrow().getId(), is(equalTo(book.getId())));
+        assertThat(authorRepository.findByEmail("jo.nesbo@example.com").orElseThrow().getId(),
+                is(equalTo(author.getId())));
+        statistics.clear();
+        assertThat(bookRepository.findByIsbn("9788203193538").orElseThrow().getTitle(), is("The Bat"));
+        assertThat(authorRepository.findByEmail("jo.nesbo@example.com").orElseThrow().getName(),
+                is("Jo Nesbø"));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(statistics.getNaturalIdCacheHitCount(), is(2L));
+
+        statistics.clear();
+        assertThat(authorRepository.findByEmail("JO.NESBO@EXAMPLE.COM").orElseThrow().getId(),
+                is(equalTo(author.getId())));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(bookRepository.findByIsbn("9780000000000").isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("(2) Should load cached books with their authors without touching the database")
+    void whenBooksAndTheirAuthorsAreCachedThenTheyLoadWithoutStatements() {
+        Author first = authorRepository.save(author("jo.nesbo@example.com"));
+        Author second = authorRepository.save(author("harry.hole@example.com"));
+        Book book = bookRepository.save(book("9788203193538", first, second));
+        Book other = bookRepository.save(book("9780099520320", second));
+        List<Long> ids = List.of(book.getId(), other.getId());
+
+        assertThat(bookRepository.findWithAuthorsByIdIn(ids).size(), is(2));
+        statistics.clear();
+        List<Book> books = bookRepository.findWithAuthorsByIdIn(ids);
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(books.stream().map(Book::getId).collect(Collectors.toList()),
+                containsInAnyOrder(book.getId(), other.getId()));
+        assertThat(books.stream().filter(found -> found.getId().equals(book.getId())).findFirst().orElseThrow()
+                .getAuthors().stream().map(Author::getId).collect(Collectors.toList()),
+                containsInAnyOrder(first.getId(), second.getId()));
+        assertThat(statistics.getDomainDataRegionStatistics(Book.CACHE_REGION).getHitCount(), is(2L));
+        assertThat(statistics.getDomainDataRegionStatistics(Book.AUTHORS_CACHE_REGION).getHitCount(), is(2L));
+        assertThat(statistics.getDomainDataRegionStatistics(Author.CACHE_REGION).getHitCount(),
+                is(greaterThanOrEqualTo(2L)));
+        assertThat(authorRepository.findByIdIn(List.of(first.getId(), second.getId())).size(), is(2));
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+    }
+
+    @Test
+    @DisplayName("(3) Should leave the regions alone when books and authors are read in bulk")
+    void whenBooksAreReadInBulkThenTheRegionsAreNotFilled() {
+        Author author = authorRepository.save(author("jo.nesbo@example.com"));
+        Book book = bookRepository.save(book("9788203193538", author));
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+
+        assertThat(bookRepository.findUncachedWithAuthorsByIdIn(List.of(book.getId())).get(0).getAuthors().size(),
+                is(1));
+        assertThat(authorRepository.findUncachedByIdIn(List.of(author.getId())).size(), is(1));
+        assertThat(sessionFactory.getCache().containsEntity(Book.class, book.getId()), is(false));
+        assertThat(sessionFactory.getCache().containsCollection(Book.class.getName() + ".authors", book.getId()),
+                is(false));
+        assertThat(sessionFactory.getCache().containsEntity(Author.class, author.getId()), is(false));
+
+        bookRepository.findWithAuthorsByIdIn(List.of(book.getId()));
+        assertThat(sessionFactory.getCache().containsEntity(Book.class, book.getId()), is(true));
+    }
+
+    @Test
+    @DisplayName("(4) Should bound each region and count the entries it evicts")
+    void whenARegionIsFullThenEntriesAreEvictedAndCounted() throws InterruptedException {
+        SecondLevelCacheProperties properties = new SecondLevelCacheProperties();
+        SecondLevelCacheProperties.Region region = new SecondLevelCacheProperties.Region();
+        region.setMaxEntries(2);
+        properties.getRegions().put(Author.CACHE_REGION, region);
+        CacheEvictionMetrics metrics = new CacheEvictionMetrics(SecondLevelCacheConfig.REGIONS);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        metrics.bindTo(registry);
+        try (CacheManager cacheManager = new SecondLevelCacheConfig().secondLevelCacheManager(properties, metrics)) {
+            Cache<Object, Object> authors = cacheManager.getCache(Author.CACHE_REGION);
+            for (long id = 1; id <= 10; id++) authors.put(id, "author " + id);
+            long cached = 0;
+            for (Cache.Entry<Object, Object> ignored : authors) cached++;
+
+            assertThat(cached, is(greaterThan(0L)));
+            assertThat(cached <= 2, is(true));
+            for (int i = 0; i < 100 && evictions(registry) < 10 - cached; i++) Thread.sleep(10);
+            assertThat(evictions(registry), is(equalTo((double) (10 - cached))));
+        }
+    }
+
+    private double evictions(SimpleMeterRegistry registry) {
+        return registry.get(CacheEvictionMetrics.METRIC_NAME)
+                .tags("region", Author.CACHE_REGION, "cause", "EVICTED").functionCounter().count();
+    }
+
+    private Author author(String email) {
+        return Author.builder()
+                .name("Jo Nesbø")
+                .birthDate(LocalDate.of(1960, 3, 29))
+                .email(email)
+                .biography("Norwegian writer and musician")
+                .build();
+    }
+
+    private Book book(String isbn, Author... authors) {
+        Book book = Book.builder()
+                .isbn(isbn)
+                .title("The Bat")
+                .printLength(384)
+                .language("English")
+                .publicationYear("1997")
+                .bookGenre(BookGenre.THRILLER)
+                .build();
+        book.getAuthors().addAll(List.of(authors));
+        return book;
+    }
+}
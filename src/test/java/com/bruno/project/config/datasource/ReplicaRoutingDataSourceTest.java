@@ -0,0 +1,159 @@
+package com.bruno.project.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readTransaction;
+
+    private TransactionTemplate writeTransaction;
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+        routingDataSource.close();
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    @DisplayName("(1) Should route read-only transactions to the replica and writes to the primary")
+    void whenATransactionIsReadOnlyThenItIsRoutedToTheReplica() {
+        setUp(ReplicaRoutingProperties.Selection.ROUND_ROBIN, "replica");
+        assertThat(readTransaction.execute(status -> databaseName()), is(equalTo("replica")));
+        assertThat(writeTransaction.execute(status -> databaseName()), is(equalTo("primary")));
+        assertThat(databaseName(), is(equalTo("primary")));
+    }
+
+    @Test
+    @DisplayName("(2) Should route reads to the primary while the client is inside its read-your-writes window")
+    void whenTheClientWroteRecentlyThenReadsGoToThePrimary() throws Exception {
+        setUp(ReplicaRoutingProperties.Selection.ROUND_ROBIN, "replica");
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofMinutes(1));
+        List<String> routed = new ArrayList<>();
+
+        filter.doFilter(request("GET", "10.0.0.1"), new MockHttpServletResponse(),
+                (request, response) -> routed.add(readTransaction.execute(status -> databaseName())));
+        filter.doFilter(request("POST", "10.0.0.1"), new MockHttpServletResponse(),
+                (request, response) -> routed.add(readTransaction.execute(status -> databaseName())));
+        filter.doFilter(request("GET", "10.0.0.1"), new MockHttpServletResponse(),
+                (request, response) -> routed.add(readTransaction.execute(status -> databaseName())));
+        filter.doFilter(request("GET", "10.0.0.2"), new MockHttpServletResponse(),
+                (request, response) -> routed.add(readTransaction.execute(status -> databaseName())));
+        MockHttpServletRequest spoofed = request("GET", "10.9.9.9");
+        spoofed.addHeader("X-Forwarded-For", "10.0.0.1, 10.0.0.3");
+        filter.doFilter(spoofed, new MockHttpServletResponse(),
+                (request, response) -> routed.add(readTransaction.execute(status -> databaseName())));
+
+        assertThat(routed, contains("replica", "primary", "primary", "replica", "replica"));
+        assertThat(readTransaction.execute(status -> databaseName()), is(equalTo("replica")));
+    }
+
+    @Test
+    @DisplayName("(3) Should fall back to the primary while the replica lags beyond the threshold")
+    void whenTheReplicaLagsThenReadsFallBackToThePrimary() {
+        setUp(ReplicaRoutingProperties.Selection.ROUND_ROBIN, "replica");
+        new JdbcTemplate(pools.get(1)).update("UPDATE replication_lag SET millis = 60000");
+        routingDataSource.checkReplicas();
+        assertThat(readTransaction.execute(status -> databaseName()), is(equalTo("primary")));
+
+        new JdbcTemplate(pools.get(1)).update("UPDATE replication_lag SET millis = 10");
+        routingDataSource.checkReplicas();
+        assertThat(readTransaction.execute(status -> databaseName()), is(equalTo("replica")));
+    }
+
+    @Test
+    @DisplayName("(4) Should spread reads across replicas in round-robin order")
+    void whenSelectionIsRoundRobinThenReadsAlternateBetweenReplicas() {
+        setUp(ReplicaRoutingProperties.Selection.ROUND_ROBIN, "replica-a", "replica-b");
+        List<String> routed = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            routed.add(readTransaction.execute(status -> databaseName()));
+        }
+        assertThat(routed, contains("replica-a", "replica-b", "replica-a", "replica-b"));
+    }
+
+    @Test
+    @DisplayName("(5) Should send reads to the replica with the fewest active connections")
+    void whenSelectionIsLeastConnectionsThenTheLeastBusyReplicaIsUsed() throws Exception {
+        setUp(ReplicaRoutingProperties.Selection.LEAST_CONNECTIONS, "replica-a", "replica-b");
+        try (Connection busy = pools.get(1).getConnection()) {
+            assertThat(busy.isValid(1), is(true));
+            assertThat(readTransaction.execute(status -> databaseName()), is(equalTo("replica-b")));
+        }
+        try (Connection busy = pools.get(2).getConnection()) {
+            assertThat(busy.isValid(1), is(true));
+            assertThat(readTransaction.execute(status -> databaseName()), is(equalTo("replica-a")));
+        }
+    }
+
+    private void setUp(ReplicaRoutingProperties.Selection selection, String... replicaNames) {
+        HikariDataSource primary = database("primary");
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String name : replicaNames) {
+            replicas.add(database(name));
+        }
+        ReplicaRoutingProperties properties = new ReplicaRoutingProperties();
+        properties.setSelection(selection);
+        properties.setLagQuery("SELECT millis FROM replication_lag");
+        properties.setMaxLag(Duration.ofSeconds(5));
+        properties.setLagCheckInterval(Duration.ofMinutes(1));
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, properties);
+        routingDataSource.afterPropertiesSet();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    private HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(4);
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE database_name (name VARCHAR(20))");
+        template.update("INSERT INTO database_name VALUES (?)", name);
+        template.execute("CREATE TABLE replication_lag (millis BIGINT)");
+        template.update("INSERT INTO replication_lag VALUES (0)");
+        pools.add(dataSource);
+        return dataSource;
+    }
+
+    private String databaseName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM database_name", String.class);
+    }
+
+    private static MockHttpServletRequest request(String method, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/books");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
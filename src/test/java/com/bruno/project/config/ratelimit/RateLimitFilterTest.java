@@ -0,0 +1,163 @@
+package com.bruno.project.config.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class RateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private TokenBuckets tokenBuckets;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Rule search = new RateLimitProperties.Rule();
+        search.setName("search");
+        search.setPatterns(List.of("/api/v1/books/search/**"));
+        search.setMethods(Set.of("GET"));
+        search.setCapacity(2);
+        search.setRefillPerSecond(0.5);
+        RateLimitProperties.Rule catalog = new RateLimitProperties.Rule();
+        catalog.setName("catalog");
+        catalog.setPatterns(List.of("/api/v1/books/**", "/api/v1/authors/**"));
+        catalog.setMethods(Set.of("GET"));
+        catalog.setCapacity(3);
+        catalog.setRefillPerSecond(1);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRules(List.of(search, catalog));
+        properties.setApiKeys(Set.of("partner-key"));
+        tokenBuckets = new TokenBuckets(4, Duration.ofSeconds(1), clock::get);
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        filter = new RateLimitFilter(properties, tokenBuckets, objectMapper);
+    }
+
+    @Test
+    @DisplayName("(1) Should answer 429 with Retry-After once the bucket of a client and route is empty")
+    void whenTheBucketIsEmptyThenTheRequestIsRejectedBeforeTheChain() throws Exception {
+        assertThat(status("GET", "/api/v1/books/1", "10.0.0.1"), is(equalTo(200)));
+        assertThat(status("GET", "/api/v1/authors", "10.0.0.1"), is(equalTo(200)));
+        assertThat(status("GET", "/api/v1/books", "10.0.0.1"), is(equalTo(200)));
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/v1/books", "10.0.0.1"), response, chain);
+        assertThat(response.getStatus(), is(equalTo(429)));
+        assertThat(response.getHeader("Retry-After"), is(equalTo("1")));
+        assertThat(response.getContentAsString(), containsString("\"error\":\"Too Many Requests\""));
+        assertThat(chain.getRequest() == null, is(true));
+
+        assertThat(status("GET", "/api/v1/books/search", "10.0.0.1"), is(equalTo(200)));
+        assertThat(status("GET", "/api/v1/books", "10.0.0.2"), is(equalTo(200)));
+        assertThat(status("POST", "/api/v1/books", "10.0.0.1"), is(equalTo(200)));
+        assertThat(status("GET", "/actuator/health", "10.0.0.1"), is(equalTo(200)));
+
+        clock.addAndGet(SECOND);
+        assertThat(status("GET", "/api/v1/books", "10.0.0.1"), is(equalTo(200)));
+        assertThat(status("GET", "/api/v1/books", "10.0.0.1"), is(equalTo(429)));
+    }
+
+    @Test
+    @DisplayName("(2) Should tell apart clients by known API key and by the address the proxy appended")
+    void whenAKnownApiKeyOrAForwardedAddressIsSentThenItIdentifiesTheClient() throws Exception {
+        for (int i = 0; i < 2; i++) assertThat(status("GET", "/api/v1/books/search", "10.0.0.1"), is(equalTo(200)));
+        assertThat(status("GET", "/api/v1/books/search", "10.0.0.1"), is(equalTo(429)));
+
+        MockHttpServletRequest partner = request("GET", "/api/v1/books/search", "10.0.0.1");
+        partner.addHeader("X-API-Key", "partner-key");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(partner, response, new MockFilterChain());
+        assertThat(response.getStatus(), is(equalTo(200)));
+
+        MockHttpServletRequest stranger = request("GET", "/api/v1/books/search", "10.0.0.1");
+        stranger.addHeader("X-API-Key", "made-up-key");
+        response = new MockHttpServletResponse();
+        filter.doFilter(stranger, response, new MockFilterChain());
+        assertThat(response.getStatus(), is(equalTo(429)));
+        assertThat(response.getHeader("Retry-After"), is(equalTo("2")));
+
+        MockHttpServletRequest spoofed = request("GET", "/api/v1/books/search", "10.9.9.9");
+        spoofed.addHeader("X-Forwarded-For", "1.2.3.4, 10.0.0.1");
+        response = new MockHttpServletResponse();
+        filter.doFilter(spoofed, response, new MockFilterChain());
+        assertThat(response.getStatus(), is(equalTo(429)));
+    }
+
+    @Test
+    @DisplayName("(3) Should evict full buckets and share one bucket per route once every client is active")
+    void whenTooManyClientsAreTrackedThenFullBucketsAreEvicted() throws Exception {
+        for (int i = 1; i <= 4; i++) status("GET", "/api/v1/books", "10.0.1." + i);
+        assertThat(tokenBuckets.size(), is(equalTo(4)));
+
+        assertThat(status("GET", "/api/v1/books", "10.0.2.1"), is(equalTo(200)));
+        assertThat(tokenBuckets.size(), is(equalTo(5)));
+        for (int i = 0; i < 2; i++) status("GET", "/api/v1/books", "10.0.2.2");
+        assertThat(status("GET", "/api/v1/books", "10.0.2.3"), is(equalTo(429)));
+
+        clock.addAndGet(10 * SECOND);
+        assertThat(status("GET", "/api/v1/books", "10.0.2.4"), is(equalTo(200)));
+        assertThat(tokenBuckets.size(), is(equalTo(2)));
+    }
+
+    @Test
+    @DisplayName("(4) Should never hand out more tokens than the capacity under contention")
+    void whenManyThreadsShareABucketThenOnlyTheCapacityIsAcquired() throws Exception {
+        TokenBuckets shared = new TokenBuckets(1000, Duration.ofSeconds(1), clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                int acquired = 0;
+                for (int j = 0; j < 10_000; j++) {
+                    if (shared.tryAcquire("catalog", "ip:10.0.0.1", 100, SECOND) == 0) acquired++;
+                }
+                return acquired;
+            }));
+        }
+        start.countDown();
+        int acquired = 0;
+        for (Future<Integer> worker : workers) acquired += worker.get();
+        executor.shutdown();
+
+        assertThat(acquired, is(equalTo(100)));
+    }
+
+    private int status(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, remoteAddr), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,86 @@
+package com.bruno.project.dto;
+
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class PageEnvelopeTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final List<Book> books = List.of(givenBook(1L), Book.builder().id(2L).title("Untitled").build());
+
+    @Test
+    @DisplayName("(1) Should stream the same JSON as the page of mapped DTOs")
+    void whenAPageIsStreamedFromEntitiesThenItsJsonMatchesTheMappedOne() throws Exception {
+        PageEnvelope<BookDTO> streamed = PageEnvelope.of(books, PageRequest.of(1, 2), 10L, BookDTO::toDTO,
+                CatalogJson::writeBook);
+        PageEnvelope<BookDTO> mapped = PageEnvelope.of(
+                books.stream().map(BookDTO::toDTO).collect(Collectors.toList()), PageRequest.of(1, 2), 10L);
+        String json = objectMapper.writeValueAsString(streamed);
+        assertThat(json, is(equalTo(objectMapper.writeValueAsString(mapped))));
+        JsonNode tree = objectMapper.readTree(json);
+        assertThat(tree.get("content").get(0).get("authors").get(0).get("birthDate").asText(), is("1960-03-29"));
+        assertThat(tree.get("content").get(1).get("printLength").isNull(), is(true));
+        assertThat(tree.get("totalPages").asInt(), is(5));
+        assertThat(tree.get("first").asBoolean(), is(false));
+        assertThat(tree.has("pageable"), is(false));
+    }
+
+    @Test
+    @DisplayName("(2) Should fall back to the DTOs when the mapper renames or drops properties")
+    void whenTheMapperIsCustomizedThenTheMappedDTOsAreSerialized() throws Exception {
+        PageEnvelope<BookDTO> page = PageEnvelope.of(books, PageRequest.of(0, 2), 2L, BookDTO::toDTO,
+                CatalogJson::writeBook);
+        JsonNode snakeCase = objectMapper.copy().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .valueToTree(page);
+        assertThat(snakeCase.get("total_elements").asLong(), is(2L));
+        assertThat(snakeCase.get("content").get(0).get("print_length").asInt(), is(432));
+        JsonNode nonNull = objectMapper.copy().setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .valueToTree(page);
+        assertThat(nonNull.get("content").get(1).has("printLength"), is(false));
+        assertThat(nonNull.get("last").asBoolean(), is(true));
+    }
+
+    private static Book givenBook(Long id) {
+        Book book = Book.builder()
+                .id(id)
+                .isbn("978-0099520320")
+                .title("The Bat \"Harry Hole\"")
+                .printLength(432)
+                .language("English")
+                .publicationYear("1997")
+                .publisher("Harvill Secker")
+                .urlCover("51264896706_e66beed079_n.jpg")
+                .synopsis("Detective Harry Hole is sent to Sydney.")
+                .bookGenre(BookGenre.THRILLER)
+                .build();
+        book.getAuthors().add(Author.builder()
+                .id(1L)
+                .name("Jo Nesbø")
+                .birthDate(LocalDate.parse("1960-03-29"))
+                .email("jonesbo@jonesbo.com")
+                .urlPicture("0284334234.jpg")
+                .build());
+        return book;
+    }
+}
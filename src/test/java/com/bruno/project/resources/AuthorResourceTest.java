@@ -1,6 +1,9 @@
 package com.bruno.project.resources;
 
 import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.entities.Author;
 import com.bruno.project.services.exceptions.ExistingResourceException;
 import com.bruno.project.services.exceptions.ResourceNotFoundException;
@@ -12,7 +15,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
@@ -22,6 +24,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static com.bruno.project.utils.JsonConversionUtil.asJsonString;
 import static org.hamcrest.core.Is.is;
@@ -46,7 +49,7 @@ public class AuthorResourceTest {
 
     private AuthorDTO authorDTO;
 
-    private Page<AuthorDTO> page;
+    private PageEnvelope<AuthorDTO> page;
 
     private PageRequest pageRequest = PageRequest.of(0, 20);
 
@@ -71,7 +74,7 @@ public class AuthorResourceTest {
     @Test
     @DisplayName("(1) Must return 200 Ok status when searching for all authors")
     void whenGETIsCalledToFindAllAuthorsThenReturnOkStatus() throws Exception {
-        when(authorService.findAll(pageRequest)).thenReturn(page);
+        when(authorService.findAll(pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -80,7 +83,7 @@ public class AuthorResourceTest {
     @Test
     @DisplayName("(2) Must return 200 Ok status when searching for authors by name")
     void whenGETIsCalledToFindAuthorsByNameThenReturnOkStatus() throws Exception {
-        when(authorService.findByNameContainingIgnoreCase(givenAuthor.getName(), pageRequest)).thenReturn(page);
+        when(authorService.findByNameContainingIgnoreCase(givenAuthor.getName(), pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN + "name?text=" + givenAuthor.getName())
         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -163,4 +166,14 @@ public class AuthorResourceTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("(10) Should return 200 Ok status when searching authors by name with a cursor")
+    void whenGETIsCalledToFindAuthorsByNameWithACursorThenReturnOkStatus() throws Exception {
+        when(authorService.findByNameContainingIgnoreCase(givenAuthor.getName(), "", 20, Fieldset.ALL))
+                .thenReturn(new CursorPage<>(List.of(givenAuthor), 20, null));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "name?text=" + givenAuthor.getName() + "&after=")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
 }
@@ -2,11 +2,20 @@ package com.bruno.project.resources;
 
 import com.bruno.project.dto.AuthorDTO;
 import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.FacetCount;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.entities.Author;
 import com.bruno.project.entities.Book;
 import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.projections.VersionStamp;
 import com.bruno.project.services.exceptions.ExistingResourceException;
 import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import com.bruno.project.services.exceptions.TooManyExportsException;
+import com.bruno.project.services.impl.BookExportServiceImpl;
+import com.bruno.project.services.impl.BookImportServiceImpl;
 import com.bruno.project.services.impl.BookServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,21 +24,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 
 import static com.bruno.project.utils.JsonConversionUtil.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -65,13 +81,22 @@ public class BookResourceTest {
 
     private PageRequest pageRequest = PageRequest.of(0, 20);
 
-    private Page<BookDTO> page;
+    private PageEnvelope<BookDTO> page;
 
     private MockMvc mockMvc;
 
+    private VersionStamp versionStamp = new SpelAwareProxyProjectionFactory().createProjection(VersionStamp.class,
+            Map.of("version", 3L, "total", 1L, "versionSum", 0L, "idSum", 1L));
+
     @Mock
     private BookServiceImpl bookService;
 
+    @Mock
+    private BookImportServiceImpl bookImportService;
+
+    @Mock
+    private BookExportServiceImpl bookExportService;
+
     @InjectMocks
     private BookResource bookResource;
 
@@ -86,7 +111,7 @@ public class BookResourceTest {
     @Test
     @DisplayName("(1) Should return 200 Ok status when searching all books")
     void whenGETIsCalledToFindAllBooksThenReturnOkStatus() throws Exception {
-        when(bookService.findAll(pageRequest)).thenReturn(page);
+        when(bookService.findAll(pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -95,7 +120,7 @@ public class BookResourceTest {
     @Test
     @DisplayName("(2) Should return 200 Ok status when searching by title")
     void whenGETIsCalledToFindBooksByTitleThenReturnOkStatus() throws Exception {
-        when(bookService.findByTitleContainingIgnoreCase(givenBook.getTitle(), pageRequest)).thenReturn(page);
+        when(bookService.findByTitleContainingIgnoreCase(givenBook.getTitle(), pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN + "/title?text=" + givenBook.getTitle())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -104,7 +129,7 @@ public class BookResourceTest {
     @Test
     @DisplayName("(3) Should return 200 Ok status when searching by language")
     void whenGETIsCalledToFindBooksByLanguageThenReturnOkStatus() throws Exception {
-        when(bookService.findByLanguageContainingIgnoreCase(givenBook.getLanguage(), pageRequest)).thenReturn(page);
+        when(bookService.findByLanguageContainingIgnoreCase(givenBook.getLanguage(), pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN + "/language?text=" + givenBook.getLanguage())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -113,7 +138,7 @@ public class BookResourceTest {
     @Test
     @DisplayName("(4) Should return 200 Ok status when searching by publisher")
     void whenGETIsCalledToFindBooksByPublisherThenReturnOkStatus() throws Exception {
-        when(bookService.findByPublisherContainingIgnoreCase(givenBook.getPublisher(), pageRequest)).thenReturn(page);
+        when(bookService.findByPublisherContainingIgnoreCase(givenBook.getPublisher(), pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN + "/publisher?text=" + givenBook.getPublisher())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -122,7 +147,7 @@ public class BookResourceTest {
     @Test
     @DisplayName("(5) Should return 200 Ok status when searching by author name")
     void whenGETIsCalledToFindBooksByAuthorNameThenReturnOkStatus() throws Exception {
-        when(bookService.findBooksByAuthorName(authorDTO.getName(), pageRequest)).thenReturn(page);
+        when(bookService.findBooksByAuthorName(authorDTO.getName(), pageRequest, Fieldset.ALL)).thenReturn(page);
         mockMvc.perform(MockMvcRequestBuilders.get(URN + "author?text=" + authorDTO.getName())
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -216,4 +241,146 @@ public class BookResourceTest {
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("(13) Should return 200 Ok status and the next cursor when searching all books by keyset")
+    void whenGETIsCalledWithACursorThenReturnOkStatus() throws Exception {
+        when(bookService.findAll("", 20, Fieldset.ALL))
+                .thenReturn(new CursorPage<>(List.of(expectedBook), 20, "MTpUaGUgQmF0"));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?after=&size=20")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title", is(expectedBook.getTitle())))
+                .andExpect(jsonPath("$.nextCursor", is("MTpUaGUgQmF0")));
+    }
+
+    @Test
+    @DisplayName("(22) Should bind repeated facet parameters and write the facet counts after the page")
+    void whenGETIsCalledToSearchByFacetsThenReturnThePageAndItsFacetCounts() throws Exception {
+        BookFacetQuery query = BookFacetQuery.builder()
+                .bookGenre(List.of(BookGenre.THRILLER, BookGenre.DRAMA))
+                .language(List.of("English"))
+                .build();
+        when(bookService.search(query, pageRequest, Fieldset.ALL)).thenReturn(PageEnvelope.of(List.of(expectedBook),
+                pageRequest, 1L).withFacets(Map.of("bookGenre", List.of(new FacetCount("THRILLER", 1)))));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "/search?bookGenre=THRILLER&bookGenre=DRAMA&language=English")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title", is(expectedBook.getTitle())))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.facets.bookGenre[0].value", is("THRILLER")))
+                .andExpect(jsonPath("$.facets.bookGenre[0].count", is(1)));
+    }
+
+    @Test
+    @DisplayName("(14) Should return 200 Ok status and a strong ETag when searching a book by id")
+    void whenGETIsCalledWithAnIdThenReturnTheBookAndItsETag() throws Exception {
+        when(bookService.findVersionStamp(expectedBook.getId())).thenReturn(versionStamp);
+        when(bookService.findById(expectedBook.getId())).thenReturn(expectedBook);
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + expectedBook.getId())
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETags.strong(expectedBook.getId(), versionStamp)))
+                .andExpect(jsonPath("$.title", is(expectedBook.getTitle())));
+    }
+
+    @Test
+    @DisplayName("(15) Should return 304 Not Modified without loading the book when If-None-Match holds its ETag")
+    void whenGETIsCalledWithTheCurrentETagThenReturnNotModifiedStatus() throws Exception {
+        when(bookService.findVersionStamp(expectedBook.getId())).thenReturn(versionStamp);
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + expectedBook.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, ETags.strong(expectedBook.getId(), versionStamp)))
+                .andExpect(status().isNotModified());
+        verify(bookService, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("(16) Should return 304 Not Modified without loading the page when If-None-Match holds its weak ETag")
+    void whenGETIsCalledWithTheCurrentPageETagThenReturnNotModifiedStatus() throws Exception {
+        when(bookService.findVersionStamps()).thenReturn(List.of(versionStamp));
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(URN + "?page=0&size=20"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?page=0&size=20")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertThat(eTag.startsWith("W/"), is(true));
+        verify(bookService, times(1)).findAll(any(Pageable.class), eq(Fieldset.ALL));
+    }
+
+    @Test
+    @DisplayName("(17) Must return 412 Precondition Failed status when If-Match does not hold the current ETag")
+    void whenPUTIsCalledWithAStaleETagThenReturnPreconditionFailedStatus() throws Exception {
+        when(bookService.findVersionStamp(expectedBook.getId())).thenReturn(versionStamp);
+        mockMvc.perform(MockMvcRequestBuilders.put(URN + expectedBook.getId())
+                .header(HttpHeaders.IF_MATCH, "\"1-0-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(expectedBook)))
+                .andExpect(status().isPreconditionFailed());
+        verify(bookService, never()).updateById(any(), any());
+    }
+
+    @Test
+    @DisplayName("(18) Must send the version of the matched ETag to the service when updating book data")
+    void whenPUTIsCalledWithTheCurrentETagThenTheVersionIsChecked() throws Exception {
+        when(bookService.findVersionStamp(expectedBook.getId())).thenReturn(versionStamp);
+        when(bookService.updateById(expectedBook.getId(), expectedBook)).thenReturn(expectedBook);
+        mockMvc.perform(MockMvcRequestBuilders.put(URN + expectedBook.getId())
+                .header(HttpHeaders.IF_MATCH, ETags.strong(expectedBook.getId(), versionStamp))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(expectedBook)))
+                .andExpect(status().isOk());
+        verify(bookService).updateById(eq(expectedBook.getId()), argThat(book -> book.getVersion() == 3L));
+    }
+
+    @Test
+    @DisplayName("(19) Should return 204 No Content and send the If-Match version when patching a book")
+    void whenPATCHIsCalledWithAMergePatchThenReturnNoContentStatus() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch(URN + expectedBook.getId())
+                .header(HttpHeaders.IF_MATCH, ETags.strong(expectedBook.getId(), versionStamp))
+                .contentType("application/merge-patch+json")
+                .content("{\"title\": \"The Snowman\", \"synopsis\": null}"))
+                .andExpect(status().isNoContent());
+        verify(bookService).patchById(eq(expectedBook.getId()), eq(3L),
+                argThat(patch -> patch.get("title").asText().equals("The Snowman") && patch.get("synopsis").isNull()));
+        verify(bookService, never()).findVersionStamp(any());
+    }
+
+    @Test
+    @DisplayName("(20) Must return 412 Precondition Failed status when If-Match is not an ETag of the patched book")
+    void whenPATCHIsCalledWithAnotherBooksETagThenReturnPreconditionFailedStatus() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.patch(URN + expectedBook.getId())
+                .header(HttpHeaders.IF_MATCH, "\"2-3-0\"")
+                .contentType("application/merge-patch+json")
+                .content("{\"title\": \"The Snowman\"}"))
+                .andExpect(status().isPreconditionFailed());
+        verify(bookService, never()).patchById(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("(21) Should write only the requested fields when a sparse fieldset is given")
+    void whenGETIsCalledWithFieldsThenOnlyTheRequestedFieldsAreWritten() throws Exception {
+        mockMvc = MockMvcBuilders.standaloneSetup(bookResource)
+                .setControllerAdvice(new FieldsetResponseAdvice(Jackson2ObjectMapperBuilder.json().build()))
+                .build();
+        expectedBook.setAuthors(List.of(authorDTO));
+        when(bookService.findAll("", 20, Fieldset.parse("title,authors.name")))
+                .thenReturn(new CursorPage<>(List.of(expectedBook), 20, "MTpUaGUgQmF0"));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?after=&size=20&fields=title,authors.name")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title", is(expectedBook.getTitle())))
+                .andExpect(jsonPath("$.content[0].isbn").doesNotExist())
+                .andExpect(jsonPath("$.content[0].authors[0].name", is(authorDTO.getName())))
+                .andExpect(jsonPath("$.content[0].authors[0].email").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", is("MTpUaGUgQmF0")));
+    }
+
+    @Test
+    @DisplayName("(22) Must return 429 Too Many Requests status when every export slot is taken")
+    void whenGETIsCalledToExportWhileExportsAreBusyThenReturnTooManyRequestsStatus() throws Exception {
+        when(bookExportService.reserve()).thenThrow(new TooManyExportsException("busy"));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "export"))
+                .andExpect(status().isTooManyRequests());
+        verify(bookExportService, never()).exportBooks(any(), any(), any());
+    }
 }
@@ -0,0 +1,73 @@
+package com.bruno.project.resources;
+
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.dto.SearchHitDTO;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.services.exceptions.IndexNotReadyException;
+import com.bruno.project.services.impl.SearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchResourceTest {
+
+    private static final String URN = "/api/v1/search";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SearchServiceImpl searchService;
+
+    @InjectMocks
+    private SearchResource searchResource;
+
+    @BeforeEach
+    void setUp(){
+        mockMvc = MockMvcBuilders.standaloneSetup(searchResource)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    @DisplayName("(1) Must return 200 Ok status with the ranked and highlighted hits")
+    void whenGETIsCalledWithATextThenReturnTheRankedHits() throws Exception {
+        PageRequest pageable = PageRequest.of(0, 5);
+        when(searchService.search(eq("oslo"), eq(CatalogType.BOOK), eq(pageable))).thenReturn(PageEnvelope.of(
+                List.of(new SearchHitDTO(CatalogType.BOOK, 1L, "The Snowman", 1.5f,
+                        Map.of("synopsis", List.of("A serial killer in <em>Oslo</em>")))), pageable, 1));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?q=oslo&type=BOOK&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].text", is("The Snowman")))
+                .andExpect(jsonPath("$.content[0].highlights.synopsis[0]", is("A serial killer in <em>Oslo</em>")))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    @DisplayName("(2) Must return 503 Service Unavailable status while the index is built")
+    void whenGETIsCalledBeforeTheIndexIsBuiltThenReturnServiceUnavailableStatus() throws Exception {
+        when(searchService.search(eq("oslo"), isNull(), eq(PageRequest.of(0, 20))))
+                .thenThrow(new IndexNotReadyException("Not ready"));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?q=oslo"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
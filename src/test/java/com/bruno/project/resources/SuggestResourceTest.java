@@ -0,0 +1,62 @@
+package com.bruno.project.resources;
+
+import com.bruno.project.dto.SuggestionDTO;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.services.exceptions.IndexNotReadyException;
+import com.bruno.project.services.impl.SuggestServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class SuggestResourceTest {
+
+    private static final String URN = "/api/v1/suggest";
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private SuggestServiceImpl suggestService;
+
+    @InjectMocks
+    private SuggestResource suggestResource;
+
+    @BeforeEach
+    void setUp(){
+        mockMvc = MockMvcBuilders.standaloneSetup(suggestResource).build();
+    }
+
+    @Test
+    @DisplayName("(1) Must return 200 Ok status with the completions of the prefix")
+    void whenGETIsCalledWithAPrefixThenReturnTheSuggestions() throws Exception {
+        when(suggestService.suggest("jo", 5)).thenReturn(List.of(
+                new SuggestionDTO("Jo Nesbø", CatalogType.AUTHOR, 1L)));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?prefix=jo&limit=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].text", is("Jo Nesbø")))
+                .andExpect(jsonPath("$[0].type", is("AUTHOR")))
+                .andExpect(jsonPath("$[0].id", is(1)));
+    }
+
+    @Test
+    @DisplayName("(2) Must return 503 Service Unavailable status while the suggestions are indexed")
+    void whenGETIsCalledBeforeTheIndexIsBuiltThenReturnServiceUnavailableStatus() throws Exception {
+        when(suggestService.suggest("jo", 10)).thenThrow(new IndexNotReadyException("Not ready"));
+        mockMvc.perform(MockMvcRequestBuilders.get(URN + "?prefix=jo"))
+                .andExpect(status().isServiceUnavailable());
+    }
+}
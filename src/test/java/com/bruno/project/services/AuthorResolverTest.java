@@ -0,0 +1,76 @@
+package com.bruno.project.services;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import com.bruno.project.services.impl.AuthorResolver;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AuthorResolverTest {
+
+    @Mock
+    private AuthorRepository authorRepository;
+
+    @InjectMocks
+    private AuthorResolver authorResolver;
+
+    private static Author author(long id) {
+        return Author.builder().id(id).name("Author " + id).build();
+    }
+
+    private static AuthorDTO authorDTO(long id) {
+        return AuthorDTO.toDTO(author(id));
+    }
+
+    @Test
+    @DisplayName("(1) Should resolve every author with one query, keeping the requested order")
+    void whenAuthorsAreRegisteredThenTheyAreResolvedWithOneQuery() {
+        when(authorRepository.findByIdIn(List.of(3L, 1L, 2L))).thenReturn(List.of(author(1L), author(2L), author(3L)));
+        List<Author> authors = authorResolver.resolve(List.of(authorDTO(3L), authorDTO(1L), authorDTO(3L), authorDTO(2L)));
+        assertThat(authors.stream().map(Author::getId).collect(Collectors.toList()), contains(3L, 1L, 2L));
+        verify(authorRepository, times(1)).findByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("(2) Should report every missing author ID in a single ResourceNotFoundException")
+    void whenAuthorsAreMissingThenEveryMissingIdIsReported() {
+        when(authorRepository.findByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(author(2L)));
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> authorResolver.resolve(List.of(authorDTO(1L), authorDTO(2L), authorDTO(3L))));
+        assertThat(exception.getMessage(), is("Authors not found with these IDs: [1, 3]"));
+    }
+
+    @Test
+    @DisplayName("(3) Should not query the database when no author is given")
+    void whenNoAuthorIsGivenThenNothingIsQueried() {
+        assertThat(authorResolver.resolve(Collections.emptyList()), is(empty()));
+        assertThat(authorResolver.findMissingIds(Collections.emptyList()), is(empty()));
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    @DisplayName("(4) Should return the IDs that are not registered")
+    void whenFindMissingIdsIsCalledThenUnregisteredIdsAreReturned() {
+        when(authorRepository.findRegisteredIds(Set.of(1L, 2L))).thenReturn(Set.of(2L));
+        assertThat(authorResolver.findMissingIds(Set.of(1L, 2L)), is(Set.of(1L)));
+    }
+}
@@ -1,23 +1,31 @@
 package com.bruno.project.services;
 
 import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.entities.Author;
 import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.services.events.AuthorChangedEvent;
 import com.bruno.project.services.exceptions.ExistingResourceException;
 import com.bruno.project.services.exceptions.ResourceNotFoundException;
 import com.bruno.project.services.impl.AuthorServiceImpl;
+import com.bruno.project.services.index.SuggestIndex;
+import com.bruno.project.services.index.UniqueKeyFilter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -42,13 +50,22 @@ public class AuthorServiceTest {
 
     private Page<Author> page = new PageImpl<Author>(Collections.singletonList(author));
 
-    private Page<AuthorDTO> pageDTO;
+    private PageEnvelope<AuthorDTO> pageDTO;
 
     private PageRequest pageRequest = PageRequest.of(0, 1);
 
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private UniqueKeyFilter uniqueKeyFilter;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private AuthorServiceImpl authorService;
 
@@ -56,7 +73,7 @@ public class AuthorServiceTest {
     @DisplayName("(1) Should return a page of authors")
     void whenFindAllIsCalledThenReturnAPageWithAllAuthors() {
         when(authorRepository.findAll(pageRequest)).thenReturn(page);
-        pageDTO = authorService.findAll(pageRequest);
+        pageDTO = authorService.findAll(pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(not(empty())));
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
@@ -68,7 +85,7 @@ public class AuthorServiceTest {
     @DisplayName("(2) Should return an empty page of authors")
     void whenFindAllIsCalledThenReturnAnEmptyPage() {
         when(authorRepository.findAll(pageRequest)).thenReturn(Page.empty());
-        pageDTO = authorService.findAll(pageRequest);
+        pageDTO = authorService.findAll(pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
@@ -76,7 +93,7 @@ public class AuthorServiceTest {
     @DisplayName("(3) Should return a page of authors searched by name")
     void whenFindByNameIgnoreCaseIsCalledThenReturnAPageOfAuthors() {
         when(authorRepository.findByNameContainingIgnoreCase("name", pageRequest)).thenReturn(page);
-        pageDTO = authorService.findByNameContainingIgnoreCase("name", pageRequest);
+        pageDTO = authorService.findByNameContainingIgnoreCase("name", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(not(empty())));
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
@@ -88,14 +105,15 @@ public class AuthorServiceTest {
     @DisplayName("(4) Should return an empty page of authors")
     void whenFindByNameIgnoreCaseIsCalledThenReturnAnEmptyPage() {
         when(authorRepository.findByNameContainingIgnoreCase("name", pageRequest)).thenReturn(Page.empty());
-        pageDTO = authorService.findByNameContainingIgnoreCase("name", pageRequest);
+        pageDTO = authorService.findByNameContainingIgnoreCase("name", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
     @Test
     @DisplayName("(5) Should create a new author")
     void whenSaveMethodIsCalledThenShouldCreateANewAuthor() {
-        when(authorRepository.findByEmailIgnoreCase(authorDTO.getEmail())).thenReturn(Optional.empty());
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, authorDTO.getEmail())).thenReturn(true);
+        when(authorRepository.findByEmail(authorDTO.getEmail())).thenReturn(Optional.empty());
         author.setId(null);
         when(authorRepository.save(author)).thenReturn(author);
         authorDTO = authorService.save(authorDTO);
@@ -112,7 +130,8 @@ public class AuthorServiceTest {
     @DisplayName("(6) Should throw an ExistingResourceException exception " +
             "when trying to create an author with a registered email")
     void whenSaveMethodIsCalledWithARegisteredEmailThenThrowException() {
-        when(authorRepository.findByEmailIgnoreCase(author.getEmail())).thenReturn(Optional.of(author));
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, author.getEmail())).thenReturn(true);
+        when(authorRepository.findByEmail(author.getEmail())).thenReturn(Optional.of(author));
         author.setId(1L);
         assertThrows(ExistingResourceException.class, () -> authorService.save(authorDTO));
     }
@@ -120,7 +139,8 @@ public class AuthorServiceTest {
     @Test
     @DisplayName("(7) Should update an author by its id")
     void whenUpdateByIdMethodIsCalledThenReturnAnUpdatedAuthor() {
-        when(authorRepository.findByEmailIgnoreCase(author.getEmail())).thenReturn(Optional.empty());
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, author.getEmail())).thenReturn(true);
+        when(authorRepository.findByEmail(author.getEmail())).thenReturn(Optional.empty());
         when(authorRepository.findById(author.getId())).thenReturn(Optional.of(author));
         when(authorRepository.save(author)).thenReturn(author);
         authorDTO = authorService.updateById(authorDTO.getId(), authorDTO);
@@ -138,7 +158,8 @@ public class AuthorServiceTest {
             "when trying to update an author by its id with a new email but already registered")
     void whenUpdateByIdMethodIsCalledWithANewRegisteredEmailThenThrowException() {
         when(authorRepository.findById(author.getId())).thenReturn(Optional.of(author));
-        when(authorRepository.findByEmailIgnoreCase(author.getEmail())).thenReturn(Optional.of(Author.builder().build()));
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, author.getEmail())).thenReturn(true);
+        when(authorRepository.findByEmail(author.getEmail())).thenReturn(Optional.of(Author.builder().build()));
         assertThrows(ExistingResourceException.class, () -> authorService.updateById(author.getId(), authorDTO));
     }
 
@@ -150,6 +171,7 @@ public class AuthorServiceTest {
         authorService.deleteById(authorDTO.getId());
         verify(authorRepository, times(1)).findById(author.getId());
         verify(authorRepository, times(1)).deleteById(author.getId());
+        verify(eventPublisher, times(1)).publishEvent(isA(AuthorChangedEvent.class));
     }
 
     @Test
@@ -158,4 +180,37 @@ public class AuthorServiceTest {
     void whenAnInvalidIdIsGivenToDeleteAnAuthorThenThrowException() {
         assertThrows(ResourceNotFoundException.class, () -> authorService.deleteById(authorDTO.getId()));
     }
+
+    @Test
+    @DisplayName("(11) Should return a keyset page of authors searched by name")
+    void whenFindByNameIsCalledWithACursorThenReturnAKeysetPageOfAuthors() {
+        when(authorRepository.findByNamePageAfter("Nesbø", "", 0L, PageRequest.of(0, 21)))
+                .thenReturn(List.of(author));
+        CursorPage<AuthorDTO> cursorPage = authorService.findByNameContainingIgnoreCase("Nesbø", "", 20, Fieldset.ALL);
+        assertThat(cursorPage.getContent().get(0), is(equalTo(authorDTO)));
+        assertThat(cursorPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("(12) Should skip the email lookup when the unique key filter rules the email out")
+    void whenTheUniqueKeyFilterRulesTheEmailOutThenTheEmailIsNotLookedUp() {
+        author.setId(null);
+        when(authorRepository.save(author)).thenReturn(author);
+        authorService.save(authorDTO);
+        verify(authorRepository, never()).findByEmail(any());
+        verify(uniqueKeyFilter).add(UniqueKeyFilter.Key.EMAIL, author.getEmail());
+    }
+
+    @Test
+    @DisplayName("(13) Should update an author with an id above 127 that keeps its own email")
+    void whenUpdateByIdMethodIsCalledWithTheAuthorsOwnEmailThenTheEmailIsNotRejected() {
+        author.setId(1000L);
+        authorDTO.setId(1000L);
+        when(authorRepository.findById(1000L)).thenReturn(Optional.of(author));
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, author.getEmail())).thenReturn(true);
+        when(authorRepository.findByEmail(author.getEmail()))
+                .thenReturn(Optional.of(Author.builder().id(1000L).email(author.getEmail()).build()));
+        when(authorRepository.save(author)).thenReturn(author);
+        assertThat(authorService.updateById(1000L, authorDTO).getId(), is(equalTo(1000L)));
+    }
 }
@@ -0,0 +1,143 @@
+package com.bruno.project.services;
+
+import com.bruno.project.config.ExportConfig;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.enums.ExportFormat;
+import com.bruno.project.services.exceptions.TooManyExportsException;
+import com.bruno.project.services.impl.BookExportServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BookExportServiceImpl.class, ExportConfig.class})
+public class BookExportServiceTest {
+
+    private static final int BOOKS = 1200;
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Author author = entityManager.persist(Author.builder()
+                .name("Jo Nesbø")
+                .birthDate(LocalDate.parse("1960-03-29"))
+                .email("jonesbo@jonesbo.com")
+                .biography("Norwegian writer, musician, economist, and former soccer player and reporter.")
+                .build());
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = Book.builder()
+                    .isbn("978-" + (1000000000L + i))
+                    .title(i == 0 ? "Blood on Snow, \"The\" Novel" : "Book " + i)
+                    .printLength(100 + i)
+                    .language("English")
+                    .publicationYear("1997")
+                    .publisher("Harvill Secker")
+                    .bookGenre(BookGenre.THRILLER)
+                    .build();
+            book.getAuthors().add(author);
+            ids.add(entityManager.persist(book).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("(1) Every book is read and exported once, in ID order, with its authors and one join query per chunk")
+    void whenCatalogIsExportedThenEveryBookIsStreamedInIdOrder() throws IOException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String[] lines = export(0L, ExportFormat.NDJSON);
+
+        assertThat(lines.length, is(BOOKS));
+        for (int i = 0; i < BOOKS; i++) {
+            JsonNode book = objectMapper.readTree(lines[i]);
+            assertThat(book.get("id").asLong(), is(ids.get(i)));
+            assertThat(book.get("authors").get(0).get("name").asText(), is("Jo Nesbø"));
+        }
+        assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(4L));
+        assertThat(statistics.getEntityStatistics(Book.class.getName()).getLoadCount(), is((long) BOOKS));
+    }
+
+    @Test
+    @DisplayName("(2) The export resumes after the last emitted ID")
+    void whenExportIsResumedThenOnlyLaterBooksAreStreamed() throws IOException {
+        String[] lines = export(ids.get(999), ExportFormat.NDJSON);
+
+        assertThat(lines.length, is(BOOKS - 1000));
+        assertThat(objectMapper.readTree(lines[0]).get("id").asLong(), is(ids.get(1000)));
+    }
+
+    @Test
+    @DisplayName("(3) The CSV export has a header and quotes fields when needed")
+    void whenCatalogIsExportedAsCsvThenFieldsAreQuoted() throws IOException {
+        String[] lines = export(0L, ExportFormat.CSV);
+
+        assertThat(lines.length, is(BOOKS + 1));
+        assertThat(lines[0].startsWith("id,isbn,title,"), is(true));
+        assertThat(lines[1], is(ids.get(0) + ",978-1000000000,\"Blood on Snow, \"\"The\"\" Novel\",100,English,1997," +
+                "Harvill Secker,,,THRILLER," + entityManager.find(Book.class, ids.get(0)).getAuthors().iterator().next().getId()));
+    }
+
+    @Test
+    @DisplayName("(4) No more exports than the configured maximum run at the same time")
+    void whenTooManyExportsAreReservedThenTheNextOneIsRefused() throws IOException {
+        Closeable first = bookExportService.reserve();
+        Closeable second = bookExportService.reserve();
+
+        assertThrows(TooManyExportsException.class, bookExportService::reserve);
+
+        first.close();
+        first.close();
+        Closeable third = bookExportService.reserve();
+        assertThrows(TooManyExportsException.class, bookExportService::reserve);
+        second.close();
+        third.close();
+    }
+
+    private String[] export(Long afterId, ExportFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookExportService.exportBooks(afterId, format, output);
+        return output.toString(StandardCharsets.UTF_8).split("\n");
+    }
+}
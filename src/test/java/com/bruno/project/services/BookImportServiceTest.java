@@ -0,0 +1,237 @@
+package com.bruno.project.services;
+
+import com.bruno.project.config.ExportConfig;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.enums.ExportFormat;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.codec.BinaryCodecs;
+import com.bruno.project.services.impl.AuthorResolver;
+import com.bruno.project.services.impl.BookExportServiceImpl;
+import com.bruno.project.services.impl.BookImportServiceImpl;
+import com.bruno.project.services.index.UniqueKeyFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.core.Is.is;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({BookImportServiceImpl.class, BookExportServiceImpl.class, ExportConfig.class, AuthorResolver.class,
+        UniqueKeyFilter.class, BinaryCodecs.class})
+public class BookImportServiceTest {
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookExportService bookExportService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UniqueKeyFilter uniqueKeyFilter;
+
+    @Autowired
+    private BinaryCodecs binaryCodecs;
+
+    private Author author;
+
+    @BeforeEach
+    void setUp() {
+        author = authorRepository.save(Author.builder()
+                .name("Jo Nesbø")
+                .birthDate(LocalDate.parse("1960-03-29"))
+                .email("jonesbo@jonesbo.com")
+                .biography("Norwegian writer, musician, economist, and former soccer player and reporter.")
+                .urlPicture("0284334234.jpg")
+                .build());
+        bookRepository.save(Book.builder()
+                .isbn("9780000000019")
+                .title("The Bat")
+                .printLength(432)
+                .language("English")
+                .publicationYear("1997")
+                .publisher("Harvill Secker")
+                .urlCover("51264896706_e66beed079_n.jpg")
+                .bookGenre(BookGenre.THRILLER)
+                .build());
+        uniqueKeyFilter.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("(1) Each line of the stream is reported as created or rejected")
+    void whenBooksAreImportedThenEachLineIsReported() throws IOException {
+        String input = String.join("\n",
+                book("9780000000026", author.getId()),
+                "not a book",
+                book("9780000000019", author.getId()),
+                book("9780000000033", author.getId() + 1000),
+                "",
+                book("9780000000026", author.getId()),
+                "{\"isbn\": \"9780000000040\"}");
+
+        List<JsonNode> report = importBooks(input);
+
+        assertThat(report.size(), is(6));
+        assertThat(report.get(0).get("status").asText(), is("CREATED"));
+        assertThat(bookRepository.findByIsbn("9780000000026").get().getId(), is(report.get(0).get("id").asLong()));
+        assertThat(report.get(1).get("status").asText(), is("REJECTED"));
+        assertThat(report.get(2).get("message").asText(), containsString("already registered"));
+        assertThat(report.get(3).get("message").asText(), containsString("Authors not found"));
+        assertThat(report.get(4).get("line").asLong(), is(6L));
+        assertThat(report.get(4).get("message").asText(), containsString("appears more than once"));
+        assertThat(report.get(5).get("message").asText(), containsString("title"));
+        assertThat(bookRepository.count(), is(2L));
+    }
+
+    @Test
+    @DisplayName("(2) Books imported in more than one chunk are all inserted with their authors")
+    void whenImportSpansSeveralChunksThenEveryBookIsInserted() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            lines.add(book(isbn(100000 + i), author.getId()));
+        }
+
+        List<JsonNode> report = importBooks(String.join("\n", lines));
+
+        assertThat(report.stream().allMatch(line -> line.get("status").asText().equals("CREATED")), is(true));
+        assertThat(bookRepository.count(), is(1201L));
+        assertThat(bookRepository.findIdPageByAuthorName("Nesbø", Pageable.unpaged())
+                .getTotalElements(), is(1200L));
+    }
+
+    @Test
+    @DisplayName("(3) Books sent as a CBOR sequence or as delimited Protobuf messages are reported per record")
+    void whenBinaryBooksAreImportedThenEachRecordIsReported() throws IOException {
+        ByteArrayOutputStream cbor = new ByteArrayOutputStream();
+        for (String isbn : List.of("9780000000026", "9780000000019")) {
+            cbor.write(binaryCodecs.mapper(BinaryFormat.CBOR).writeValueAsBytes(objectMapper.readTree(book(isbn,
+                    author.getId()))));
+        }
+        List<JsonNode> report = importBooks(cbor.toByteArray(), BinaryFormat.CBOR);
+        assertThat(report.get(0).get("status").asText(), is("CREATED"));
+        assertThat(report.get(1).get("message").asText(), containsString("already registered"));
+
+        ByteArrayOutputStream protobuf = new ByteArrayOutputStream();
+        for (String isbn : List.of("9780000000033", "9780000000040")) {
+            byte[] message = binaryCodecs.writer(BinaryFormat.PROTOBUF, BookDTO.class)
+                    .writeValueAsBytes(objectMapper.readValue(book(isbn, author.getId()), BookDTO.class));
+            protobuf.write(message.length);
+            protobuf.write(message);
+        }
+        protobuf.write(new byte[]{42, 1});
+        report = importBooks(protobuf.toByteArray(), BinaryFormat.PROTOBUF);
+        assertThat(report.size(), is(3));
+        assertThat(report.get(1).get("status").asText(), is("CREATED"));
+        assertThat(report.get(2).get("message").asText(), containsString("truncated"));
+        assertThat(bookRepository.findByIsbn("9780000000040").get().getTitle(), is("The Snowman"));
+        assertThat(bookRepository.count(), is(4L));
+    }
+
+    @Test
+    @DisplayName("(4) Books exported as NDJSON are imported back with every field, synopsis included")
+    void whenExportedBooksAreImportedThenNoFieldIsLost() throws IOException {
+        Book snowman = Book.builder()
+                .isbn("9780000000026")
+                .title("The Snowman")
+                .printLength(400)
+                .language("English")
+                .publicationYear("2007")
+                .publisher("Harvill Secker")
+                .urlCover("snowman.jpg")
+                .synopsis("Oslo, the first snow of the year, and a snowman in a garden.")
+                .bookGenre(BookGenre.THRILLER)
+                .build();
+        snowman.getAuthors().add(author);
+        bookRepository.save(snowman);
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        bookExportService.exportBooks(0L, ExportFormat.NDJSON, export);
+        bookRepository.deleteAll();
+
+        List<JsonNode> report = importBooks(export.toString(StandardCharsets.UTF_8));
+
+        assertThat(report.size(), is(2));
+        assertThat(report.stream().allMatch(line -> line.get("status").asText().equals("CREATED")), is(true));
+        Book book = bookRepository.findByIsbn("9780000000026").get();
+        assertThat(book.getSynopsis(), is("Oslo, the first snow of the year, and a snowman in a garden."));
+        assertThat(book.getUrlCover(), is("snowman.jpg"));
+        assertThat(bookRepository.findIdPageByAuthorName("Nesbø", Pageable.unpaged()).getTotalElements(), is(1L));
+    }
+
+    private List<JsonNode> importBooks(byte[] input, BinaryFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookImportService.importBooks(new ByteArrayInputStream(input), format, output);
+        return report(output);
+    }
+
+    private List<JsonNode> importBooks(String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bookImportService.importBooks(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+        return report(output);
+    }
+
+    private List<JsonNode> report(ByteArrayOutputStream output) throws IOException {
+        List<JsonNode> report = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            report.add(objectMapper.readTree(line));
+        }
+        return report;
+    }
+
+    private String book(String isbn, Long authorId) {
+        return "{\"isbn\": \"" + isbn + "\", \"title\": \"The Snowman\", \"printLength\": 400, " +
+                "\"language\": \"English\", \"publicationYear\": \"2007\", \"bookGenre\": \"THRILLER\", " +
+                "\"authors\": [{\"id\": " + authorId + "}]}";
+    }
+
+    private static String isbn(int number) {
+        String prefix = "978" + String.format("%09d", number);
+        int sum = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            sum += (prefix.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return prefix + (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,241 @@
+package com.bruno.project.services;
+
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.FacetCount;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.projections.VersionStamp;
+import com.bruno.project.services.exceptions.InvalidFieldsetException;
+import com.bruno.project.services.exceptions.InvalidPatchException;
+import com.bruno.project.services.exceptions.PreconditionFailedException;
+import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import com.bruno.project.services.impl.AuthorResolver;
+import com.bruno.project.services.impl.BookServiceImpl;
+import com.bruno.project.services.index.BookFacetIndex;
+import com.bruno.project.services.index.BookSearchIndex;
+import com.bruno.project.services.index.SuggestIndex;
+import com.bruno.project.services.index.UniqueKeyFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import javax.persistence.EntityManagerFactory;
+import javax.validation.ConstraintViolationException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({BookServiceImpl.class, AuthorResolver.class, BookSearchIndex.class, BookFacetIndex.class,
+        SuggestIndex.class, UniqueKeyFilter.class})
+public class BookServiceQueryCountTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 100; i++) {
+            Book book = Book.builder()
+                    .isbn("978-" + (1000000000L + i))
+                    .title("Book " + i)
+                    .printLength(100 + i)
+                    .language("English")
+                    .publicationYear("1997")
+                    .publisher("Harvill Secker")
+                    .bookGenre(BookGenre.DRAMA)
+                    .build();
+            for (int j = 0; j < 3; j++) {
+                book.getAuthors().add(entityManager.persist(Author.builder()
+                        .name("Author " + i + "-" + j)
+                        .birthDate(LocalDate.parse("1960-03-29"))
+                        .email("author" + i + "-" + j + "@books.com")
+                        .biography("Biography")
+                        .build()));
+            }
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("(1) Should load a page of 100 books and their authors with at most 3 statements")
+    void whenAPageOf100BooksIsLoadedThenTheStatementCountDoesNotDependOnThePageSize() {
+        PageEnvelope<BookDTO> page = bookService.findAll(PageRequest.of(0, 100, Sort.by("title")), Fieldset.ALL);
+        page.getContent().forEach(book -> assertThat(book.getAuthors().size(), is(equalTo(3))));
+        assertThat(page.getContent().size(), is(equalTo(100)));
+        assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo(3L)));
+    }
+
+    @Test
+    @DisplayName("(2) Should change the version stamps when a book author is updated")
+    void whenAnAuthorIsUpdatedThenTheBookVersionStampsChange() {
+        Long id = bookService.findAll(PageRequest.of(0, 1, Sort.by("title")), Fieldset.ALL).getContent().get(0).getId();
+        VersionStamp book = bookService.findVersionStamp(id);
+        List<Long> stamps = sums(bookService.findVersionStamps());
+
+        Author author = entityManager.find(Book.class, id).getAuthors().get(0);
+        author.setName(author.getName() + " Jr.");
+        entityManager.flush();
+
+        assertThat(bookService.findVersionStamp(id).getVersionSum(), is(equalTo(book.getVersionSum() + 1)));
+        assertThat(sums(bookService.findVersionStamps()), is(not(equalTo(stamps))));
+    }
+
+    @Test
+    @DisplayName("(3) Should throw a PreconditionFailedException when the expected version is not the current one")
+    void whenABookIsUpdatedWithAStaleVersionThenThrowPreconditionFailedException() {
+        BookDTO book = bookService.findAll(PageRequest.of(0, 1, Sort.by("title")), Fieldset.ALL).getContent().get(0);
+        book.setVersion(book.getVersion() + 1);
+        assertThrows(PreconditionFailedException.class, () -> bookService.updateById(book.getId(), book));
+    }
+
+    @Test
+    @DisplayName("(4) Should patch only the given fields with a single UPDATE statement")
+    void whenABookIsPatchedThenOnlyOneStatementIsIssued() throws Exception {
+        BookDTO book = bookService.findAll(PageRequest.of(0, 1, Sort.by("title")), Fieldset.ALL).getContent().get(0);
+        statistics.clear();
+
+        bookService.patchById(book.getId(), book.getVersion(), patch("{\"title\": \"The Snowman\", \"publisher\": null}"));
+
+        assertThat(statistics.getPrepareStatementCount(), is(equalTo(1L)));
+        entityManager.clear();
+        Book patched = entityManager.find(Book.class, book.getId());
+        assertThat(patched.getTitle(), is(equalTo("The Snowman")));
+        assertThat(patched.getPublisher(), is(nullValue()));
+        assertThat(patched.getLanguage(), is(equalTo(book.getLanguage())));
+        assertThat(patched.getVersion(), is(equalTo(book.getVersion() + 1)));
+    }
+
+    @Test
+    @DisplayName("(5) Should throw a conflict when the patched book has another version, or not found when it is gone")
+    void whenNoRowIsPatchedThenThrowConflictOrNotFound() throws Exception {
+        BookDTO book = bookService.findAll(PageRequest.of(0, 1, Sort.by("title")), Fieldset.ALL).getContent().get(0);
+        JsonNode patch = patch("{\"title\": \"The Snowman\"}");
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> bookService.patchById(book.getId(), book.getVersion() + 1, patch));
+        assertThrows(ResourceNotFoundException.class, () -> bookService.patchById(-1L, null, patch));
+    }
+
+    @Test
+    @DisplayName("(6) Should reject patches of unknown or relation fields and invalid values")
+    void whenThePatchIsNotAllowedThenThrowInvalidPatchException() throws Exception {
+        Long id = bookService.findAll(PageRequest.of(0, 1, Sort.by("title")), Fieldset.ALL).getContent().get(0).getId();
+        statistics.clear();
+        assertThrows(InvalidPatchException.class, () -> bookService.patchById(id, null, patch("{\"authors\": []}")));
+        assertThrows(InvalidPatchException.class, () -> bookService.patchById(id, null, patch("{\"printLength\": \"many\"}")));
+        assertThrows(ConstraintViolationException.class,
+                () -> bookService.patchById(id, null, patch("{\"title\": \"\"}")));
+        assertThrows(ConstraintViolationException.class,
+                () -> bookService.patchById(id, null, patch("{\"publicationYear\": null}")));
+        assertThat(statistics.getPrepareStatementCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    @DisplayName("(7) Should select only the requested columns of a sparse page of books and their authors")
+    void whenASparsePageIsLoadedThenOnlyTheRequestedFieldsAreSet() {
+        PageEnvelope<BookDTO> page = bookService.findAll(PageRequest.of(0, 100, Sort.by("title")),
+                Fieldset.parse("title,authors.name"));
+        assertThat(page.getContent().size(), is(equalTo(100)));
+        page.getContent().forEach(book -> {
+            assertThat(book.getTitle(), is(not(nullValue())));
+            assertThat(book.getIsbn(), is(nullValue()));
+            assertThat(book.getAuthors().size(), is(equalTo(3)));
+            book.getAuthors().forEach(author -> {
+                assertThat(author.getName(), is(not(nullValue())));
+                assertThat(author.getEmail(), is(nullValue()));
+            });
+        });
+        assertThat(page.getContent().get(0).getTitle(), is(equalTo("Book 0")));
+        assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo(4L)));
+        assertThat(statistics.getEntityLoadCount(), is(equalTo(0L)));
+    }
+
+    @Test
+    @DisplayName("(8) Should walk a sparse keyset page and reject unknown fields")
+    void whenASparseKeysetPageIsLoadedThenTheCursorStillWorks() {
+        CursorPage<BookDTO> first = bookService.findAll("", 60, Fieldset.parse("isbn"));
+        CursorPage<BookDTO> second = bookService.findAll(first.getNextCursor(), 60, Fieldset.parse("isbn"));
+        assertThat(first.getContent().size() + second.getContent().size(), is(equalTo(100)));
+        assertThat(second.getContent().get(0).getIsbn(), is(not(nullValue())));
+        assertThat(second.getContent().get(0).getAuthors().isEmpty(), is(true));
+        assertThrows(InvalidFieldsetException.class, () -> bookService.findAll("", 20, Fieldset.parse("version")));
+        assertThrows(InvalidFieldsetException.class,
+                () -> bookService.findAll(PageRequest.of(0, 20), Fieldset.parse("authors.books")));
+    }
+
+    @Test
+    @DisplayName("(9) Should search the facet bitmaps and count facet values without grouping queries")
+    void whenBooksAreSearchedByFacetsThenTheCountsComeFromTheIndex() {
+        bookFacetIndex.rebuild();
+        statistics.clear();
+        PageEnvelope<BookDTO> page = bookService.search(BookFacetQuery.builder()
+                .bookGenre(List.of(BookGenre.DRAMA)).language(List.of("English")).build(),
+                PageRequest.of(1, 30, Sort.by("title")), Fieldset.ALL);
+        assertThat(page.getTotalElements(), is(equalTo(100L)));
+        assertThat(page.getContent().size(), is(equalTo(30)));
+        assertThat(page.getContent().get(0).getTitle(), is(equalTo("Book 36")));
+        assertThat(page.getFacets().get("publisher"), contains(new FacetCount("Harvill Secker", 100)));
+        assertThat(statistics.getPrepareStatementCount(), is(lessThanOrEqualTo(3L)));
+
+        page = bookService.search(BookFacetQuery.builder().publisher(List.of("Vintage")).build(),
+                PageRequest.of(0, 30), Fieldset.ALL);
+        assertThat(page.getContent().isEmpty(), is(true));
+        assertThat(page.getFacets().get("bookGenre").isEmpty(), is(true));
+        assertThat(page.getFacets().get("publisher"), contains(new FacetCount("Harvill Secker", 100)));
+    }
+
+    private JsonNode patch(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+
+    private static List<Long> sums(List<VersionStamp> stamps) {
+        return stamps.stream().map(VersionStamp::getVersionSum).collect(Collectors.toList());
+    }
+}
@@ -1,13 +1,25 @@
 package com.bruno.project.services;
 
 import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
 import com.bruno.project.entities.Author;
 import com.bruno.project.entities.Book;
 import com.bruno.project.enums.BookGenre;
 import com.bruno.project.repositories.BookRepository;
 import com.bruno.project.services.exceptions.ExistingResourceException;
+import com.bruno.project.services.exceptions.InvalidCursorException;
+import com.bruno.project.services.exceptions.InvalidSortException;
 import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import com.bruno.project.services.impl.AuthorResolver;
 import com.bruno.project.services.impl.BookServiceImpl;
+import com.bruno.project.services.index.BookFacetIndex;
+import com.bruno.project.services.index.BookSearchIndex;
+import com.bruno.project.services.index.FacetResult;
+import com.bruno.project.services.index.SuggestIndex;
+import com.bruno.project.services.index.UniqueKeyFilter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,17 +28,21 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
@@ -57,23 +73,48 @@ public class BookServiceTest {
 
     private BookDTO bookDTO = BookDTO.toDTO(book);
 
-    private Page<Book> page = new PageImpl<Book>(Collections.singletonList(book));
+    private Page<Long> idPage = new PageImpl<Long>(Collections.singletonList(1L));
 
-    private Page<BookDTO> pageDTO;
+    private PageEnvelope<BookDTO> pageDTO;
 
     private PageRequest pageRequest = PageRequest.of(0, 1);
 
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private AuthorResolver authorResolver;
+
+    @Mock
+    private BookSearchIndex bookSearchIndex;
+
+    @Mock
+    private UniqueKeyFilter uniqueKeyFilter;
+
+    @Mock
+    private BookFacetIndex bookFacetIndex;
+
+    @Mock
+    private SuggestIndex suggestIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookServiceImpl bookService;
 
+    private void givenTheBookIsStored() {
+        book.setId(1L);
+        bookDTO.setId(1L);
+        when(bookRepository.findWithAuthorsByIdIn(idPage.getContent())).thenReturn(List.of(book));
+    }
+
     @Test
     @DisplayName("(1) Should return a Page of Books")
     void whenFindAllIsCalledThenReturnAPageOfBooks() {
-        when(bookRepository.findAll(pageRequest)).thenReturn(page);
-        pageDTO = bookService.findAll(pageRequest);
+        givenTheBookIsStored();
+        when(bookRepository.findIdPage(pageRequest)).thenReturn(idPage);
+        pageDTO = bookService.findAll(pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
         assertThat(pageDTO.getTotalElements(), is(equalTo(1L)));
@@ -83,17 +124,17 @@ public class BookServiceTest {
     @Test
     @DisplayName("(2) Should return an empty Page of Books")
     void whenFindAllIsCalledThenReturnAnEmptyPageOfBooks() {
-        when(bookRepository.findAll(pageRequest)).thenReturn(Page.empty());
-        pageDTO = bookService.findAll(pageRequest);
+        when(bookRepository.findIdPage(pageRequest)).thenReturn(Page.empty());
+        pageDTO = bookService.findAll(pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
     @Test
     @DisplayName("(3) Should return a Page of Books searched by title")
     void whenFindByTitleIgnoreCaseIsCalledThenReturnAPageOfBooks() {
-        when(bookRepository.findByTitleContainingIgnoreCase("searchedText", pageRequest))
-                .thenReturn(page);
-        pageDTO = bookService.findByTitleContainingIgnoreCase("searchedText", pageRequest);
+        givenTheBookIsStored();
+        when(bookRepository.findIdPageByTitle("searchedText", pageRequest)).thenReturn(idPage);
+        pageDTO = bookService.findByTitleContainingIgnoreCase("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
         assertThat(pageDTO.getTotalElements(), is(equalTo(1L)));
@@ -103,17 +144,17 @@ public class BookServiceTest {
     @Test
     @DisplayName("(4) Should return an empty Page of Books when a language is entered")
     void whenFindByTitleIgnoreCaseIsCalledThenReturnAnEmptyPageOfBooks() {
-        when(bookRepository.findByLanguageContainingIgnoreCase("searchedText", pageRequest)).thenReturn(Page.empty());
-        pageDTO = bookService.findByLanguageContainingIgnoreCase("searchedText", pageRequest);
+        when(bookRepository.findIdPageByLanguage("searchedText", pageRequest)).thenReturn(Page.empty());
+        pageDTO = bookService.findByLanguageContainingIgnoreCase("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
     @Test
     @DisplayName("(5) Should return a Page of Books searched by language")
     void whenFindByLanguageIgnoreCaseIsCalledThenReturnAPageOfBooks() {
-        when(bookRepository.findByLanguageContainingIgnoreCase("searchedText", pageRequest))
-                .thenReturn(page);
-        pageDTO = bookService.findByLanguageContainingIgnoreCase("searchedText", pageRequest);
+        givenTheBookIsStored();
+        when(bookRepository.findIdPageByLanguage("searchedText", pageRequest)).thenReturn(idPage);
+        pageDTO = bookService.findByLanguageContainingIgnoreCase("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
         assertThat(pageDTO.getTotalElements(), is(equalTo(1L)));
@@ -123,17 +164,17 @@ public class BookServiceTest {
     @Test
     @DisplayName("(6) Should return an empty Page of Books when a language is entered")
     void whenFindByLanguageIgnoreCaseIsCalledThenReturnAnEmptyPageOfBooks() {
-        when(bookRepository.findByLanguageContainingIgnoreCase("searchedText", pageRequest)).thenReturn(Page.empty());
-        pageDTO = bookService.findByLanguageContainingIgnoreCase("searchedText", pageRequest);
+        when(bookRepository.findIdPageByLanguage("searchedText", pageRequest)).thenReturn(Page.empty());
+        pageDTO = bookService.findByLanguageContainingIgnoreCase("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
     @Test
     @DisplayName("(7) Should return a Page of Books searched by publisher")
     void whenFindByPublisherIgnoreCaseIsCalledThenReturnAPageOfBooks() {
-        when(bookRepository.findByPublisherContainingIgnoreCase("searchedText", pageRequest))
-                .thenReturn(page);
-        pageDTO = bookService.findByPublisherContainingIgnoreCase("searchedText", pageRequest);
+        givenTheBookIsStored();
+        when(bookRepository.findIdPageByPublisher("searchedText", pageRequest)).thenReturn(idPage);
+        pageDTO = bookService.findByPublisherContainingIgnoreCase("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
         assertThat(pageDTO.getTotalElements(), is(equalTo(1L)));
@@ -143,17 +184,17 @@ public class BookServiceTest {
     @Test
     @DisplayName("(8) Should return an empty Page of Books when a publisher is entered")
     void whenFindByPublisherIgnoreCaseIsCalledThenReturnAnEmptyPageOfBooks() {
-        when(bookRepository.findByPublisherContainingIgnoreCase("searchedText", pageRequest)).thenReturn(Page.empty());
-        pageDTO = bookService.findByPublisherContainingIgnoreCase("searchedText", pageRequest);
+        when(bookRepository.findIdPageByPublisher("searchedText", pageRequest)).thenReturn(Page.empty());
+        pageDTO = bookService.findByPublisherContainingIgnoreCase("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
     @Test
     @DisplayName("(9) Should return a Page of Books searched by author name")
     void whenFindBooksByAuthorNameIsCalledThenReturnAPageOfBooks() {
-        when(bookRepository.findBooksByAuthorName("searchedText", pageRequest))
-                .thenReturn(page);
-        pageDTO = bookService.findBooksByAuthorName("searchedText", pageRequest);
+        givenTheBookIsStored();
+        when(bookRepository.findIdPageByAuthorName("searchedText", pageRequest)).thenReturn(idPage);
+        pageDTO = bookService.findBooksByAuthorName("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getTotalPages(), is(equalTo(1)));
         assertThat(pageDTO.getSize(), is(equalTo(1)));
         assertThat(pageDTO.getTotalElements(), is(equalTo(1L)));
@@ -163,14 +204,15 @@ public class BookServiceTest {
     @Test
     @DisplayName("(10) Should return an empty Page of Books when an author name is entered")
     void whenFindBooksByAuthorNameIsCalledThenReturnAnEmptyPageOfBooks() {
-        when(bookRepository.findBooksByAuthorName("searchedText", pageRequest)).thenReturn(Page.empty());
-        pageDTO = bookService.findBooksByAuthorName("searchedText", pageRequest);
+        when(bookRepository.findIdPageByAuthorName("searchedText", pageRequest)).thenReturn(Page.empty());
+        pageDTO = bookService.findBooksByAuthorName("searchedText", pageRequest, Fieldset.ALL);
         assertThat(pageDTO.getContent(), is(empty()));
     }
 
     @Test
     @DisplayName("(11) Should save a new Book")
     void whenANewBookIsGivenThenItShouldBeSaved() {
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, book.getIsbn())).thenReturn(true);
         when(bookRepository.findByIsbn(book.getIsbn())).thenReturn(Optional.empty());
         when(bookRepository.save(book)).thenReturn(book);
         bookDTO = bookService.save(bookDTO);
@@ -189,6 +231,7 @@ public class BookServiceTest {
     @Test
     @DisplayName("(12) Should throw a ExistingResourceException exception")
     void whenISBNAlreadyRegisteredIsGivenToSaveANewBookThenThrowAnException() {
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, book.getIsbn())).thenReturn(true);
         when(bookRepository.findByIsbn(book.getIsbn())).thenReturn(Optional.of(book));
         book.setId(1L);
         assertThrows(ExistingResourceException.class, () -> bookService.save(bookDTO));
@@ -235,4 +278,78 @@ public class BookServiceTest {
         when(bookRepository.findById(book.getId())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> bookService.deleteById(bookDTO.getId()));
     }
+
+    @Test
+    @DisplayName("(17) Should return a keyset page of Books and the cursor of the next one")
+    void whenFindAllIsCalledWithACursorThenReturnAKeysetPageOfBooks() {
+        book.setId(1L);
+        Book nextBook = Book.builder().id(2L).title("The Cockroaches").build();
+        when(bookRepository.findIdsAfter("", 0L, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(bookRepository.findIdsAfter(book.getTitle(), book.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(2L));
+        when(bookRepository.findWithAuthorsByIdIn(List.of(1L, 2L))).thenReturn(List.of(nextBook, book));
+        when(bookRepository.findWithAuthorsByIdIn(List.of(2L))).thenReturn(List.of(nextBook));
+        CursorPage<BookDTO> cursorPage = bookService.findAll("", 1, Fieldset.ALL);
+        assertThat(cursorPage.getContent().size(), is(equalTo(1)));
+        assertThat(cursorPage.getContent().get(0), is(equalTo(BookDTO.toDTO(book))));
+        cursorPage = bookService.findAll(cursorPage.getNextCursor(), 1, Fieldset.ALL);
+        assertThat(cursorPage.getContent().get(0), is(equalTo(BookDTO.toDTO(nextBook))));
+        assertThat(cursorPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("(18) Should throw an InvalidCursorException exception when a malformed cursor is supplied")
+    void whenAMalformedCursorIsGivenThenThrowAnException() {
+        assertThrows(InvalidCursorException.class, () -> bookService.findAll("not-a-cursor", 20, Fieldset.ALL));
+    }
+
+    @Test
+    @DisplayName("(19) Should resolve a title search through the search index")
+    void whenTheSearchIndexAnswersATitleSearchThenTheDatabaseIsNotScanned() {
+        book.setId(1L);
+        when(bookSearchIndex.findByTitle("bat")).thenReturn(Optional.of(Set.of(1L)));
+        when(bookRepository.findWithAuthorsByIdIn(List.of(1L))).thenReturn(List.of(book));
+        pageDTO = bookService.findByTitleContainingIgnoreCase("bat", pageRequest, Fieldset.ALL);
+        assertThat(pageDTO.getTotalElements(), is(equalTo(1L)));
+        assertThat(pageDTO.getContent().get(0), is(equalTo(BookDTO.toDTO(book))));
+        verify(bookRepository, never()).findIdPageByTitle("bat", pageRequest);
+    }
+
+    @Test
+    @DisplayName("(20) Should skip the ISBN lookup when the unique key filter rules the ISBN out")
+    void whenTheUniqueKeyFilterRulesTheISBNOutThenTheISBNIsNotLookedUp() {
+        when(bookRepository.save(book)).thenReturn(book);
+        bookService.save(bookDTO);
+        verify(bookRepository, never()).findByIsbn(any());
+        verify(uniqueKeyFilter).add(UniqueKeyFilter.Key.ISBN, book.getIsbn());
+    }
+
+    @Test
+    @DisplayName("(21) Should reject sorting a faceted search with too many matches unless it is sorted by ID")
+    void whenAFacetedSearchMatchesTooManyBooksToSortThenAnExceptionIsThrown() {
+        FacetResult result = mock(FacetResult.class);
+        BookFacetQuery query = new BookFacetQuery();
+        when(bookFacetIndex.search(query)).thenReturn(Optional.of(result));
+        when(result.getTotal()).thenReturn(10_001L);
+        assertThrows(InvalidSortException.class,
+                () -> bookService.search(query, PageRequest.of(0, 20, Sort.by("title")), Fieldset.ALL));
+
+        when(result.page(0, 20)).thenReturn(List.of());
+        pageDTO = bookService.search(query, PageRequest.of(0, 20, Sort.by("id")), Fieldset.ALL);
+        assertThat(pageDTO.getTotalElements(), is(equalTo(10_001L)));
+        verify(bookRepository, never()).findIdPageByIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("(22) Should update a book with an id above 127 that keeps its own ISBN")
+    void whenAnIdAbove127IsGivenToUpdateABookWithItsOwnISBNThenTheISBNIsNotRejected() {
+        book.setId(1000L);
+        bookDTO.setId(1000L);
+        when(bookRepository.findById(1000L)).thenReturn(Optional.of(book));
+        when(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, book.getIsbn())).thenReturn(true);
+        when(bookRepository.findByIsbn(book.getIsbn()))
+                .thenReturn(Optional.of(Book.builder().id(1000L).isbn(book.getIsbn()).build()));
+        when(bookRepository.save(book)).thenReturn(book);
+        assertThat(bookService.updateById(1000L, bookDTO).getId(), is(equalTo(1000L)));
+    }
 }
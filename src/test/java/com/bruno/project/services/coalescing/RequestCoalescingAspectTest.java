@@ -0,0 +1,150 @@
+package com.bruno.project.services.coalescing;
+
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class RequestCoalescingAspectTest {
+
+    public static class Catalog {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private volatile CountDownLatch started = new CountDownLatch(1);
+
+        private volatile CountDownLatch release = new CountDownLatch(0);
+
+        @Coalesced({CatalogType.BOOK, CatalogType.AUTHOR})
+        public List<String> findAll(Pageable pageable) throws InterruptedException {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            if (pageable.getPageNumber() < 0) throw new IllegalStateException();
+            if (pageable.getPageNumber() == 9) throw new ResourceNotFoundException("The page was not found!");
+            return new ArrayList<>(List.of("page " + pageable.getPageNumber()));
+        }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    private RequestCoalescingAspect aspect;
+
+    private Catalog target;
+
+    private Catalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        target = new Catalog();
+        aspect = new RequestCoalescingAspect(registry);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        catalog = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("(1) Should run identical concurrent calls once and share the result")
+    void whenIdenticalCallsOverlapThenTheyShareOneComputation() throws Exception {
+        target.release = new CountDownLatch(1);
+        Future<List<String>> leader = executor.submit(() -> catalog.findAll(PageRequest.of(0, 20, Sort.by("title"))));
+        target.started.await(5, TimeUnit.SECONDS);
+        List<Future<List<String>>> followers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(executor.submit(() -> catalog.findAll(PageRequest.of(0, 20, Sort.by("title")))));
+        }
+        Future<List<String>> otherPage = executor.submit(() -> catalog.findAll(PageRequest.of(1, 20,
+                Sort.by("title"))));
+        awaitFollowers(5);
+        target.release.countDown();
+
+        for (Future<List<String>> follower : followers) assertThat(follower.get(), is(sameInstance(leader.get())));
+        assertThat(otherPage.get(), is(equalTo(List.of("page 1"))));
+        assertThat(target.calls.get(), is(equalTo(2)));
+        assertThat(registry.get(RequestCoalescingAspect.METRIC_PREFIX + ".calls").tag("role", "leader")
+                .counter().count(), is(equalTo(2.0)));
+        assertThat(registry.get(RequestCoalescingAspect.METRIC_PREFIX + ".wait").timer().count(), is(equalTo(5L)));
+        assertThat(aspect.inFlight(), is(equalTo(0)));
+    }
+
+    @Test
+    @DisplayName("(2) Should not share a call that started before a write completed")
+    void whenAWriteCompletesDuringACallThenLaterCallsRunAgain() throws Exception {
+        target.release = new CountDownLatch(1);
+        Future<List<String>> before = executor.submit(() -> catalog.findAll(PageRequest.of(0, 20)));
+        target.started.await(5, TimeUnit.SECONDS);
+        aspect.onAuthorChanged(AuthorChangedEvent.deleted(1L));
+        target.started = new CountDownLatch(1);
+        Future<List<String>> after = executor.submit(() -> catalog.findAll(PageRequest.of(0, 20)));
+        target.started.await(5, TimeUnit.SECONDS);
+        target.release.countDown();
+
+        assertThat(after.get(), is(equalTo(before.get())));
+        assertThat(after.get(), is(not(sameInstance(before.get()))));
+        assertThat(target.calls.get(), is(equalTo(2)));
+
+        aspect.onBookChanged(BookChangedEvent.deleted(1L));
+        catalog.findAll(PageRequest.of(0, 20));
+        assertThat(target.calls.get(), is(equalTo(3)));
+    }
+
+    @Test
+    @DisplayName("(3) Should hand the leader's exception to every caller that joined it")
+    void whenTheSharedCallFailsThenEveryCallerGetsTheException() throws Exception {
+        target.release = new CountDownLatch(1);
+        Future<List<String>> leader = executor.submit(() -> catalog.findAll(PageRequest.of(9, 20)));
+        target.started.await(5, TimeUnit.SECONDS);
+        Future<List<String>> follower = executor.submit(() -> catalog.findAll(PageRequest.of(9, 20)));
+        awaitFollowers(1);
+        target.release.countDown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, follower::get);
+        assertThat(error.getCause(), is(instanceOf(ResourceNotFoundException.class)));
+        assertThrows(ExecutionException.class, leader::get);
+        assertThat(target.calls.get(), is(equalTo(1)));
+        assertThat(aspect.inFlight(), is(equalTo(0)));
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline && registry.find(RequestCoalescingAspect.METRIC_PREFIX + ".calls")
+                .tag("role", "follower").counters().stream().mapToDouble(counter -> counter.count()).sum() < followers) {
+            Thread.sleep(1);
+        }
+    }
+}
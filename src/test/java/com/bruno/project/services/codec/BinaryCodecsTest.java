@@ -0,0 +1,101 @@
+package com.bruno.project.services.codec;
+
+import com.bruno.project.dto.AuthorDTO;
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.CatalogJson;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BinaryFormat;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.exceptions.StandardError;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+
+public class BinaryCodecsTest {
+
+    private final BinaryCodecs codecs = new BinaryCodecs(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    private final BookDTO book = BookDTO.toDTO(givenBook());
+
+    @Test
+    @DisplayName("(1) Should read back the same book from every binary format")
+    void whenABookIsWrittenThenItIsReadBackUnchanged() throws Exception {
+        for (BinaryFormat format : BinaryFormat.values()) {
+            byte[] payload = codecs.writer(format, BookDTO.class).writeValueAsBytes(book);
+            BookDTO read = codecs.reader(format, BookDTO.class).readValue(payload);
+            assertThat(format.name(), read.getTitle(), is(book.getTitle()));
+            assertThat(format.name(), read.getBookGenre(), is(BookGenre.THRILLER));
+            assertThat(format.name(), read.getAuthors().get(0).getBirthDate(), is(LocalDate.parse("1960-03-29")));
+            assertThat(format.name(), read.getAuthors().get(0).getEmail(), is("jonesbo@jonesbo.com"));
+        }
+    }
+
+    @Test
+    @DisplayName("(2) Should write a page envelope to Protobuf smaller than the JSON one")
+    void whenAPageIsWrittenToProtobufThenOnlyTheEnvelopeFieldsAreKept() throws Exception {
+        Type pageType = ResolvableType.forClassWithGenerics(PageEnvelope.class, BookDTO.class).getType();
+        PageEnvelope<BookDTO> page = PageEnvelope.of(List.of(givenBook(), givenBook()), PageRequest.of(0, 2), 10L,
+                BookDTO::toDTO, CatalogJson::writeBook);
+        byte[] payload = codecs.writer(BinaryFormat.PROTOBUF, pageType).writeValueAsBytes(page);
+        JsonNode read = codecs.mapper(BinaryFormat.PROTOBUF).readerFor(JsonNode.class)
+                .with(codecs.schema(pageType)).readValue(payload);
+        assertThat(read.get("content").size(), is(2));
+        assertThat(read.get("total_elements").asLong(), is(10L));
+        assertThat(read.get("total_pages").asInt(), is(5));
+        assertThat(read.get("content").get(1).get("authors").get(0).get("name").asText(), is("Jo Nesbø"));
+        assertThat(payload.length, is(lessThan(Jackson2ObjectMapperBuilder.json().build()
+                .writeValueAsBytes(page).length)));
+    }
+
+    @Test
+    @DisplayName("(3) Should resolve a schema only for the catalog types")
+    void whenASchemaIsRequestedThenOnlyCatalogTypesHaveOne() {
+        assertThat(codecs.schema(ResolvableType.forClassWithGenerics(CursorPage.class, AuthorDTO.class).getType()),
+                is(notNullValue()));
+        assertThat(codecs.schema(StandardError.class), is(notNullValue()));
+        assertThat(codecs.schema(ResolvableType.forClassWithGenerics(PageEnvelope.class, String.class).getType()),
+                is(nullValue()));
+        assertThat(codecs.schema(String.class), is(nullValue()));
+    }
+
+    private static Book givenBook() {
+        Book book = Book.builder()
+                .id(1L)
+                .isbn("978-0099520320")
+                .title("The Bat")
+                .printLength(432)
+                .language("English")
+                .publicationYear("1997")
+                .publisher("Harvill Secker")
+                .urlCover("51264896706_e66beed079_n.jpg")
+                .bookGenre(BookGenre.THRILLER)
+                .build();
+        book.getAuthors().add(Author.builder()
+                .id(1L)
+                .name("Jo Nesbø")
+                .birthDate(LocalDate.parse("1960-03-29"))
+                .email("jonesbo@jonesbo.com")
+                .biography("Norwegian writer, musician, economist, and former soccer player and reporter.")
+                .urlPicture("0284334234.jpg")
+                .build());
+        return book;
+    }
+}
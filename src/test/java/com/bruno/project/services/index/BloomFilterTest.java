@@ -0,0 +1,53 @@
+package com.bruno.project.services.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+
+public class BloomFilterTest {
+
+    @Test
+    @DisplayName("(1) Should never report a false negative")
+    void whenAValueWasPutThenItMightBeContained() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("978-" + (1000000000L + i));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("978-" + (1000000000L + i)), is(true));
+        }
+    }
+
+    @Test
+    @DisplayName("(2) Should keep the observed false-positive rate close to the configured one")
+    void whenTheFilterIsFilledToCapacityThenTheFalsePositiveRateStaysNearTheTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("978-" + (1000000000L + i));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("979-" + (1000000000L + i))) falsePositives++;
+        }
+        assertThat(falsePositives / 100_000.0, is(lessThan(0.02)));
+        assertThat(filter.expectedFalsePositiveRate(), is(lessThan(0.02)));
+    }
+
+    @Test
+    @DisplayName("(3) Should report a growing expected false-positive rate as it fills up")
+    void whenMoreValuesArePutThenTheExpectedFalsePositiveRateGrows() {
+        BloomFilter filter = BloomFilter.create(1_000, 0.01);
+        assertThat(filter.expectedFalsePositiveRate(), is(0.0));
+        filter.put("author@books.com");
+        double one = filter.expectedFalsePositiveRate();
+        assertThat(one, is(greaterThan(0.0)));
+        for (int i = 0; i < 5_000; i++) {
+            filter.put("author" + i + "@books.com");
+        }
+        assertThat(filter.expectedFalsePositiveRate(), is(greaterThan(0.1)));
+    }
+}
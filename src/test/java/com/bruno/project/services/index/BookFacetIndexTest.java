@@ -0,0 +1,121 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.FacetCount;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.events.BookChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+@DataJpaTest
+public class BookFacetIndexTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private BookFacetIndex bookFacetIndex;
+
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        bookFacetIndex = new BookFacetIndex(bookRepository);
+        books.add(persist("The Bat", BookGenre.THRILLER, "English", "Vintage", "2013"));
+        books.add(persist("The Snowman", BookGenre.THRILLER, "English", "Harvill Secker", "2010"));
+        books.add(persist("Flaggermusmannen", BookGenre.THRILLER, "Norwegian", "Aschehoug", "1997"));
+        books.add(persist("Dom Casmurro", BookGenre.CLASSIC, "Portuguese", "Vintage", "1899"));
+        books.add(persist("Hamlet", BookGenre.DRAMA, "English", "Vintage", "1603"));
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("(1) Should not answer until the index is built")
+    void whenTheIndexIsNotBuiltThenNoResultIsReturned() {
+        assertThat(bookFacetIndex.search(new BookFacetQuery()).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("(2) Should intersect the facets and count each value against the other facets")
+    void whenFacetsAreCombinedThenTheirBitmapsAreIntersectedAndCounted() {
+        bookFacetIndex.rebuild();
+        FacetResult result = bookFacetIndex.search(BookFacetQuery.builder()
+                .bookGenre(List.of(BookGenre.THRILLER, BookGenre.DRAMA))
+                .language(List.of("English"))
+                .build()).orElseThrow();
+
+        assertThat(result.ids(), is(equalTo(Set.of(id(0), id(1), id(4)))));
+        assertThat(result.getFacets().get("bookGenre"), contains(
+                new FacetCount("THRILLER", 2), new FacetCount("DRAMA", 1)));
+        assertThat(result.getFacets().get("language"), contains(
+                new FacetCount("English", 3), new FacetCount("Norwegian", 1)));
+        assertThat(result.getFacets().get("publisher"), contains(
+                new FacetCount("Vintage", 2), new FacetCount("Harvill Secker", 1)));
+        assertThat(result.getFacets().get("publicationYear").size(), is(equalTo(3)));
+    }
+
+    @Test
+    @DisplayName("(3) Should page over the matching books in ID order")
+    void whenAPageIsRequestedThenTheMatchingIdsAreSkippedInOrder() {
+        bookFacetIndex.rebuild();
+        FacetResult result = bookFacetIndex.search(BookFacetQuery.builder()
+                .publisher(List.of("Vintage")).build()).orElseThrow();
+
+        assertThat(result.getTotal(), is(equalTo(3L)));
+        assertThat(result.page(0, 2), contains(id(0), id(3)));
+        assertThat(result.page(2, 2), contains(id(4)));
+        assertThat(result.page(3, 2), is(empty()));
+    }
+
+    @Test
+    @DisplayName("(4) Should follow saved, patched and deleted books")
+    void whenBooksChangeThenTheBitmapsFollow() {
+        bookFacetIndex.rebuild();
+        Book book = Book.builder().id(id(3)).language("Italian").build();
+        bookFacetIndex.onBookChanged(BookChangedEvent.patched(book, Set.of("language")));
+        bookFacetIndex.onBookChanged(BookChangedEvent.deleted(id(4)));
+        bookFacetIndex.onBookChanged(BookChangedEvent.saved(Book.builder().id(id(4) + 1).bookGenre(BookGenre.CLASSIC)
+                .language("Italian").publisher("Einaudi").publicationYear("1988").build()));
+
+        FacetResult result = bookFacetIndex.search(BookFacetQuery.builder()
+                .language(List.of("Italian")).build()).orElseThrow();
+        assertThat(result.ids(), is(equalTo(Set.of(id(3), id(4) + 1))));
+        assertThat(result.getFacets().get("bookGenre"), contains(new FacetCount("CLASSIC", 2)));
+        assertThat(result.getFacets().get("language"), contains(
+                new FacetCount("English", 2), new FacetCount("Italian", 2), new FacetCount("Norwegian", 1)));
+    }
+
+    private Long id(int index) {
+        return books.get(index).getId();
+    }
+
+    private Book persist(String title, BookGenre bookGenre, String language, String publisher, String year) {
+        return entityManager.persist(Book.builder()
+                .isbn("978-" + (1000000000L + books.size()))
+                .title(title)
+                .printLength(300)
+                .language(language)
+                .publicationYear(year)
+                .publisher(publisher)
+                .bookGenre(bookGenre)
+                .build());
+    }
+}
@@ -0,0 +1,168 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.dto.SearchHitDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class FullTextIndexTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private FullTextIndex fullTextIndex;
+
+    private Author nesbo;
+
+    private Book bat;
+
+    private Book snowman;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FullTextIndexProperties properties = new FullTextIndexProperties();
+        properties.setRebuildThreads(2);
+        fullTextIndex = new FullTextIndex(bookRepository, authorRepository, properties, transactionManager,
+                new ByteBuffersDirectory());
+        nesbo = authorRepository.save(Author.builder()
+                .name("Jo Nesbø")
+                .email("jo@nesbo.com")
+                .biography("Norwegian musician and writer of crime novels about a detective in Oslo.")
+                .build());
+        bat = save("The Bat", "Harry Hole travels to Sydney to investigate the murder of a Norwegian woman.");
+        snowman = save("The Snowman", "A serial killer builds a snowman in Oslo when the first snow falls.");
+        save("Dom Casmurro", "Bento tells the story of his jealousy and of Capitu.");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        fullTextIndex.close();
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("(1) Should not answer until the index is built")
+    void whenTheIndexIsNotBuiltThenNoResultIsReturned() {
+        assertThat(fullTextIndex.search("oslo", null, PageRequest.of(0, 10)).isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("(2) Should rank titles above synopses and highlight the matched terms")
+    void whenTheTextMatchesSeveralFieldsThenTheHitsAreRankedAndHighlighted() {
+        fullTextIndex.initialize();
+        PageEnvelope<SearchHitDTO> page = fullTextIndex.search("snowman oslo", null, PageRequest.of(0, 10))
+                .orElseThrow();
+
+        assertThat(page.getTotalElements(), is(equalTo(1L)));
+        SearchHitDTO hit = page.getContent().get(0);
+        assertThat(hit.getId(), is(equalTo(snowman.getId())));
+        assertThat(hit.getText(), is(equalTo("The Snowman")));
+        assertThat(hit.getHighlights().get("title").get(0), is(equalTo("The <em>Snowman</em>")));
+        assertThat(hit.getHighlights().get("synopsis").get(0), containsString("<em>Oslo</em>"));
+        assertThat(ids(fullTextIndex.search("oslo", null, PageRequest.of(0, 10)).orElseThrow()),
+                containsInAnyOrder(nesbo.getId(), snowman.getId()));
+    }
+
+    @Test
+    @DisplayName("(3) Should filter the hits by type and match books by their author names")
+    void whenATypeIsGivenThenOnlyThatTypeIsReturned() {
+        fullTextIndex.initialize();
+
+        assertThat(ids(fullTextIndex.search("nesbø", CatalogType.BOOK, PageRequest.of(0, 10)).orElseThrow()),
+                containsInAnyOrder(bat.getId(), snowman.getId()));
+        assertThat(ids(fullTextIndex.search("nesbø", CatalogType.AUTHOR, PageRequest.of(0, 10)).orElseThrow()),
+                contains(nesbo.getId()));
+        assertThat(fullTextIndex.search("\"", null, PageRequest.of(0, 10)).orElseThrow().getContent(), is(empty()));
+    }
+
+    @Test
+    @DisplayName("(4) Should apply the pending changes and report the lag until they are applied")
+    void whenTheCatalogChangesThenThePendingChangesAreIndexed() {
+        fullTextIndex.initialize();
+        bat.setSynopsis("Harry Hole hunts a killer across Australia.");
+        bookRepository.save(bat);
+        nesbo.setName("Jo Nesbo");
+        authorRepository.save(nesbo);
+        fullTextIndex.onBookChanged(BookChangedEvent.saved(bat));
+        fullTextIndex.onAuthorChanged(AuthorChangedEvent.saved(nesbo));
+
+        assertThat(fullTextIndex.pendingChanges(), is(equalTo(2)));
+        fullTextIndex.applyPendingChanges();
+
+        assertThat(fullTextIndex.pendingChanges(), is(equalTo(0)));
+        assertThat(fullTextIndex.lagSeconds(), is(equalTo(0.0)));
+        assertThat(ids(fullTextIndex.search("australia", null, PageRequest.of(0, 10)).orElseThrow()),
+                contains(bat.getId()));
+        assertThat(ids(fullTextIndex.search("sydney", null, PageRequest.of(0, 10)).orElseThrow()), is(empty()));
+        assertThat(ids(fullTextIndex.search("nesbo", CatalogType.BOOK, PageRequest.of(0, 10)).orElseThrow()),
+                containsInAnyOrder(bat.getId(), snowman.getId()));
+    }
+
+    @Test
+    @DisplayName("(5) Should drop the documents of deleted entities when the catalog is rebuilt")
+    void whenTheIndexIsRebuiltThenStaleDocumentsAreRemoved() {
+        fullTextIndex.initialize();
+        bookRepository.delete(snowman);
+
+        assertThat(fullTextIndex.rebuild(), is(equalTo(3)));
+        assertThat(fullTextIndex.documents(), is(equalTo(3)));
+        assertThat(ids(fullTextIndex.search("snowman", null, PageRequest.of(0, 10)).orElseThrow()), is(empty()));
+    }
+
+    private Book save(String title, String synopsis) {
+        Book book = Book.builder()
+                .isbn("978-" + (1000000000L + bookRepository.count()))
+                .title(title)
+                .printLength(300)
+                .language("English")
+                .publicationYear("2010")
+                .publisher("Vintage")
+                .synopsis(synopsis)
+                .bookGenre(BookGenre.THRILLER)
+                .build();
+        if (!title.startsWith("Dom")) book.getAuthors().add(nesbo);
+        return bookRepository.save(book);
+    }
+
+    private static List<Long> ids(PageEnvelope<SearchHitDTO> page) {
+        return page.getContent().stream().map(SearchHitDTO::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,101 @@
+package com.bruno.project.services.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class PrefixIndexTest {
+
+    private final PrefixIndex index = PrefixIndex.of(List.of(
+            PrefixIndex.entry(1L, "The Bat", 3),
+            PrefixIndex.entry(2L, "The Batman Who Laughs", 7),
+            PrefixIndex.entry(3L, "the snowman", 5),
+            PrefixIndex.entry(4L, "Cockroaches", 9),
+            PrefixIndex.entry(5L, "Theodor Fontane", 5)));
+
+    @Test
+    @DisplayName("(1) Should return the heaviest completions of a prefix, case insensitive")
+    void whenAPrefixIsSearchedThenTheHeaviestCompletionsAreReturned() {
+        assertThat(texts(index.top("THE", 10)), contains("The Batman Who Laughs", "the snowman", "Theodor Fontane",
+                "The Bat"));
+        assertThat(texts(index.top("the b", 1)), contains("The Batman Who Laughs"));
+        assertThat(texts(index.top("c", 10)), contains("Cockroaches"));
+        assertThat(index.top("x", 10), is(empty()));
+    }
+
+    @Test
+    @DisplayName("(2) Should follow added, renamed, removed and weighted entries")
+    void whenEntriesChangeThenTheCompletionsFollow() {
+        index.put(6L, "The Thirst", 8);
+        index.put(3L, "Police", 0);
+        index.remove(2L);
+        index.increment(1L, 10);
+        assertThat(texts(index.top("the", 10)), contains("The Bat", "The Thirst", "Theodor Fontane"));
+        assertThat(index.top("police", 1).get(0).getWeight(), is(equalTo(5)));
+        assertThat(index.size(), is(equalTo(5)));
+    }
+
+    @Test
+    @DisplayName("(3) Should rank the same way as a full scan across merges")
+    void whenManyChangesAreMergedThenTheRankingMatchesAFullScan() {
+        Random random = new Random(42);
+        Map<Long, PrefixIndex.Entry> expected = new HashMap<>();
+        PrefixIndex index = PrefixIndex.of(List.of());
+        for (int i = 0; i < 20_000; i++) {
+            long key = random.nextInt(3_000);
+            if (random.nextInt(5) == 0) {
+                index.remove(key);
+                expected.remove(key);
+            } else if (random.nextInt(3) == 0 && expected.containsKey(key)) {
+                index.increment(key, 1);
+                PrefixIndex.Entry entry = expected.get(key);
+                expected.put(key, PrefixIndex.entry(key, entry.getText(), entry.getWeight() + 1));
+            } else {
+                String text = word(random) + " " + word(random);
+                index.put(key, text, 1);
+                PrefixIndex.Entry current = expected.get(key);
+                expected.put(key, PrefixIndex.entry(key, text, current == null ? 1 : current.getWeight()));
+            }
+            if (index.needsMerge()) index = index.merged();
+        }
+        assertThat(index.pendingChanges() <= PrefixIndex.MIN_PENDING_CHANGES, is(true));
+        assertThat(index.size(), is(equalTo(expected.size())));
+        for (String prefix : List.of("a", "Ba", "cab", "d", "e ", "")) {
+            List<Long> scan = expected.values().stream()
+                    .filter(entry -> entry.getText().toLowerCase().startsWith(prefix.toLowerCase()))
+                    .sorted(Comparator.comparingInt(PrefixIndex.Entry::getWeight).reversed()
+                            .thenComparing(entry -> entry.getText().toLowerCase())
+                            .thenComparingLong(PrefixIndex.Entry::getKey))
+                    .limit(10)
+                    .map(PrefixIndex.Entry::getKey)
+                    .collect(Collectors.toList());
+            assertThat(prefix, index.top(prefix, 10).stream().map(PrefixIndex.Entry::getKey)
+                    .collect(Collectors.toList()), is(equalTo(scan)));
+        }
+    }
+
+    private static List<String> texts(List<PrefixIndex.Entry> entries) {
+        List<String> texts = new ArrayList<>();
+        entries.forEach(entry -> texts.add(entry.getText()));
+        return texts;
+    }
+
+    private static String word(Random random) {
+        char[] word = new char[1 + random.nextInt(4)];
+        for (int i = 0; i < word.length; i++) word[i] = (char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(5));
+        return new String(word);
+    }
+}
@@ -0,0 +1,58 @@
+package com.bruno.project.services.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.core.Is.is;
+
+public class TrigramIndexTest {
+
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    @DisplayName("(1) Should find every value containing the searched text, case insensitive")
+    void whenASubstringIsSearchedThenReturnTheMatchingIds() {
+        index.put(1L, "The Bat");
+        index.put(2L, "The Batman Who Laughs");
+        index.put(3L, "Cockroaches");
+        assertThat(index.search("BAT"), is(equalTo(Set.of(1L, 2L))));
+        assertThat(index.search("roach"), is(equalTo(Set.of(3L))));
+    }
+
+    @Test
+    @DisplayName("(2) Should not return ids whose trigrams match out of order")
+    void whenAllTrigramsMatchButNotTheSubstringThenReturnNothing() {
+        index.put(1L, "abcd bcde");
+        assertThat(index.search("abcde"), is(empty()));
+    }
+
+    @Test
+    @DisplayName("(3) Should forget the old value when an id is updated or removed")
+    void whenAnIdIsUpdatedOrRemovedThenItsOldValueIsNoLongerFound() {
+        index.put(1L, "The Bat");
+        index.put(1L, "Police");
+        assertThat(index.search("bat"), is(empty()));
+        assertThat(index.search("police"), is(equalTo(Set.of(1L))));
+        index.remove(1L);
+        assertThat(index.search("police"), is(empty()));
+    }
+
+    @Test
+    @DisplayName("(4) Should index ids that are far apart and count every indexed id")
+    void whenIdsAreFarApartThenEachIsFoundAndCounted() {
+        index.put(1L, "The Bat");
+        index.put(4096L, "The Bat");
+        index.put(4_000_000_000L, "Batman");
+        assertThat(index.search("bat"), is(equalTo(Set.of(1L, 4096L, 4_000_000_000L))));
+        assertThat(index.size(), is(3));
+        index.remove(4096L);
+        index.optimize();
+        assertThat(index.search("bat"), is(equalTo(Set.of(1L, 4_000_000_000L))));
+        assertThat(index.size(), is(2));
+    }
+}
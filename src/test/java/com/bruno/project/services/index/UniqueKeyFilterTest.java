@@ -0,0 +1,135 @@
+package com.bruno.project.services.index;
+
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+public class UniqueKeyFilterTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private UniqueKeyFilter uniqueKeyFilter;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        uniqueKeyFilter = new UniqueKeyFilter(bookRepository, authorRepository, transactionManager);
+        entityManager.persist(Book.builder()
+                .isbn("978-1784875435")
+                .title("The Bat")
+                .printLength(432)
+                .language("English")
+                .publicationYear("2013")
+                .publisher("Vintage")
+                .bookGenre(BookGenre.DRAMA)
+                .build());
+        entityManager.persist(Author.builder()
+                .name("Jo Nesbø")
+                .birthDate(LocalDate.parse("1960-03-29"))
+                .email("Jo.Nesbo@Books.com")
+                .biography("Biography")
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("(1) Should send every lookup to the database until the filter is built")
+    void whenTheFilterIsNotBuiltThenEveryValueMightExist() {
+        assertThat(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, "978-0000000000"), is(true));
+    }
+
+    @Test
+    @DisplayName("(2) Should rule out unregistered values and keep registered or added ones, emails case insensitive")
+    void whenTheFilterIsBuiltThenUnregisteredValuesAreRuledOut() {
+        uniqueKeyFilter.rebuild();
+        assertThat(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, "978-1784875435"), is(true));
+        assertThat(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, "jo.nesbo@books.com"), is(true));
+        assertThat(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, "978-0000000000"), is(false));
+        assertThat(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, "someone@books.com"), is(false));
+
+        uniqueKeyFilter.add(UniqueKeyFilter.Key.EMAIL, "Someone@Books.com");
+        assertThat(uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.EMAIL, "someone@books.com"), is(true));
+    }
+
+    @Test
+    @DisplayName("(3) Should expose the filter size, false-positive rates and lookups as metrics")
+    void whenBoundToARegistryThenTheFilterMetricsArePublished() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        uniqueKeyFilter.bindTo(registry);
+        uniqueKeyFilter.rebuild();
+        uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, "978-0000000000");
+        uniqueKeyFilter.mightExist(UniqueKeyFilter.Key.ISBN, "978-1784875435");
+        uniqueKeyFilter.recordFalsePositive(UniqueKeyFilter.Key.ISBN);
+
+        String prefix = UniqueKeyFilter.METRIC_PREFIX;
+        assertThat(registry.get(prefix + ".size").tag("key", "isbn").gauge().value(), is(greaterThan(0.0)));
+        assertThat(registry.get(prefix + ".expected.false.positive.rate").tag("key", "isbn").gauge().value(),
+                is(greaterThan(0.0)));
+        assertThat(registry.get(prefix + ".false.positive.rate").tag("key", "isbn").gauge().value(), is(equalTo(0.5)));
+        assertThat(registry.get(prefix + ".lookups").tags("key", "isbn", "result", "skipped")
+                .functionCounter().count(), is(equalTo(1.0)));
+        assertThat(registry.get(prefix + ".lookups").tags("key", "isbn", "result", "checked")
+                .functionCounter().count(), is(equalTo(1.0)));
+    }
+
+    @Test
+    @DisplayName("(4) Should keep values written by transactions that commit while the filter is rebuilt")
+    void whenValuesAreAddedDuringARebuildThenTheRebuiltFilterKeepsThem() {
+        BookRepository books = mock(BookRepository.class);
+        AuthorRepository authors = mock(AuthorRepository.class);
+        UniqueKeyFilter filter = new UniqueKeyFilter(books, authors, transactionManager);
+        TransactionTemplate writer = new TransactionTemplate(transactionManager);
+        writer.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+        when(books.count()).thenReturn(1L);
+        when(authors.count()).thenReturn(0L);
+        when(authors.streamEmails()).thenAnswer(invocation -> Stream.empty());
+        when(books.streamIsbns()).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> writer.executeWithoutResult(
+                    status -> filter.add(UniqueKeyFilter.Key.ISBN, "978-0000000002"))).join();
+            return Stream.of("978-1784875435");
+        });
+        filter.rebuild();
+
+        writer.executeWithoutResult(status -> {
+            filter.add(UniqueKeyFilter.Key.ISBN, "978-0000000001");
+            CompletableFuture.runAsync(filter::rebuild).join();
+        });
+
+        assertThat(filter.mightExist(UniqueKeyFilter.Key.ISBN, "978-1784875435"), is(true));
+        assertThat(filter.mightExist(UniqueKeyFilter.Key.ISBN, "978-0000000001"), is(true));
+        assertThat(filter.mightExist(UniqueKeyFilter.Key.ISBN, "978-0000000002"), is(true));
+        assertThat(filter.mightExist(UniqueKeyFilter.Key.ISBN, "978-0000000000"), is(false));
+    }
+}
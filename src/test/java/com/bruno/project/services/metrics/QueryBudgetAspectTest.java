@@ -0,0 +1,85 @@
+package com.bruno.project.services.metrics;
+
+import com.bruno.project.services.exceptions.QueryBudgetExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class QueryBudgetAspectTest {
+
+    private static final String AUTHOR_BY_ID = "select author0_.id as id1_0_0_ from tb_author author0_ where author0_.id=?";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final QueryBudgetProperties properties = new QueryBudgetProperties();
+
+    @QueryBudget(max = 1)
+    public static class Catalog {
+
+        private final StatementCounter counter = new StatementCounter();
+
+        @QueryBudget(max = 2)
+        public int findPage(int authors) {
+            counter.inspect("select book0_.id from tb_book book0_ limit 20");
+            for (int i = 0; i < authors; i++) counter.inspect(AUTHOR_BY_ID);
+            return authors;
+        }
+
+        public int findCount(int statements) {
+            for (int i = 0; i < statements; i++) counter.inspect("select count(*) from tb_book");
+            return statements;
+        }
+    }
+
+    @Test
+    @DisplayName("(1) Should let calls within their budget through without metering them")
+    void whenACallStaysWithinItsBudgetThenNothingIsReported() {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        assertThat(catalog().findPage(1), is(1));
+        assertThat(catalog().findCount(1), is(1));
+        assertThat(registry.find(QueryBudgetAspect.METRIC_PREFIX + ".exceeded").counter(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("(2) Should fail a call over its budget with the repeated statement when failing is enabled")
+    void whenACallExceedsItsBudgetInFailModeThenItThrows() {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        QueryBudgetExceededException exception = assertThrows(QueryBudgetExceededException.class,
+                () -> catalog().findPage(5));
+        assertThat(exception.getMessage(), containsString("Catalog.findPage issued 6 statements, over its budget of 2"));
+        assertThat(exception.getMessage(), containsString("5x, " + StatementCounter.hash(AUTHOR_BY_ID)));
+        assertThrows(QueryBudgetExceededException.class, () -> catalog().findCount(2));
+    }
+
+    @Test
+    @DisplayName("(3) Should only meter the offending endpoint and statement when logging")
+    void whenACallExceedsItsBudgetInLogModeThenItIsMetered() {
+        assertThat(catalog().findPage(3), is(3));
+        assertThat(catalog().findPage(4), is(4));
+        assertThat(registry.get(QueryBudgetAspect.METRIC_PREFIX + ".exceeded")
+                .tags("endpoint", "Catalog.findPage", "statement", StatementCounter.hash(AUTHOR_BY_ID))
+                .counter().count(), is(2.0));
+    }
+
+    @Test
+    @DisplayName("(4) Should fingerprint statements that only differ by literals and IN list lengths alike")
+    void whenStatementsDifferOnlyByLiteralsThenTheirFingerprintsMatch() {
+        assertThat(StatementCounter.fingerprint("SELECT * FROM tb_book\n WHERE title = 'It''s' AND id IN (?, ?, ?)"),
+                is("select * from tb_book where title = ? and id in (?)"));
+        assertThat(StatementCounter.fingerprint("select * from tb_book where id = 42 limit 20"),
+                is(StatementCounter.fingerprint("select * from tb_book where id = 7 limit 100")));
+    }
+
+    private Catalog catalog() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Catalog());
+        factory.addAspect(new QueryBudgetAspect(registry, properties));
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,221 @@
+package com.bruno.project.services.metrics;
+
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.dto.BookFacetQuery;
+import com.bruno.project.dto.CursorPage;
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import com.bruno.project.services.AuthorService;
+import com.bruno.project.services.BookService;
+import com.bruno.project.services.index.BookFacetIndex;
+import com.bruno.project.services.index.BookSearchIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.query-budget.mode=fail")
+@AutoConfigureMockMvc
+public class QueryBudgetEnforcementTest {
+
+    private static final int BOOKS = 30;
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("title"));
+
+    private static final Pageable AUTHOR_PAGE = PageRequest.of(0, 20, Sort.by("name"));
+
+    private static final Fieldset SPARSE_BOOKS = Fieldset.parse("title,authors.name");
+
+    private static final Fieldset SPARSE_AUTHORS = Fieldset.parse("name");
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookFacetIndex bookFacetIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long bookId;
+
+    private Long authorId;
+
+    private double exceededBefore;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = Book.builder()
+                    .isbn("978-" + (1000000000L + i))
+                    .title("Book " + i)
+                    .printLength(100 + i)
+                    .language("English")
+                    .publicationYear("1997")
+                    .publisher("Harvill Secker")
+                    .bookGenre(BookGenre.DRAMA)
+                    .build();
+            for (int j = 0; j < 3; j++) {
+                book.getAuthors().add(authorRepository.save(Author.builder()
+                        .name("Author " + i + "-" + j)
+                        .birthDate(LocalDate.parse("1960-03-29"))
+                        .email("author" + i + "-" + j + "@books.com")
+                        .biography("Biography")
+                        .build()));
+            }
+            bookId = bookRepository.save(book).getId();
+            authorId = book.getAuthors().get(0).getId();
+        }
+        bookSearchIndex.rebuild();
+        bookFacetIndex.rebuild();
+        exceededBefore = exceeded();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAll();
+        authorRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    @DisplayName("(1) Should load every kind of book page from a cold cache within its query budget")
+    void whenBookPagesAreLoadedFromAColdCacheThenTheyStayWithinTheirBudgets() {
+        for (Fieldset fields : List.of(Fieldset.ALL, SPARSE_BOOKS)) {
+            assertFullPage(cold(() -> bookService.findAll(PAGE, fields)));
+            assertFullPage(cold(() -> bookService.findByTitleContainingIgnoreCase("book", PAGE, fields)));
+            assertFullPage(cold(() -> bookService.findByLanguageContainingIgnoreCase("english", PAGE, fields)));
+            assertFullPage(cold(() -> bookService.findByPublisherContainingIgnoreCase("harvill", PAGE, fields)));
+            assertFullPage(cold(() -> bookService.findByTitleContainingIgnoreCase("bo", PAGE, fields)));
+            assertFullPage(cold(() -> bookService.findBooksByAuthorName("Author", PAGE, fields)));
+            BookFacetQuery drama = BookFacetQuery.builder().bookGenre(List.of(BookGenre.DRAMA)).build();
+            assertFullPage(cold(() -> bookService.search(drama, PageRequest.of(0, 20), fields)));
+            assertFullPage(cold(() -> bookService.search(drama, PAGE, fields)));
+        }
+        assertThat(exceeded(), is(equalTo(exceededBefore)));
+    }
+
+    @Test
+    @DisplayName("(2) Should walk every kind of book cursor from a cold cache within its query budget")
+    void whenBookCursorsAreWalkedFromAColdCacheThenTheyStayWithinTheirBudgets() {
+        for (Fieldset fields : List.of(Fieldset.ALL, SPARSE_BOOKS)) {
+            assertWalked(after -> bookService.findAll(after, 20, fields));
+            assertWalked(after -> bookService.findByTitleContainingIgnoreCase("book", after, 20, fields));
+            assertWalked(after -> bookService.findByLanguageContainingIgnoreCase("english", after, 20, fields));
+            assertWalked(after -> bookService.findByPublisherContainingIgnoreCase("harvill", after, 20, fields));
+        }
+        assertThat(exceeded(), is(equalTo(exceededBefore)));
+    }
+
+    @Test
+    @DisplayName("(3) Should load a book and the book version stamps from a cold cache within their query budgets")
+    void whenABookIsLoadedFromAColdCacheThenItStaysWithinItsBudget() {
+        assertThat(cold(() -> bookService.findById(bookId)).getAuthors().size(), is(equalTo(3)));
+        assertThat(cold(() -> bookService.findVersionStamp(bookId)).getVersionSum(), is(not(nullValue())));
+        assertThat(cold(() -> bookService.findVersionStamps()).size(), is(equalTo(2)));
+        assertThat(exceeded(), is(equalTo(exceededBefore)));
+    }
+
+    @Test
+    @DisplayName("(4) Should load author pages, cursors and an author from a cold cache within their query budgets")
+    void whenAuthorsAreLoadedFromAColdCacheThenTheyStayWithinTheirBudgets() {
+        for (Fieldset fields : List.of(Fieldset.ALL, SPARSE_AUTHORS)) {
+            assertThat(cold(() -> authorService.findAll(AUTHOR_PAGE, fields)).getContent().size(), is(equalTo(20)));
+            assertThat(cold(() -> authorService.findByNameContainingIgnoreCase("author", AUTHOR_PAGE, fields))
+                    .getContent().size(), is(equalTo(20)));
+            assertWalked(after -> authorService.findAll(after, 20, fields));
+            assertWalked(after -> authorService.findByNameContainingIgnoreCase("author", after, 20, fields));
+        }
+        assertThat(cold(() -> authorService.findById(authorId)).getId(), is(equalTo(authorId)));
+        assertThat(cold(() -> authorService.findVersionStamp(authorId)).getVersionSum(), is(not(nullValue())));
+        assertThat(cold(() -> authorService.findVersionStamps()).size(), is(equalTo(1)));
+        assertThat(exceeded(), is(equalTo(exceededBefore)));
+    }
+
+    @Test
+    @DisplayName("(5) Should serve the budgeted endpoints from a cold cache and revalidate them within their budgets")
+    void whenTheBudgetedEndpointsAreRequestedThenTheyStayWithinTheirBudgets() throws Exception {
+        for (String uri : List.of("/api/v1/books?sort=title", "/api/v1/books?fields=title,authors.name",
+                "/api/v1/books/" + bookId, "/api/v1/authors?sort=name", "/api/v1/authors?fields=name",
+                "/api/v1/authors/" + authorId)) {
+            entityManagerFactory.getCache().evictAll();
+            MvcResult result = mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn();
+            entityManagerFactory.getCache().evictAll();
+            mockMvc.perform(get(uri).header(HttpHeaders.IF_NONE_MATCH, result.getResponse().getHeader(HttpHeaders.ETAG)))
+                    .andExpect(status().isNotModified());
+        }
+        assertThat(exceeded(), is(equalTo(exceededBefore)));
+    }
+
+    private <T> T cold(Supplier<T> read) {
+        entityManagerFactory.getCache().evictAll();
+        return read.get();
+    }
+
+    private <T> void assertWalked(Function<String, CursorPage<T>> read) {
+        CursorPage<T> first = cold(() -> read.apply(null));
+        assertThat(first.getContent().size(), is(equalTo(20)));
+        assertThat(first.getNextCursor(), is(not(nullValue())));
+        CursorPage<T> second = cold(() -> read.apply(first.getNextCursor()));
+        assertThat(second.getContent().size(), is(not(equalTo(0))));
+    }
+
+    private void assertFullPage(PageEnvelope<BookDTO> page) {
+        assertThat(page.getContent().size(), is(equalTo(20)));
+        page.getContent().forEach(book -> assertThat(book.getAuthors().size(), is(equalTo(3))));
+    }
+
+    private double exceeded() {
+        return registry.find(QueryBudgetAspect.METRIC_PREFIX + ".exceeded").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
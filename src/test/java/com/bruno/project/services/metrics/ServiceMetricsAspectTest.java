@@ -0,0 +1,70 @@
+package com.bruno.project.services.metrics;
+
+import com.bruno.project.dto.Fieldset;
+import com.bruno.project.dto.PageEnvelope;
+import com.bruno.project.services.BookService;
+import com.bruno.project.services.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ServiceMetricsAspectTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Mock
+    private BookService bookService;
+
+    private BookService timedBookService;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(bookService);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        timedBookService = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("(1) Should time successful calls tagged by method and outcome")
+    void whenAServiceMethodSucceedsThenItIsTimedAsSuccess() {
+        when(bookService.findAll(PageRequest.of(0, 20), Fieldset.ALL)).thenReturn(PageEnvelope.of(Page.empty()));
+        timedBookService.findAll(PageRequest.of(0, 20), Fieldset.ALL);
+        timedBookService.findAll(PageRequest.of(0, 20), Fieldset.ALL);
+        Timer timer = registry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("method", "findAll", "outcome", "SUCCESS", "exception", "none")
+                .timer();
+        assertThat(timer.count(), is(2L));
+    }
+
+    @Test
+    @DisplayName("(2) Should time failed calls as client errors when the exception maps to a 4xx status")
+    void whenAServiceMethodThrowsAClientErrorThenItIsTimedAsClientError() {
+        when(bookService.findById(1L)).thenThrow(new ResourceNotFoundException("The id '1' was not found!"));
+        assertThrows(ResourceNotFoundException.class, () -> timedBookService.findById(1L));
+        Timer timer = registry.get(ServiceMetricsAspect.METRIC_NAME)
+                .tags("method", "findById", "outcome", "CLIENT_ERROR", "exception", "ResourceNotFoundException")
+                .timer();
+        assertThat(timer.count(), is(1L));
+    }
+
+    @Test
+    @DisplayName("(3) Should classify unexpected exceptions as server errors")
+    void whenTheExceptionHasNoClientStatusThenTheOutcomeIsServerError() {
+        assertThat(ServiceMetricsAspect.outcome(null), is("SUCCESS"));
+        assertThat(ServiceMetricsAspect.outcome(new IllegalStateException()), is("SERVER_ERROR"));
+    }
+}
@@ -0,0 +1,289 @@
+package com.bruno.project.services.outbox;
+
+import com.bruno.project.config.OutboxConfig;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.entities.OutboxEvent;
+import com.bruno.project.enums.CatalogType;
+import com.bruno.project.enums.BookGenre;
+import com.bruno.project.enums.ChangeType;
+import com.bruno.project.repositories.OutboxEventRepository;
+import com.bruno.project.services.events.AuthorChangedEvent;
+import com.bruno.project.services.events.BookChangedEvent;
+import com.bruno.project.services.events.CatalogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = "app.outbox.batch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OutboxConfig.class, OutboxWriter.class, OutboxRelay.class, OutboxRelayTest.StandInSink.class,
+        OutboxRelayTest.Listener.class})
+public class OutboxRelayTest {
+
+    static class StandInSink implements OutboxSink {
+
+        private final List<CatalogChangedEvent> received = new ArrayList<>();
+
+        private boolean failing;
+
+        @Override
+        public void send(List<CatalogChangedEvent> events) {
+            if (failing) throw new IllegalStateException("The sink is down");
+            received.addAll(events);
+        }
+    }
+
+    static class Listener {
+
+        private final List<CatalogChangedEvent> received = new ArrayList<>();
+
+        @EventListener
+        public void onCatalogChanged(CatalogChangedEvent event) {
+            received.add(event);
+        }
+    }
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StandInSink sink;
+
+    @Autowired
+    private Listener listener;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        sink.received.clear();
+        sink.failing = false;
+        listener.received.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("(1) Should write the outbox rows with the change and only when the transaction commits")
+    void whenTheTransactionCommitsThenTheOutboxRowsAreKept() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookChangedEvent.saved(book(1L, "The Bat")));
+            eventPublisher.publishEvent(BookChangedEvent.patched(book(1L, "The Bat!"), Set.of("title")));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(AuthorChangedEvent.deleted(7L));
+            status.setRollbackOnly();
+        });
+
+        List<OutboxEvent> rows = outboxEventRepository.findAll();
+        assertThat(rows.stream().map(OutboxEvent::getChangeType).collect(Collectors.toList()),
+                contains(ChangeType.SAVED, ChangeType.PATCHED));
+        assertThat(rows.get(1).getAggregateType(), is(equalTo(CatalogType.BOOK)));
+        assertThat(rows.get(1).getPayload(), is(equalTo("{\"id\":1,\"title\":\"The Bat!\"}")));
+        assertThat(rows.get(1).getPublishedAt(), is(nullValue()));
+    }
+
+    @Test
+    @DisplayName("(2) Should relay the changes in batches, in order, to the sink and the in-process listeners")
+    void whenTheRelayRunsThenEveryChangeIsDeliveredOnceInOrder() {
+        publish();
+
+        assertThat(outboxRelay.relay(), is(equalTo(5)));
+        assertThat(outboxRelay.relay(), is(equalTo(0)));
+
+        assertThat(aggregates(sink.received), contains("BOOK:1:SAVED", "AUTHOR:7:SAVED", "BOOK:1:PATCHED",
+                "BOOK:2:SAVED", "BOOK:1:DELETED"));
+        assertThat(listener.received, is(equalTo(sink.received)));
+        assertThat(outboxEventRepository.findAll().stream().allMatch(row -> row.getPublishedAt() != null), is(true));
+        assertThat(outboxRelay.lagSeconds(), is(equalTo(0.0)));
+    }
+
+    @Test
+    @DisplayName("(3) Should keep the changes and retry them in the same order when the sink fails")
+    void whenTheSinkFailsThenTheChangesAreRetried() {
+        publish();
+        sink.failing = true;
+
+        assertThat(outboxRelay.relay(), is(equalTo(0)));
+        assertThat(listener.received, is(empty()));
+        assertThat(outboxEventRepository.findAll().stream().allMatch(row -> row.getPublishedAt() == null), is(true));
+
+        sink.failing = false;
+        assertThat(outboxRelay.relay(), is(equalTo(5)));
+        assertThat(aggregates(sink.received), contains("BOOK:1:SAVED", "AUTHOR:7:SAVED", "BOOK:1:PATCHED",
+                "BOOK:2:SAVED", "BOOK:1:DELETED"));
+    }
+
+    @Test
+    @DisplayName("(4) Should purge the published changes older than the retention")
+    void whenThePublishedChangesExpireThenTheyArePurged() {
+        publish();
+        outboxRelay.relay();
+        OutboxEvent old = outboxEventRepository.findAll().get(0);
+        old.setPublishedAt(Instant.now().minus(30, ChronoUnit.DAYS));
+        outboxEventRepository.save(old);
+
+        assertThat(outboxRelay.purge(), is(equalTo(1)));
+        assertThat(outboxEventRepository.count(), is(equalTo(4L)));
+    }
+
+    @Test
+    @DisplayName("(5) Should relay interleaved changes to the same book in the order they were committed")
+    void whenTwoTransactionsChangeTheSameBookThenTheChangesAreRelayedInCommitOrder() throws Exception {
+        Long id = transactionTemplate.execute(status -> {
+            Book book = Book.builder().isbn("978-0099520320").title("The Bat").printLength(432).language("English")
+                    .publicationYear("1997").publisher("Harvill Secker").bookGenre(BookGenre.THRILLER).build();
+            entityManager.persist(book);
+            return book.getId();
+        });
+        try {
+            CountDownLatch changed = new CountDownLatch(1);
+            CountDownLatch committed = new CountDownLatch(1);
+            CompletableFuture<Void> stale = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        Book book = entityManager.find(Book.class, id);
+                        book.setTitle("The Bat?");
+                        eventPublisher.publishEvent(BookChangedEvent.saved(book));
+                        changed.countDown();
+                        await(committed);
+                    }));
+            await(changed);
+            transactionTemplate.executeWithoutResult(status -> {
+                Book book = entityManager.find(Book.class, id);
+                book.setTitle("The Bat!");
+                eventPublisher.publishEvent(BookChangedEvent.saved(book));
+            });
+            committed.countDown();
+            ExecutionException failure = assertThrows(ExecutionException.class, stale::get);
+            assertThat(failure.getCause(), is(instanceOf(ObjectOptimisticLockingFailureException.class)));
+
+            CountDownLatch locked = new CountDownLatch(1);
+            CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        patchTitle(id, "The Bat!!");
+                        locked.countDown();
+                        pause();
+                        eventPublisher.publishEvent(BookChangedEvent.patched(book(id, "The Bat!!"), Set.of("title")));
+                    }));
+            await(locked);
+            transactionTemplate.executeWithoutResult(status -> {
+                patchTitle(id, "The Bat!!!");
+                eventPublisher.publishEvent(BookChangedEvent.patched(book(id, "The Bat!!!"), Set.of("title")));
+            });
+            first.get();
+
+            assertThat(outboxRelay.relay(), is(equalTo(3)));
+            assertThat(aggregates(sink.received), contains("BOOK:" + id + ":SAVED", "BOOK:" + id + ":PATCHED",
+                    "BOOK:" + id + ":PATCHED"));
+            assertThat(sink.received.get(0).getPayload(), containsString("\"The Bat!\""));
+            assertThat(sink.received.get(1).getPayload(), containsString("\"The Bat!!\""));
+            assertThat(sink.received.get(2).getPayload(), containsString("\"The Bat!!!\""));
+            assertThat(transactionTemplate.execute(status -> entityManager.find(Book.class, id).getTitle()),
+                    is(equalTo("The Bat!!!")));
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    entityManager.remove(entityManager.find(Book.class, id)));
+        }
+    }
+
+    private void patchTitle(Long id, String title) {
+        entityManager.createQuery("UPDATE Book obj SET obj.title = :title, obj.version = obj.version + 1 " +
+                "WHERE obj.id = :id")
+                .setParameter("title", title)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void publish() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookChangedEvent.saved(book(1L, "The Bat")));
+            eventPublisher.publishEvent(AuthorChangedEvent.saved(Author.builder().id(7L).name("Jo Nesbø").build()));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(BookChangedEvent.patched(book(1L, "The Bat!"), Set.of("title")));
+            eventPublisher.publishEvent(BookChangedEvent.saved(book(2L, "The Snowman")));
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(BookChangedEvent.deleted(1L)));
+    }
+
+    private static Book book(Long id, String title) {
+        return Book.builder().id(id).title(title).build();
+    }
+
+    private static List<String> aggregates(List<CatalogChangedEvent> events) {
+        return events.stream()
+                .map(event -> event.getAggregateType() + ":" + event.getAggregateId() + ":" + event.getChangeType())
+                .collect(Collectors.toList());
+    }
+}
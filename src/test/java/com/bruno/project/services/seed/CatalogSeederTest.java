@@ -0,0 +1,129 @@
+package com.bruno.project.services.seed;
+
+import com.bruno.project.dto.BookDTO;
+import com.bruno.project.entities.Author;
+import com.bruno.project.entities.Book;
+import com.bruno.project.repositories.AuthorRepository;
+import com.bruno.project.repositories.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class CatalogSeederTest {
+
+    private static final String CATALOG_QUERY = "SELECT b.id, b.isbn, b.title, b.language, b.book_genre, "
+            + "a.id, a.email, a.birth_date FROM tb_book b JOIN tb_book_author ba ON ba.book_id = b.id "
+            + "JOIN tb_author a ON a.id = ba.author_id ORDER BY b.id, a.id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM tb_book_author");
+        jdbcTemplate.execute("DELETE FROM tb_book");
+        jdbcTemplate.execute("DELETE FROM tb_author");
+    }
+
+    @Test
+    @DisplayName("(1) Should write valid books, authors and links that the application can read and extend")
+    void whenTheCatalogIsSeededThenItIsReadableAndTheSequencesMovePastIt() throws Exception {
+        SeedResult result = seeder(4).seed();
+
+        assertThat(bookRepository.count(), is(equalTo(3_000L)));
+        assertThat(authorRepository.count(), is(equalTo(500L)));
+        assertThat(count("SELECT COUNT(*) FROM tb_book_author"), is(equalTo(result.getLinks())));
+        assertThat(count("SELECT COUNT(*) FROM tb_book b WHERE NOT EXISTS "
+                + "(SELECT 1 FROM tb_book_author ba WHERE ba.book_id = b.id)"), is(equalTo(0L)));
+        assertThat(count("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM tb_book_author GROUP BY book_id)"),
+                is(lessThanOrEqualTo(3L)));
+        List<String> isbns = jdbcTemplate.queryForList("SELECT isbn FROM tb_book", String.class);
+        assertThat(isbns.stream().filter(isbn -> !validator.validateValue(BookDTO.class, "isbn", isbn).isEmpty())
+                .toArray(), is(equalTo(new Object[0])));
+        assertThat(bookRepository.findById(result.getFirstBookId()).orElseThrow().getBookGenre(),
+                is(notNullValue()));
+
+        Author author = authorRepository.save(Author.builder().name("Jo Nesbø").email("jo@nesbo.com")
+                .birthDate(LocalDate.of(1960, 3, 29)).biography("Norwegian writer").build());
+        Book book = bookRepository.save(Book.builder().isbn("9780099546771").title("The Bat").printLength(432)
+                .language("English").publicationYear("1997").build());
+        assertThat(author.getId(), is(greaterThan(result.getFirstAuthorId() + result.getAuthors() - 1)));
+        assertThat(book.getId(), is(greaterThan(result.getFirstBookId() + result.getBooks() - 1)));
+    }
+
+    @Test
+    @DisplayName("(2) Should write the same catalog for the same seed whatever the number of threads")
+    void whenTheSameSeedIsUsedThenTheCatalogIsTheSame() throws Exception {
+        seeder(1).seed();
+        List<Map<String, Object>> sequential = jdbcTemplate.queryForList(CATALOG_QUERY);
+        tearDown();
+        seeder(4).seed();
+        List<Map<String, Object>> parallel = jdbcTemplate.queryForList(CATALOG_QUERY);
+
+        assertThat(parallel.isEmpty(), is(false));
+        assertThat(parallel, is(equalTo(sequential)));
+    }
+
+    @Test
+    @DisplayName("(3) Should append after the rows already in the catalog")
+    void whenTheCatalogIsNotEmptyThenTheSeededRowsFollowIt() throws Exception {
+        SeedResult first = seeder(2).seed();
+        SeedResult second = seeder(2).seed();
+
+        assertThat(second.getFirstBookId(), is(equalTo(first.getFirstBookId() + first.getBooks())));
+        assertThat(second.getFirstAuthorId(), is(equalTo(first.getFirstAuthorId() + first.getAuthors())));
+        assertThat(bookRepository.count(), is(equalTo(6_000L)));
+        assertThat(jdbcTemplate.queryForList("SELECT isbn FROM tb_book GROUP BY isbn HAVING COUNT(*) > 1"),
+                is(empty()));
+        assertThat(jdbcTemplate.queryForList("SELECT author_id FROM tb_book_author WHERE book_id >= ?",
+                Long.class, second.getFirstBookId()), everyItem(is(greaterThanOrEqualTo(second.getFirstAuthorId()))));
+    }
+
+    private CatalogSeeder seeder(int threads) {
+        SeedProperties properties = new SeedProperties();
+        properties.setBooks(3_000);
+        properties.setAuthors(500);
+        properties.setBatchSize(700);
+        properties.setThreads(threads);
+        return new CatalogSeeder(dataSource, properties, null);
+    }
+
+    private Long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}